@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.core;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Time budget of a single execution of rules, see {@link RuleSession#execute(Object, Collection, Deadline)}.
+ * <p>
+ * Deadline is checked cooperatively, between evaluations of rules, so a long running action or function
+ * isn't interrupted, however no further rules are evaluated once the deadline passes. By default execution
+ * exceeding the deadline fails with {@link ExecutionTimeoutException}, see {@link #returningPartialResult()}.
+ */
+public final class Deadline {
+    private final long deadlineNanos;
+    private final Duration timeout;
+    private final boolean partialResult;
+
+    private Deadline(long deadlineNanos, Duration timeout, boolean partialResult) {
+        this.deadlineNanos = deadlineNanos;
+        this.timeout = timeout;
+        this.partialResult = partialResult;
+    }
+
+    /**
+     * Creates deadline passing after {@code timeout} from now.
+     *
+     * @param timeout time budget
+     * @return deadline
+     */
+    public static Deadline after(Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout must not be null");
+        return new Deadline(System.nanoTime() + timeout.toNanos(), timeout, false);
+    }
+
+    /**
+     * Creates deadline which makes execution return result built so far, instead of failing, once it passes.
+     *
+     * @return deadline passing at the same time as this one
+     */
+    public Deadline returningPartialResult() {
+        return new Deadline(deadlineNanos, timeout, true);
+    }
+
+    /**
+     * Tells whether deadline has passed.
+     *
+     * @return {@code true} if deadline has passed
+     */
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Tells whether execution exceeding the deadline should return partial result rather than fail.
+     *
+     * @return {@code true} if partial result should be returned
+     */
+    public boolean isPartialResult() {
+        return partialResult;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{" +
+                "timeout=" + timeout +
+                ", partialResult=" + partialResult +
+                '}';
+    }
+}
@@ -27,6 +27,7 @@ package com.sabre.oss.yare.core;
 import com.sabre.oss.yare.core.ExecutionContext.Key;
 
 import java.util.Collection;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicReference;
 
 public interface DefaultContextKey {
@@ -52,4 +53,20 @@ public interface DefaultContextKey {
      */
     Key<AtomicReference<Object>> RULE_EXECUTION_SET = Key.create(DefaultContextKey.class, "rule-execution-set");
 
+    /**
+     * Key for collecting completion stages of asynchronous actions, see {@link RuleSession#executeAsync(Object, Collection)}.
+     */
+    Key<Collection<CompletionStage<?>>> PENDING_ACTIONS = Key.create(DefaultContextKey.class, "pending-actions");
+
+    /**
+     * Key for preserving deadline of execution, see {@link RuleSession#execute(Object, Collection, Deadline)}.
+     */
+    Key<Deadline> DEADLINE = Key.create(DefaultContextKey.class, "deadline");
+
+    /**
+     * Key for preserving state shared by executions of a batch, see {@link RuleSession#executeAll(java.util.List)}.
+     * Because different YARE Providers can differently amortize executions, object reference is stored.
+     */
+    Key<AtomicReference<Object>> BATCH_STATE = Key.create(DefaultContextKey.class, "batch-state");
+
 }
@@ -24,7 +24,13 @@
 
 package com.sabre.oss.yare.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * {@link RuleSession} is an interface exposing method(s) for rules execution.
@@ -54,4 +60,135 @@ public interface RuleSession {
      * @return {@code result} (in general this not must be the same instance as passed to the method - but type have to be preserved)
      */
     <T> T execute(T result, Collection<?> facts);
+
+    /**
+     * Executes rules against provided {@code facts} like {@link #execute(Object, Collection)}, but within
+     * time budget of {@code deadline}. Once the deadline passes no further rules are evaluated, and either
+     * {@link ExecutionTimeoutException} is thrown or partial result is returned, depending on {@link Deadline#isPartialResult()}.
+     * <p>
+     * Default implementation can't stop evaluation once the deadline passes, so it executes all rules with
+     * {@link #execute(Object, Collection)} and checks the deadline afterwards.
+     *
+     * @param result   result (can be partially initialized)
+     * @param facts    facts based on which rules will be applied
+     * @param deadline deadline of execution
+     * @param <T>      type of result
+     * @return {@code result}, see {@link #execute(Object, Collection)}
+     * @throws ExecutionTimeoutException if deadline passed and partial result shouldn't be returned
+     */
+    default <T> T execute(T result, Collection<?> facts, Deadline deadline) {
+        T executed = execute(result, facts);
+        if (deadline.isExpired() && !deadline.isPartialResult()) {
+            throw new ExecutionTimeoutException(getUri(), deadline);
+        }
+        return executed;
+    }
+
+    /**
+     * Executes rules against provided {@code facts} asynchronously, on the executor configured with
+     * {@link RulesEngineBuilder#withAsyncExecutor(Executor)}.
+     * <p>
+     * Actions and functions may return {@link java.util.concurrent.CompletionStage} instead of blocking. Returned future
+     * completes once all such stages of actions complete, or exceptionally when evaluation or any of them fails.
+     * Implementations may suspend evaluation waiting for a function and resume it once its stage completes,
+     * so no thread is blocked.
+     * <p>
+     * Default implementation executes rules with {@link #execute(Object, Collection)} on the common pool.
+     *
+     * @param result result (can be partially initialized)
+     * @param facts  facts based on which rules will be applied
+     * @param <T>    type of result
+     * @return future of {@code result}, see {@link #execute(Object, Collection)}
+     */
+    default <T> CompletableFuture<T> executeAsync(T result, Collection<?> facts) {
+        return CompletableFuture.supplyAsync(() -> execute(result, facts));
+    }
+
+    /**
+     * Executes rules against each of independent {@code requests}, as if {@link #execute(Object, Collection)}
+     * was called for each of them in order. Implementations may set up execution once per batch, e.g. evaluate
+     * all requests against the rules resolved for the first one.
+     *
+     * @param requests requests to execute
+     * @param <T>      type of results
+     * @return results in the order of {@code requests}
+     */
+    default <T> List<T> executeAll(List<Request<T>> requests) {
+        List<T> results = new ArrayList<>(requests.size());
+        for (Request<T> request : requests) {
+            results.add(execute(request.getResult(), request.getFacts()));
+        }
+        return results;
+    }
+
+    /**
+     * Executes rules against each of independent {@code requests} fanning them out over {@code executor}, each request
+     * submitted as a separate task, so parallelism is bounded by {@code executor} only.
+     * Requests may be executed concurrently and in any order, so their results and facts must not be shared.
+     * Exception thrown by a request is rethrown once all the requests are completed.
+     *
+     * @param requests requests to execute
+     * @param executor executor running requests
+     * @param <T>      type of results
+     * @return results in the order of {@code requests}
+     */
+    default <T> List<T> executeAll(List<Request<T>> requests, Executor executor) {
+        Objects.requireNonNull(executor, "executor must not be null");
+        List<CompletableFuture<T>> futures = new ArrayList<>(requests.size());
+        for (Request<T> request : requests) {
+            futures.add(CompletableFuture.supplyAsync(() -> execute(request.getResult(), request.getFacts()), executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * {@link Request} describes single execution of rules within a batch.
+     *
+     * @param <T> type of result
+     */
+    final class Request<T> {
+        private final T result;
+        private final Collection<?> facts;
+
+        private Request(T result, Collection<?> facts) {
+            this.result = result;
+            this.facts = Objects.requireNonNull(facts, "facts must not be null");
+        }
+
+        /**
+         * Creates request.
+         *
+         * @param result result (can be partially initialized)
+         * @param facts  facts based on which rules will be applied
+         * @param <T>    type of result
+         * @return request
+         */
+        public static <T> Request<T> of(T result, Collection<?> facts) {
+            return new Request<>(result, facts);
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public Collection<?> getFacts() {
+            return facts;
+        }
+    }
 }
@@ -32,6 +32,8 @@ import com.sabre.oss.yare.core.internal.DefaultRulesEngine;
 import com.sabre.oss.yare.core.invocation.Interceptor;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Configures and creates {@link RulesEngine} instance.
@@ -45,6 +47,7 @@ public class RulesEngineBuilder {
     private RulesRepository rulesRepository;
     private RulesExecutorBuilder rulesExecutorBuilder;
     private ErrorHandler errorHandler;
+    private Executor asyncExecutor = ForkJoinPool.commonPool();
 
     /**
      * Specify {@link RulesRepository} used by the rules engine.
@@ -150,6 +153,18 @@ public class RulesEngineBuilder {
         return this;
     }
 
+    /**
+     * Specify {@link Executor} running rules executions started with {@link RuleSession#executeAsync}.
+     * {@link ForkJoinPool#commonPool()} is used by default.
+     *
+     * @param asyncExecutor executor of asynchronous executions
+     * @return this rulesEngineBuilder instance
+     */
+    public RulesEngineBuilder withAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
+
     /**
      * Builds previously configured {@link RulesEngine} instance.
      *
@@ -158,6 +173,7 @@ public class RulesEngineBuilder {
     public RulesEngine build() {
         Objects.requireNonNull(rulesRepository, "rulesRepository cannot be bull");
         Objects.requireNonNull(interceptors, "interceptors cannot be bull");
+        Objects.requireNonNull(asyncExecutor, "asyncExecutor cannot be null");
 
         if (rulesExecutorBuilder == null) {
             rulesExecutorBuilder = createDefaultRulesExecutorBuilder();
@@ -172,7 +188,7 @@ public class RulesEngineBuilder {
                 .withFunctionMappings(functionMappings)
                 .withErrorHandler(errorHandler)
                 .build();
-        return new DefaultRulesEngine(rulesExecutor, fixedInterceptors);
+        return new DefaultRulesEngine(rulesExecutor, fixedInterceptors, asyncExecutor);
     }
 
     private RulesExecutorBuilder createDefaultRulesExecutorBuilder() {
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.core;
+
+import com.sabre.oss.yare.core.model.Rule;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Rules along with their version, see {@link VersionedRulesRepository#getIfChanged(String, String)}.
+ */
+public final class VersionedRules {
+    private final String version;
+    private final Collection<Rule> rules;
+
+    private VersionedRules(String version, Collection<Rule> rules) {
+        this.version = Objects.requireNonNull(version, "version must not be null");
+        this.rules = Objects.requireNonNull(rules, "rules must not be null");
+    }
+
+    /**
+     * Creates rules at given version.
+     *
+     * @param version version of rules
+     * @param rules   rules
+     * @return versioned rules
+     */
+    public static VersionedRules of(String version, Collection<Rule> rules) {
+        return new VersionedRules(version, rules);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Collection<Rule> getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.core;
+
+import com.sabre.oss.yare.core.model.Rule;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * {@link RulesRepository} keeping track of versions of rules, so rules executors may fetch rules only when
+ * they have changed and, if repository supports it, reload them as soon as they are changed.
+ * <p>
+ * Version is an opaque token (e.g. revision number or content hash) which changes whenever rules change.
+ */
+public interface VersionedRulesRepository extends RulesRepository {
+
+    /**
+     * Returns current version of rules for given rules execution set uri.
+     *
+     * @param uri name of rule set
+     * @return current version of rules
+     */
+    String getVersion(String uri);
+
+    /**
+     * Returns rules for given rules execution set uri unless they are still at {@code sinceVersion}.
+     *
+     * @param uri          name of rule set
+     * @param sinceVersion version of rules already known to caller, or {@code null} to fetch rules unconditionally
+     * @return rules along with their version, or empty if rules are still at {@code sinceVersion}
+     */
+    Optional<VersionedRules> getIfChanged(String uri, String sinceVersion);
+
+    /**
+     * Registers {@code listener} notified whenever rules are changed. Repositories unable to detect changes
+     * don't need to support listeners, in which case rules are reloaded only by polling.
+     *
+     * @param listener change listener
+     */
+    default void addChangeListener(ChangeListener listener) {
+    }
+
+    /**
+     * Unregisters {@code listener} registered with {@link #addChangeListener(ChangeListener)}.
+     *
+     * @param listener change listener
+     */
+    default void removeChangeListener(ChangeListener listener) {
+    }
+
+    /**
+     * Returns current rules for given rules execution set uri.
+     *
+     * @param uri name of rule set
+     * @return rules for given rules execution set uri
+     */
+    @Override
+    default Collection<Rule> get(String uri) {
+        return getIfChanged(uri, null)
+                .orElseThrow(() -> new IllegalStateException(String.format("Repository returned no rules for %s", uri)))
+                .getRules();
+    }
+
+    /**
+     * Listener of changes of rules in {@link VersionedRulesRepository}.
+     */
+    @FunctionalInterface
+    interface ChangeListener {
+
+        /**
+         * Called when rules of given rules execution set uri are changed.
+         *
+         * @param uri name of rule set
+         */
+        void rulesChanged(String uri);
+    }
+}
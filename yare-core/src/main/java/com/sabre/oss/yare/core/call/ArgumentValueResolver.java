@@ -35,4 +35,30 @@ public interface ArgumentValueResolver {
      * @return resolved argument value
      */
     Object resolve(VariableResolver variableResolver, Argument argument);
+
+    /**
+     * Prepares resolution of {@code argument} once, so that resolving its value is left with reading the values only.
+     * By default {@link #resolve(VariableResolver, Argument)} is called on each resolution.
+     *
+     * @param argument argument definition
+     * @return resolver of argument value
+     */
+    default PreparedArgument prepare(Argument argument) {
+        return variableResolver -> resolve(variableResolver, argument);
+    }
+
+    /**
+     * {@link PreparedArgument} resolves value of an argument prepared with {@link #prepare(Argument)}.
+     */
+    @FunctionalInterface
+    interface PreparedArgument {
+
+        /**
+         * Based on passed {@link VariableResolver} resolves value of prepared argument.
+         *
+         * @param variableResolver variable resolver
+         * @return resolved argument value
+         */
+        Object resolve(VariableResolver variableResolver);
+    }
 }
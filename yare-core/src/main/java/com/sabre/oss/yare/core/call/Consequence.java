@@ -30,6 +30,7 @@ import com.sabre.oss.yare.core.invocation.Invocation;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 
 import static java.util.Objects.requireNonNull;
 
@@ -46,7 +47,10 @@ public final class Consequence implements Invocation<ProcessingContext, Void> {
     public Void proceed(ProcessingContext context) {
         for (Invocation<ProcessingContext, Void> invocation : invocations) {
             try {
-                invocation.proceed(context);
+                Object outcome = invocation.proceed(context);
+                if (outcome instanceof CompletionStage) {
+                    context.registerPendingAction((CompletionStage<?>) outcome);
+                }
             } catch (Exception e) {
                 if (Objects.isNull(errorHandler) || !errorHandler.handleError(new ConsequenceError(context.getRuleId(), e))) {
                     throw e;
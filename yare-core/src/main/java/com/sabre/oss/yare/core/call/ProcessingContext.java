@@ -24,6 +24,8 @@
 
 package com.sabre.oss.yare.core.call;
 
+import java.util.concurrent.CompletionStage;
+
 /**
  * {@link ProcessingContext} provides information about current processing state of rules engine.
  */
@@ -38,4 +40,14 @@ public interface ProcessingContext extends VariableResolver {
     default Object getResult() {
         return resolve(CONTEXT);
     }
+
+    /**
+     * Registers completion stage returned by an asynchronous action. Rules execution started with
+     * {@link com.sabre.oss.yare.core.RuleSession#executeAsync(Object, java.util.Collection)} completes once
+     * all registered stages complete. Stages are not tracked (hence not awaited) by default.
+     *
+     * @param stage completion stage of the action
+     */
+    default void registerPendingAction(CompletionStage<?> stage) {
+    }
 }
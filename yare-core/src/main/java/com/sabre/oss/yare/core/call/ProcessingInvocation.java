@@ -26,17 +26,19 @@ package com.sabre.oss.yare.core.call;
 
 import com.sabre.oss.yare.core.invocation.Invocation;
 
-import java.util.List;
 import java.util.Objects;
 
 public abstract class ProcessingInvocation<R> implements Invocation<ProcessingContext, R> {
     protected final Argument.Invocation invocation;
-    private final ArgumentValueResolver argumentValueResolver;
+    private final ArgumentValueResolver.PreparedArgument[] arguments;
     private final Object[] constantArguments;
 
     protected ProcessingInvocation(Argument.Invocation invocation, ArgumentValueResolver argumentValueResolver) {
         this.invocation = Objects.requireNonNull(invocation);
-        this.argumentValueResolver = Objects.requireNonNull(argumentValueResolver);
+        Objects.requireNonNull(argumentValueResolver);
+        this.arguments = invocation.getArguments().stream()
+                .map(argumentValueResolver::prepare)
+                .toArray(ArgumentValueResolver.PreparedArgument[]::new);
         this.constantArguments = invocation.getArguments().stream().allMatch(a -> a instanceof Argument.Value)
                 ? prepareArgumentValues(null)
                 : null;
@@ -54,11 +56,9 @@ public abstract class ProcessingInvocation<R> implements Invocation<ProcessingCo
             return constantArguments;
         }
 
-        List<Argument> arguments = invocation.getArguments();
-        Object[] args = new Object[arguments.size()];
-        int index = 0;
-        for (Argument arg : arguments) {
-            args[index++] = argumentValueResolver.resolve(processingContext, arg);
+        Object[] args = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            args[i] = arguments[i].resolve(processingContext);
         }
         return args;
     }
@@ -28,6 +28,7 @@ import com.sabre.oss.yare.core.EngineController;
 import com.sabre.oss.yare.core.listener.Listener;
 import com.sabre.oss.yare.core.listener.CloseSessionContext;
 import com.sabre.oss.yare.core.listener.CloseSessionListener;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
 
 import java.util.Collections;
 import java.util.Map;
@@ -46,6 +47,18 @@ public class DefaultEngineController implements EngineController {
         });
     }
 
+    /**
+     * Returns listener registered for {@code type} of listeners.
+     *
+     * @param type type of listener, e.g. {@link RuleLifecycleListener}
+     * @param <T>  type of listener
+     * @return listener or {@code null} if none is registered
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Listener> T getListener(Class<T> type) {
+        return (T) listeners.get(type);
+    }
+
     @SuppressWarnings({"SameParameterValue", "unchecked"})
     private <T, C> void execute(Class<T> clazz, BiConsumer<T, C> callback, C context) {
         T listener = (T) listeners.get(clazz);
@@ -24,23 +24,38 @@
 
 package com.sabre.oss.yare.core.internal;
 
+import com.sabre.oss.yare.core.Deadline;
 import com.sabre.oss.yare.core.DefaultContextKey;
 import com.sabre.oss.yare.core.ExecutionContext;
 import com.sabre.oss.yare.core.RuleSession;
 import com.sabre.oss.yare.core.invocation.Invocation;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class DefaultRuleSession implements RuleSession {
     private final String uri;
     private final Invocation<ExecutionContext, ExecutionContext> invocation;
+    private final Executor asyncExecutor;
     private final AtomicReference<Object> executionSet = new AtomicReference<>();
 
     public DefaultRuleSession(String uri, Invocation<ExecutionContext, ExecutionContext> invocation) {
+        this(uri, invocation, ForkJoinPool.commonPool());
+    }
+
+    public DefaultRuleSession(String uri, Invocation<ExecutionContext, ExecutionContext> invocation, Executor asyncExecutor) {
         this.uri = Objects.requireNonNull(uri);
         this.invocation = Objects.requireNonNull(invocation);
+        this.asyncExecutor = Objects.requireNonNull(asyncExecutor);
     }
 
     @Override
@@ -48,12 +63,71 @@ public class DefaultRuleSession implements RuleSession {
         return uri;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> T execute(T result, Collection<?> facts) {
-        ExecutionContext inputCtx = new BaseExecutionContext();
-        inputCtx.put(DefaultContextKey.RULE_EXECUTION_SET, executionSet);
-        inputCtx.put(DefaultContextKey.RULE_EXECUTION_SET_URI, uri);
+        return execute(createContext(), result, facts);
+    }
+
+    @Override
+    public <T> T execute(T result, Collection<?> facts, Deadline deadline) {
+        ExecutionContext context = createContext();
+        context.put(DefaultContextKey.DEADLINE, Objects.requireNonNull(deadline, "deadline must not be null"));
+        return execute(context, result, facts);
+    }
+
+    /**
+     * Executes requests with a single context, sharing {@link DefaultContextKey#BATCH_STATE} between them,
+     * so rules executor can set up execution once per batch.
+     */
+    @Override
+    public <T> List<T> executeAll(List<Request<T>> requests) {
+        ExecutionContext context = createContext();
+        context.put(DefaultContextKey.BATCH_STATE, new AtomicReference<>());
+        List<T> results = new ArrayList<>(requests.size());
+        for (Request<T> request : requests) {
+            results.add(execute(context, request.getResult(), request.getFacts()));
+        }
+        return results;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(T result, Collection<?> facts) {
+        Queue<CompletionStage<?>> pendingActions = new ConcurrentLinkedQueue<>();
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    ExecutionContext context = createContext();
+                    context.put(DefaultContextKey.PENDING_ACTIONS, pendingActions);
+                    return execute(context, result, facts);
+                }, asyncExecutor)
+                .thenCompose(output -> awaitPendingActions(pendingActions).thenApply(v -> output));
+    }
+
+    /**
+     * Awaits stages of asynchronous actions, including ones registered while awaiting, e.g. by evaluation resumed
+     * once an asynchronous function completes.
+     */
+    private static CompletableFuture<Void> awaitPendingActions(Queue<CompletionStage<?>> pendingActions) {
+        List<CompletableFuture<?>> stages = new ArrayList<>();
+        for (CompletionStage<?> stage = pendingActions.poll(); stage != null; stage = pendingActions.poll()) {
+            stages.add(stage.toCompletableFuture());
+        }
+        return stages.isEmpty()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(stages.toArray(new CompletableFuture<?>[0])).thenCompose(v -> awaitPendingActions(pendingActions));
+    }
+
+    /**
+     * Creates context bound to this session, for a single execution.
+     */
+    private ExecutionContext createContext() {
+        ExecutionContext context = new BaseExecutionContext();
+        context.put(DefaultContextKey.RULE_EXECUTION_SET, executionSet);
+        context.put(DefaultContextKey.RULE_EXECUTION_SET_URI, uri);
+        return context;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(ExecutionContext inputCtx, T result, Collection<?> facts) {
         inputCtx.put(DefaultContextKey.RESULT, result);
         inputCtx.put(DefaultContextKey.FACTS, facts);
 
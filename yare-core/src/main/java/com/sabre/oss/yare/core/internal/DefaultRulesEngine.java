@@ -31,19 +31,28 @@ import com.sabre.oss.yare.core.invocation.Invocation;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class DefaultRulesEngine implements RulesEngine, Wrapper {
     private final RulesExecutor rulesExecutor;
     private final Invocation<ExecutionContext, ExecutionContext> invocation;
+    private final Executor asyncExecutor;
 
     public DefaultRulesEngine(RulesExecutor rulesExecutor, List<Interceptor<ExecutionContext, ExecutionContext>> interceptors) {
+        this(rulesExecutor, interceptors, ForkJoinPool.commonPool());
+    }
+
+    public DefaultRulesEngine(RulesExecutor rulesExecutor, List<Interceptor<ExecutionContext, ExecutionContext>> interceptors,
+                              Executor asyncExecutor) {
         this.rulesExecutor = Objects.requireNonNull(rulesExecutor, "rulesExecutor must not be null");
         this.invocation = new InterceptedInvocation<>(interceptors, rulesExecutor);
+        this.asyncExecutor = Objects.requireNonNull(asyncExecutor, "asyncExecutor must not be null");
     }
 
     @Override
     public RuleSession createSession(String uri) {
-        return new DefaultRuleSession(uri, invocation);
+        return new DefaultRuleSession(uri, invocation, asyncExecutor);
     }
 
     @Override
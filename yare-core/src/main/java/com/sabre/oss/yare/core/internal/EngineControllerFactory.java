@@ -24,9 +24,9 @@
 
 package com.sabre.oss.yare.core.internal;
 
-import com.sabre.oss.yare.core.EngineController;
 import com.sabre.oss.yare.core.listener.Listener;
 import com.sabre.oss.yare.core.listener.CloseSessionListener;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,9 +35,10 @@ public final class EngineControllerFactory {
     private EngineControllerFactory() {
     }
 
-    public static EngineController createDefaultFrom(Listener... listeners) {
+    public static DefaultEngineController createDefaultFrom(Listener... listeners) {
         Map<Class, Listener> registeredListeners = new ConcurrentHashMap<>();
         Arrays.stream(listeners).forEach(listener -> tryToRegister(registeredListeners, CloseSessionListener.class, listener));
+        Arrays.stream(listeners).forEach(listener -> tryToRegister(registeredListeners, RuleLifecycleListener.class, listener));
         return new DefaultEngineController(registeredListeners);
     }
 
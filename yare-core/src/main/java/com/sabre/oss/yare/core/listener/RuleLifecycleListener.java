@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.core.listener;
+
+import com.sabre.oss.yare.core.call.ProcessingContext;
+
+/**
+ * Listener notified of evaluation of rules, e.g. for auditing or profiling purposes.
+ * <p>
+ * Engines take presence of the listener into account when rules are built, so rules of engines
+ * without the listener are evaluated exactly as before. Listener is called by threads evaluating rules,
+ * hence it has to be thread safe, and should be fast, as it's called for each evaluated rule.
+ */
+public interface RuleLifecycleListener extends Listener {
+    /**
+     * Called before predicate of the rule identified by {@link ProcessingContext#getRuleId()} is evaluated.
+     *
+     * @param context processing context
+     */
+    default void beforeRuleEvaluated(ProcessingContext context) {
+    }
+
+    /**
+     * Called after predicate of the rule identified by {@link ProcessingContext#getRuleId()} is satisfied.
+     *
+     * @param context processing context
+     */
+    default void ruleMatched(ProcessingContext context) {
+    }
+
+    /**
+     * Called after actions of the rule identified by {@link ProcessingContext#getRuleId()} are executed.
+     *
+     * @param context processing context
+     */
+    default void actionExecuted(ProcessingContext context) {
+    }
+
+    /**
+     * Called after all rules of the session are evaluated against given facts, also when evaluation
+     * has failed or timed out.
+     *
+     * @param context session context
+     */
+    default void sessionFinished(SessionFinishedContext context) {
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleSessionTest {
+
+    @Test
+    void shouldExecuteWithinDeadline() {
+        // given
+        RuleSession session = new CollectingRuleSession();
+
+        // when
+        List<Object> result = session.execute(new ArrayList<>(), Collections.singletonList("fact"), Deadline.after(Duration.ofMinutes(1)));
+
+        // then
+        assertThat(result).containsExactly("fact");
+    }
+
+    @Test
+    void shouldFailOnceDeadlinePassed() {
+        // given
+        RuleSession session = new CollectingRuleSession();
+
+        // when / then
+        assertThatThrownBy(() -> session.execute(new ArrayList<>(), Collections.singletonList("fact"), Deadline.after(Duration.ZERO)))
+                .isExactlyInstanceOf(ExecutionTimeoutException.class)
+                .hasMessageStartingWith("Execution of rules 'test' exceeded timeout");
+    }
+
+    @Test
+    void shouldReturnPartialResultOnceDeadlinePassed() {
+        // given
+        RuleSession session = new CollectingRuleSession();
+
+        // when
+        List<Object> result = session.execute(new ArrayList<>(), Collections.singletonList("fact"),
+                Deadline.after(Duration.ZERO).returningPartialResult());
+
+        // then
+        assertThat(result).containsExactly("fact");
+    }
+
+    private static final class CollectingRuleSession implements RuleSession {
+
+        @Override
+        public String getUri() {
+            return "test";
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(T result, Collection<?> facts) {
+            ((List<Object>) result).addAll(facts);
+            return result;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.sabre.oss.yare.core.EngineController;
 import com.sabre.oss.yare.core.listener.Listener;
 import com.sabre.oss.yare.core.listener.CloseSessionContext;
 import com.sabre.oss.yare.core.listener.CloseSessionListener;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -73,6 +74,33 @@ class DefaultEngineControllerTest {
         assertThat(testListener.isEvaluationTerminated()).isTrue();
     }
 
+    @Test
+    void shouldRegisterRuleLifecycleListener() {
+        //given
+        TestListener testListener = new TestListener();
+        RuleLifecycleListener lifecycleListener = new RuleLifecycleListener() {
+        };
+
+        //when
+        DefaultEngineController engineController = EngineControllerFactory.createDefaultFrom(testListener, lifecycleListener);
+
+        //then
+        assertThat(engineController.getListener(RuleLifecycleListener.class)).isSameAs(lifecycleListener);
+        assertThat(engineController.getListener(CloseSessionListener.class)).isSameAs(testListener);
+    }
+
+    @Test
+    void shouldReturnNullWhenNoRuleLifecycleListenerRegistered() {
+        //given
+        DefaultEngineController engineController = EngineControllerFactory.createDefaultFrom(new TestListener());
+
+        //when
+        RuleLifecycleListener listener = engineController.getListener(RuleLifecycleListener.class);
+
+        //then
+        assertThat(listener).isNull();
+    }
+
     private static class TestListener implements CloseSessionListener {
         private boolean evaluationTerminated;
 
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine;
+
+import com.sabre.oss.yare.core.call.Argument;
+import com.sabre.oss.yare.core.call.ArgumentValueResolver;
+import com.sabre.oss.yare.core.call.ProcessingContext;
+import com.sabre.oss.yare.core.call.ProcessingInvocation;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@code AsyncProcessingInvocation} class resolves {@link CompletionStage}s returned by asynchronous functions,
+ * i.e. by the underlying {@link ProcessingInvocation} delegate, to their values.
+ * <p>
+ * Stage which is not completed yet suspends evaluation when context allows it (see
+ * {@link PredicateContext#suspendOnPendingFunctions()}), so evaluation is resumed once the stage completes instead of
+ * blocking the thread. Otherwise the stage is awaited.
+ */
+class AsyncProcessingInvocation<R> extends ProcessingInvocation<R> {
+    private final ProcessingInvocation<R> delegate;
+
+    AsyncProcessingInvocation(Argument.Invocation invocation, ArgumentValueResolver argumentValueResolver, ProcessingInvocation<R> delegate) {
+        super(invocation, argumentValueResolver);
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public R call(ProcessingContext ctx, Object[] args) {
+        PredicateContext context = ctx instanceof PredicateContext ? (PredicateContext) ctx : null;
+        CompletionStage<?> stage = context != null ? context.getAwaitedFunctionResult(invocation.getCall(), args) : null;
+        if (stage == null) {
+            R result = delegate.call(ctx, args);
+            if (!(result instanceof CompletionStage)) {
+                return result;
+            }
+            stage = (CompletionStage<?>) result;
+        }
+        CompletableFuture<?> future = stage.toCompletableFuture();
+        if (!future.isDone() && context != null && context.isSuspendable()) {
+            throw context.suspend(invocation.getCall(), args, stage);
+        }
+        try {
+            return (R) future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -53,8 +53,16 @@ public class CachingDelegatingProcessingInvocationFactory<R> implements Processi
         if (processingInvocation == null) {
             return null;
         }
-        return configuration.isFunctionCacheable(invocation.getCall()) && processingInvocation instanceof ProcessingInvocation
-                ? new CachingDelegatingProcessingInvocation<>(invocation, argumentValueResolverSupplier.get(), (ProcessingInvocation<R>) processingInvocation, invocationCache)
-                : processingInvocation;
+        if (!(processingInvocation instanceof ProcessingInvocation)) {
+            return processingInvocation;
+        }
+        ProcessingInvocation<R> result = (ProcessingInvocation<R>) processingInvocation;
+        if (configuration.isFunctionCacheable(invocation.getCall())) {
+            result = new CachingDelegatingProcessingInvocation<>(invocation, argumentValueResolverSupplier.get(), result, invocationCache);
+        }
+        if (configuration.isFunctionMemoized(invocation.getCall())) {
+            result = new MemoizingProcessingInvocation<>(invocation, argumentValueResolverSupplier.get(), result);
+        }
+        return new AsyncProcessingInvocation<>(invocation, argumentValueResolverSupplier.get(), result);
     }
 }
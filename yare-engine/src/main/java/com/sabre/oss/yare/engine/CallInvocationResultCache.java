@@ -24,9 +24,20 @@
 
 package com.sabre.oss.yare.engine;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.function.Function;
 
 public interface CallInvocationResultCache {
 
     <T> T get(String callName, Object[] args, Function<Object[], T> compute);
+
+    /**
+     * Returns statistics of caches of functions' results, if they are collected.
+     *
+     * @return statistics per function name
+     */
+    default Map<String, FunctionCacheStats> getStats() {
+        return Collections.emptyMap();
+    }
 }
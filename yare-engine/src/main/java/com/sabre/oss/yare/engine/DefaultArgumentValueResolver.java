@@ -27,9 +27,16 @@ package com.sabre.oss.yare.engine;
 import com.sabre.oss.yare.core.call.*;
 import com.sabre.oss.yare.core.invocation.Invocation;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
-import com.sabre.oss.yare.engine.executor.runtime.value.FieldReferringClassFactory;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.value.PropertyAccessorFactory;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
 import org.apache.commons.lang3.reflect.TypeUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
@@ -37,9 +44,15 @@ import static java.util.Objects.requireNonNull;
 public class DefaultArgumentValueResolver implements ArgumentValueResolver {
 
     private final ProcessingInvocationFactory<Object> processingInvocationFactory;
+    private final PropertyAccessorFactory propertyAccessorFactory;
 
     public DefaultArgumentValueResolver(ProcessingInvocationFactory<Object> processingInvocationFactory) {
+        this(processingInvocationFactory, PropertyAccessorFactory.JAVASSIST);
+    }
+
+    public DefaultArgumentValueResolver(ProcessingInvocationFactory<Object> processingInvocationFactory, PropertyAccessorFactory propertyAccessorFactory) {
         this.processingInvocationFactory = requireNonNull(processingInvocationFactory);
+        this.propertyAccessorFactory = requireNonNull(propertyAccessorFactory);
     }
 
     @Override
@@ -69,7 +82,7 @@ public class DefaultArgumentValueResolver implements ArgumentValueResolver {
             referenceType = resolvedValue != null && Object.class.equals(referenceType)
                     ? resolvedValue.getClass()
                     : referenceType;
-            return FieldReferringClassFactory.create(referenceType, identifier, path).get((PredicateContext) variableResolver);
+            return propertyAccessorFactory.create(referenceType, identifier, ContextLayout.UNRESOLVED, path).get((PredicateContext) variableResolver);
         }
         if (argument instanceof Argument.Invocation) {
             if (!(variableResolver instanceof ProcessingContext)) {
@@ -82,4 +95,81 @@ public class DefaultArgumentValueResolver implements ArgumentValueResolver {
 
         throw new IllegalArgumentException(String.format("Unsupported argument type %s", argument.getClass()));
     }
+
+    /**
+     * Prepares resolution of {@code argument}. References are split and value providers of their paths are looked up
+     * once per type of referred value, nested invocations are created once.
+     */
+    @Override
+    public PreparedArgument prepare(Argument argument) {
+        if (argument instanceof Argument.Value) {
+            Object value = ((Argument.Value) argument).getValue();
+            return variableResolver -> value;
+        }
+        if (argument instanceof Argument.Values) {
+            PreparedArgument[] arguments = ((Argument.Values) argument).getArguments().stream()
+                    .map(this::prepare)
+                    .toArray(PreparedArgument[]::new);
+            return variableResolver -> {
+                List<Object> values = new ArrayList<>(arguments.length);
+                for (PreparedArgument a : arguments) {
+                    values.add(a.resolve(variableResolver));
+                }
+                return values;
+            };
+        }
+        if (argument instanceof Argument.Reference) {
+            return prepareReference((Argument.Reference) argument);
+        }
+        if (argument instanceof Argument.Invocation) {
+            Invocation<ProcessingContext, Object> invocation = processingInvocationFactory.create((Argument.Invocation) argument);
+            return variableResolver -> {
+                if (!(variableResolver instanceof ProcessingContext)) {
+                    throw new IllegalArgumentException("Expected ProcessingContext as VariableResolver");
+                }
+                return invocation.proceed((ProcessingContext) variableResolver);
+            };
+        }
+
+        throw new IllegalArgumentException(String.format("Unsupported argument type %s", argument.getClass()));
+    }
+
+    private PreparedArgument prepareReference(Argument.Reference reference) {
+        String path = reference.getReference();
+        int dotIndex = path.indexOf(".");
+        if (dotIndex == -1) {
+            return variableResolver -> {
+                checkPredicateContext(variableResolver);
+                return variableResolver.resolve(path);
+            };
+        }
+        String identifier = path.substring(0, dotIndex);
+        String propertyPath = path.substring(dotIndex + 1);
+        Class<?> referenceType = TypeUtils.getRawType(reference.getReferenceType(), null);
+        // providers are held by the argument only, so they are released along with rules
+        Map<Class<?>, ValueProvider> valueProviders = new ConcurrentHashMap<>();
+        Function<Class<?>, ValueProvider> valueProviderFactory = type -> propertyAccessorFactory.create(type, identifier, ContextLayout.UNRESOLVED, propertyPath);
+        if (!Object.class.equals(referenceType)) {
+            return variableResolver -> {
+                checkPredicateContext(variableResolver);
+                return valueProviders.computeIfAbsent(referenceType, valueProviderFactory).get((PredicateContext) variableResolver);
+            };
+        }
+        return variableResolver -> {
+            checkPredicateContext(variableResolver);
+            Object resolvedValue = variableResolver.resolve(identifier);
+            Class<?> type = resolvedValue != null ? resolvedValue.getClass() : Object.class;
+            ValueProvider valueProvider = valueProviders.get(type);
+            if (valueProvider == null) {
+                valueProvider = valueProviders.computeIfAbsent(type, valueProviderFactory);
+            }
+            return valueProvider.get((PredicateContext) variableResolver);
+        };
+    }
+
+    private static void checkPredicateContext(VariableResolver variableResolver) {
+        if (!(variableResolver instanceof PredicateContext)) {
+            throw new IllegalArgumentException("Expected PredicateContext as VariableResolver");
+        }
+    }
 }
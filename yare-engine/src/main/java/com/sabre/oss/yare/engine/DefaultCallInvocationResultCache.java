@@ -24,47 +24,156 @@
 
 package com.sabre.oss.yare.engine;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.sabre.oss.yare.engine.executor.ExecutorConfiguration;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
+/**
+ * Caches results of functions per function name and arguments (compared with {@link Object#equals(Object)}).
+ * <p>
+ * Caches are bounded as configured with {@link ExecutorConfiguration}. Bounded caches admit results of calls
+ * requested repeatedly only (as estimated by {@link FrequencySketch}), so calls with rarely repeated arguments
+ * don't evict frequently used results.
+ */
 public class DefaultCallInvocationResultCache implements CallInvocationResultCache {
-    private final ConcurrentMap<String, LoadingCache<ObjectsWrapper, Optional<Object>>> cachesPerFunction = new ConcurrentHashMap<>();
+    private static final int ADMISSION_FREQUENCY = 2;
+
+    private final ConcurrentMap<String, FunctionCache> cachesPerFunction = new ConcurrentHashMap<>();
     private final ExecutorConfiguration configuration;
 
     public DefaultCallInvocationResultCache(ExecutorConfiguration configuration) {
         this.configuration = configuration;
     }
 
+    @Override
     public <T> T get(String callName, Object[] args, Function<Object[], T> compute) {
-        LoadingCache<ObjectsWrapper, Optional<Object>> functionResultCache = cachesPerFunction.get(callName);
-        if (functionResultCache == null) {
-            functionResultCache = CacheBuilder.<ObjectsWrapper, Optional<Object>>newBuilder()
+        FunctionCache functionCache = cachesPerFunction.get(callName);
+        if (functionCache == null) {
+            functionCache = cachesPerFunction.computeIfAbsent(callName, this::createFunctionCache);
+        }
+        return functionCache.get(args, compute);
+    }
+
+    /**
+     * Returns statistics of caches of functions called so far.
+     *
+     * @return statistics per function name
+     */
+    @Override
+    public Map<String, FunctionCacheStats> getStats() {
+        Map<String, FunctionCacheStats> stats = new HashMap<>();
+        cachesPerFunction.forEach((callName, functionCache) -> stats.put(callName, functionCache.getStats()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private FunctionCache createFunctionCache(String callName) {
+        return new FunctionCache(configuration, callName);
+    }
+
+    private static final class FunctionCache {
+        private final Cache<ObjectsWrapper, Optional<Object>> cache;
+        private final FrequencySketch admission;
+        private final LongAdder hitCount = new LongAdder();
+        private final LongAdder missCount = new LongAdder();
+        private final LongAdder totalLoadTime = new LongAdder();
+        private final LongAdder evictionCount = new LongAdder();
+
+        private FunctionCache(ExecutorConfiguration configuration, String callName) {
+            CacheBuilder<ObjectsWrapper, Optional<Object>> builder = CacheBuilder.newBuilder()
                     .expireAfterAccess(configuration.getFunctionCacheExpirationTime(callName).toMillis(), TimeUnit.MILLISECONDS)
-                    .build(new CacheLoader<ObjectsWrapper, Optional<Object>>() {
-                        @Override
-                        public Optional<Object> load(ObjectsWrapper arguments) {
-                            return Optional.ofNullable((compute.apply(arguments.getObjects())));
-                        }
-                    });
-            cachesPerFunction.putIfAbsent(callName, functionResultCache);
+                    .removalListener(this::recordRemoval);
+            long maximumWeight = configuration.getFunctionCacheMaximumWeight(callName);
+            long maximumSize = configuration.getFunctionCacheMaximumSize(callName);
+            if (maximumWeight != ExecutorConfiguration.UNBOUNDED) {
+                FunctionResultWeigher weigher = configuration.getFunctionCacheWeigher(callName);
+                builder.maximumWeight(maximumWeight)
+                        .weigher((ObjectsWrapper arguments, Optional<Object> result) -> weigher.weigh(arguments.getObjects(), result.orElse(null)));
+                this.admission = new FrequencySketch(maximumWeight);
+            } else if (maximumSize != ExecutorConfiguration.UNBOUNDED) {
+                builder.maximumSize(maximumSize);
+                this.admission = new FrequencySketch(maximumSize);
+            } else {
+                this.admission = null;
+            }
+            this.cache = builder.build();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T get(Object[] args, Function<Object[], T> compute) {
+            ObjectsWrapper key = new ObjectsWrapper(args);
+            Optional<Object> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                hitCount.increment();
+                return (T) cached.orElse(null);
+            }
+            if (admission != null && admission.increment(key.hashCode()) < ADMISSION_FREQUENCY) {
+                // failures are wrapped the same way the cache wraps them, whether result is admitted or not
+                try {
+                    return load(args, compute);
+                } catch (RuntimeException e) {
+                    throw new UncheckedExecutionException(e);
+                } catch (Error e) {
+                    throw new ExecutionError(e);
+                }
+            }
+            boolean[] loaded = new boolean[1];
+            try {
+                cached = cache.get(key, () -> {
+                    loaded[0] = true;
+                    return Optional.ofNullable(load(args, compute));
+                });
+            } catch (ExecutionException e) {
+                throw new UncheckedExecutionException(e.getCause());
+            }
+            if (!loaded[0]) {
+                hitCount.increment();
+            }
+            return (T) cached.orElse(null);
+        }
+
+        private <T> T load(Object[] args, Function<Object[], T> compute) {
+            missCount.increment();
+            long start = System.nanoTime();
+            try {
+                return compute.apply(args);
+            } finally {
+                totalLoadTime.add(System.nanoTime() - start);
+            }
+        }
+
+        private void recordRemoval(RemovalNotification<ObjectsWrapper, Optional<Object>> notification) {
+            if (notification.wasEvicted()) {
+                evictionCount.increment();
+            }
+        }
+
+        private FunctionCacheStats getStats() {
+            return new FunctionCacheStats(hitCount.sum(), missCount.sum(), totalLoadTime.sum(), evictionCount.sum());
         }
-        return (T) functionResultCache.getUnchecked(new ObjectsWrapper(args)).orElse(null);
     }
 
     private static final class ObjectsWrapper {
         private final Object[] objects;
+        private final int hashCode;
 
         private ObjectsWrapper(Object[] objects) {
             this.objects = objects;
+            this.hashCode = Arrays.hashCode(objects);
         }
 
         private Object[] getObjects() {
@@ -85,7 +194,7 @@ public class DefaultCallInvocationResultCache implements CallInvocationResultCac
 
         @Override
         public int hashCode() {
-            return Arrays.hashCode(objects);
+            return hashCode;
         }
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch estimating how often keys were requested recently. Counters saturate at {@value #MAX_COUNT}
+ * and are halved once the number of requests reaches ten times the width of the sketch, so estimates decay.
+ * <p>
+ * Updates aren't synchronized with halving, hence estimates are approximate under contention, which is fine
+ * for admission decisions.
+ */
+final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_WIDTH = 1 << 16;
+    private static final int[] SEEDS = {0x97cb3127, 0xbb67ae85, 0xa54ff53a, 0x9b05688c};
+
+    private final AtomicIntegerArray counters;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    FrequencySketch(long expectedSize) {
+        int size = (int) Math.max(16, Math.min(expectedSize, MAX_WIDTH));
+        this.width = Integer.highestOneBit(size - 1) << 1;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Records request of key of {@code hash} and returns estimated number of its recent requests, this one included.
+     *
+     * @param hash hash of requested key
+     * @return estimated frequency
+     */
+    int increment(int hash) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = i * width + indexOf(hash, i);
+            int count = counters.get(index);
+            if (count < MAX_COUNT) {
+                count = counters.incrementAndGet(index);
+            }
+            frequency = Math.min(frequency, count);
+        }
+        if (requests.incrementAndGet() == sampleSize) {
+            halve();
+        }
+        return frequency;
+    }
+
+    private int indexOf(int hash, int depth) {
+        int h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h ^= h >>> 16;
+        return h & (width - 1);
+    }
+
+    private void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+        requests.set(0);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine;
+
+import java.util.Objects;
+
+/**
+ * Snapshot of statistics of function results cache.
+ */
+public final class FunctionCacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long totalLoadTime;
+    private final long evictionCount;
+
+    public FunctionCacheStats(long hitCount, long missCount, long totalLoadTime, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.totalLoadTime = totalLoadTime;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Returns number of calls served with cached results.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns number of calls which invoked the function.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns time spent invoking the function, in nanoseconds.
+     *
+     * @return total load time
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * Returns number of results evicted due to size or weight limits.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns ratio of calls served with cached results, or {@code 1.0} if there were no calls.
+     *
+     * @return hit rate
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FunctionCacheStats that = (FunctionCacheStats) o;
+        return hitCount == that.hitCount &&
+                missCount == that.missCount &&
+                totalLoadTime == that.totalLoadTime &&
+                evictionCount == that.evictionCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hitCount, missCount, totalLoadTime, evictionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "FunctionCacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
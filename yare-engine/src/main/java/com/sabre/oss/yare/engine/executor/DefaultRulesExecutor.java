@@ -28,22 +28,39 @@ import com.google.common.base.Stopwatch;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.sabre.oss.yare.core.*;
 import com.sabre.oss.yare.core.call.ProcessingContext;
+import com.sabre.oss.yare.core.internal.DefaultEngineController;
 import com.sabre.oss.yare.core.invocation.Invocation;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
+import com.sabre.oss.yare.core.listener.SessionFinishedContext;
 import com.sabre.oss.yare.core.management.EvictableCache;
 import com.sabre.oss.yare.core.model.Attribute;
 import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.engine.executor.metrics.InstrumentedConsequence;
+import com.sabre.oss.yare.engine.executor.metrics.InstrumentedPredicate;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetrics;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetricsRegistry;
+import com.sabre.oss.yare.engine.executor.runtime.compiler.PredicateCompiler;
+import com.sabre.oss.yare.engine.executor.runtime.index.DiscriminationIndex;
+import com.sabre.oss.yare.engine.executor.runtime.index.RulePartition;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PendingFunctionException;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+import com.sabre.oss.yare.engine.executor.runtime.value.FieldReferringClassFactory;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Type;
 import java.util.*;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -51,25 +68,158 @@ import java.util.stream.Collectors;
 public class DefaultRulesExecutor implements RulesExecutor, Wrapper, EvictableCache {
     private static final Logger log = LoggerFactory.getLogger(DefaultRulesExecutor.class);
 
-    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+    private final RulesRepository rulesRepository;
+    private final RuntimeRulesBuilder runtimeRulesBuilder;
     private final LoadingCache<String, RuntimeRules> runtimeRulesCache;
     private final ExecutorConfiguration configuration;
     private final EngineController engineController;
-    private final EngineListener engineListener;
+    private final PredicateCompiler predicateCompiler;
+    private final RuleLifecycleListener ruleLifecycleListener;
 
     public DefaultRulesExecutor(RulesRepository rulesRepository, RuntimeRulesBuilder runtimeRulesBuilder,
-                                ExecutorConfiguration configuration, EngineController engineController, EngineListener engineListener) {
+                                ExecutorConfiguration configuration, EngineController engineController) {
         this.configuration = configuration;
-        this.runtimeRulesCache = buildCachingContext(rulesRepository, runtimeRulesBuilder);
+        this.rulesRepository = rulesRepository;
+        this.runtimeRulesBuilder = runtimeRulesBuilder;
+        this.runtimeRulesCache = buildCachingContext();
         this.engineController = engineController;
-        this.engineListener = engineListener;
+        this.predicateCompiler = configuration.isTieredCompilation() ? new PredicateCompiler() : null;
+        this.ruleLifecycleListener = engineController instanceof DefaultEngineController
+                ? ((DefaultEngineController) engineController).getListener(RuleLifecycleListener.class)
+                : null;
+        // registered once executor is fully initialized, as repository may notify listener right away
+        if (rulesRepository instanceof VersionedRulesRepository) {
+            ((VersionedRulesRepository) rulesRepository).addChangeListener(this::rulesChanged);
+        }
+    }
+
+    /**
+     * Creates executor.
+     *
+     * @param rulesRepository     rules repository
+     * @param runtimeRulesBuilder runtime rules builder
+     * @param configuration       executor configuration
+     * @param engineController    engine controller
+     * @param engineListener      ignored, as session termination is controlled per execution
+     * @deprecated Sessions are terminated by {@link SessionControl} created for each execution, rather than by
+     * {@link EngineListener} shared by all of them, please use
+     * {@link #DefaultRulesExecutor(RulesRepository, RuntimeRulesBuilder, ExecutorConfiguration, EngineController)}
+     */
+    @Deprecated
+    public DefaultRulesExecutor(RulesRepository rulesRepository, RuntimeRulesBuilder runtimeRulesBuilder,
+                                ExecutorConfiguration configuration, EngineController engineController, EngineListener engineListener) {
+        this(rulesRepository, runtimeRulesBuilder, configuration, engineController);
     }
 
     @Override
     public ExecutionContext proceed(ExecutionContext context) {
+        SessionControl control = new SessionControl(engineController, context.get(DefaultContextKey.DEADLINE, null));
+        CompletionStage<Void> evaluation = null;
+        try {
+            evaluation = evaluate(context, control);
+            if (evaluation != null) {
+                // evaluation suspended by asynchronous function is finished once it's resumed and completed
+                context.get(DefaultContextKey.PENDING_ACTIONS).add(evaluation
+                        .thenRun(() -> checkDeadline(context, control))
+                        .whenComplete((v, e) -> sessionFinished(context)));
+            } else {
+                checkDeadline(context, control);
+            }
+        } finally {
+            if (evaluation == null) {
+                sessionFinished(context);
+            }
+        }
+        return context;
+    }
+
+    private static void checkDeadline(ExecutionContext context, SessionControl control) {
+        if (control.isExpired() && !control.getDeadline().isPartialResult()) {
+            throw new ExecutionTimeoutException(context.get(DefaultContextKey.RULE_EXECUTION_SET_URI), control.getDeadline());
+        }
+    }
+
+    /**
+     * Notifies {@link RuleLifecycleListener} that session is finished, whether evaluation has completed, failed or timed out.
+     */
+    private void sessionFinished(ExecutionContext context) {
+        if (ruleLifecycleListener != null) {
+            String uri = context.get(DefaultContextKey.RULE_EXECUTION_SET_URI);
+            Object result = context.get(DefaultContextKey.RESULT);
+            ruleLifecycleListener.sessionFinished(new SessionFinishedContext() {
+                @Override
+                public String getUri() {
+                    return uri;
+                }
+
+                @Override
+                public Object getResult() {
+                    return result;
+                }
+            });
+        }
+    }
+
+    /**
+     * Evaluates rules against facts of {@code context}.
+     *
+     * @return stage of evaluation suspended by asynchronous function or {@code null} if evaluation is completed
+     */
+    private CompletionStage<Void> evaluate(ExecutionContext context, SessionControl control) {
         Object result = context.get(DefaultContextKey.RESULT);
         Collection<?> inFacts = context.get(DefaultContextKey.FACTS);
+        Collection<CompletionStage<?>> pendingActions = context.get(DefaultContextKey.PENDING_ACTIONS, null);
+
+        // executions of a batch are evaluated against rules resolved for the first one
+        AtomicReference<Object> batchStateHolder = context.get(DefaultContextKey.BATCH_STATE, null);
+        BatchState batchState = batchStateHolder != null ? (BatchState) batchStateHolder.get() : null;
+        RuntimeRules runtimeRules;
+        if (batchState != null) {
+            runtimeRules = batchState.runtimeRules;
+        } else {
+            runtimeRules = resolveRules(context);
+            if (batchStateHolder != null) {
+                batchState = new BatchState(runtimeRules);
+                batchStateHolder.set(batchState);
+            }
+        }
 
+        List<List<Object>> groupedFacts = groupFacts(inFacts, runtimeRules);
+        int groupsCount = countGroups(groupedFacts);
+        Object[] tuple = batchState != null ? batchState.clearTuple() : new Object[groupedFacts.size()];
+        Iterator<Object[]> iterator = groupsCount == 1
+                ? new SingleTypeFactTupleIterator(groupedFacts, tuple)
+                : configuration.isCrossProductMode()
+                ? createCrossProductIterator(runtimeRules, result, groupedFacts, tuple, control)
+                : new SingleInstanceFactTupleIterator(groupedFacts, tuple);
+
+        if (configuration.isParallelMode()) {
+            evaluateInParallel(runtimeRules, result, pendingActions, iterator, control);
+            return null;
+        }
+        PredicateContext predicateContext = (batchState != null
+                ? batchState.rebindContext(result, control)
+                : new PredicateContext(runtimeRules.getContextLayout(), result, tuple, control))
+                .trackPendingActions(pendingActions);
+        if (pendingActions != null && !configuration.isSequentialMode()) {
+            return evaluateSuspendably(runtimeRules, predicateContext.suspendOnPendingFunctions(), iterator, control, false);
+        }
+        while (iterator.hasNext() && !control.isTerminated()) {
+            iterator.next();
+            predicateContext.nextTuple();
+            if (configuration.isSequentialMode()) {
+                evaluateSequentially(runtimeRules, predicateContext, control);
+            } else {
+                fire(findConsequences(runtimeRules, predicateContext, partitionRules(iterator), control), control);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves rules of session executing {@code context}, following their reloads and tiered compilation.
+     */
+    private RuntimeRules resolveRules(ExecutionContext context) {
         String uri = context.get(DefaultContextKey.RULE_EXECUTION_SET_URI);
         AtomicReference<Object> evaluationContextHolder = context.get(DefaultContextKey.RULE_EXECUTION_SET);
         RuntimeRules runtimeRules = (RuntimeRules) evaluationContextHolder.get();
@@ -83,22 +233,42 @@ public class DefaultRulesExecutor implements RulesExecutor, Wrapper, EvictableCa
         if (runtimeRules == null) {
             throw new IllegalStateException(String.format("PlainJava RE could not load rules execution set %s", uri));
         }
+        runtimeRules = followSuccessors(evaluationContextHolder, runtimeRules);
+        if (predicateCompiler != null && !runtimeRules.isCompiled()) {
+            runtimeRules = tierUp(uri, evaluationContextHolder, runtimeRules);
+        }
+        return runtimeRules;
+    }
 
-        Map<String, List<Object>> groupedFact = groupFacts(inFacts, runtimeRules.getFactNames());
-        Iterator<Map<String, Object>> iterator = groupedFact.size() == 1
-                ? new SingleTypeFactTupleIterator(groupedFact)
-                : configuration.isCrossProductMode() ? new CrossProductFactTupleIterator(groupedFact) : new SingleInstanceFactTupleIterator(groupedFact);
-
-        if (configuration.isSequentialMode()) {
-            while (iterator.hasNext() && !engineListener.isEvaluationTerminated()) {
-                evaluateSequentially(runtimeRules, result, iterator.next());
+    /**
+     * Evaluates fact tuples like the default mode does, but suspends evaluation of a tuple once an asynchronous function
+     * returns stage which is not completed yet, so no thread waits for it. Evaluation is resumed with the same tuple once
+     * the stage completes; consequences of the tuple aren't fired before all its predicates are evaluated, so none is
+     * fired twice.
+     *
+     * @return stage of suspended evaluation or {@code null} if evaluation is completed
+     */
+    private CompletionStage<Void> evaluateSuspendably(RuntimeRules runtimeRules, PredicateContext context, Iterator<Object[]> iterator,
+                                                      SessionControl control, boolean resumed) {
+        boolean sameTuple = resumed;
+        while ((sameTuple || iterator.hasNext()) && !control.isTerminated()) {
+            if (!sameTuple) {
+                iterator.next();
+                context.nextTuple();
             }
-        } else {
-            while (iterator.hasNext() && !engineListener.isEvaluationTerminated()) {
-                evaluate(runtimeRules, result, iterator.next());
+            sameTuple = false;
+            List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>> consequences;
+            try {
+                consequences = findConsequences(runtimeRules, context, partitionRules(iterator), control);
+            } catch (PendingFunctionException e) {
+                return e.getStage().thenCompose(v -> {
+                    CompletionStage<Void> evaluation = evaluateSuspendably(runtimeRules, context, iterator, control, true);
+                    return evaluation != null ? evaluation : CompletableFuture.completedFuture(null);
+                });
             }
+            fire(consequences, control);
         }
-        return context;
+        return null;
     }
 
     @Override
@@ -111,109 +281,480 @@ public class DefaultRulesExecutor implements RulesExecutor, Wrapper, EvictableCa
     @Override
     public boolean evict(Object key) {
         runtimeRulesCache.invalidate(key);
+        if (configuration.isRuleMetricsEnabled() && key instanceof String) {
+            configuration.getRuleMetricsRegistry().remove((String) key);
+        }
+        FieldReferringClassFactory.releaseUnused();
         return true;
     }
 
     @Override
     public boolean clear() {
+        Set<String> uris = new HashSet<>(runtimeRulesCache.asMap().keySet());
         runtimeRulesCache.invalidateAll();
+        if (configuration.isRuleMetricsEnabled()) {
+            uris.forEach(configuration.getRuleMetricsRegistry()::remove);
+        }
+        FieldReferringClassFactory.releaseUnused();
         return true;
     }
 
-    private Map<String, List<Object>> groupFacts(Collection<?> inFacts, Map<Type, String> factNames) {
-        Map<Class<?>, List<Object>> facts = new HashMap<>();
+    /**
+     * Switches session to rules superseding {@code runtimeRules}, if they have been reloaded since session started using them.
+     */
+    private static RuntimeRules followSuccessors(AtomicReference<Object> evaluationContextHolder, RuntimeRules runtimeRules) {
+        RuntimeRules current = runtimeRules;
+        RuntimeRules successor = current.getSuccessor();
+        while (successor != null) {
+            evaluationContextHolder.compareAndSet(current, successor);
+            current = successor;
+            successor = current.getSuccessor();
+        }
+        return current;
+    }
+
+    /**
+     * Switches to compiled rules once they are available, otherwise counts executions of interpreted ones
+     * and schedules their compilation when {@link ExecutorConfiguration#getCompilationThreshold()} is reached.
+     * Compiled rules replace interpreted ones both in the session and in the rules cache.
+     */
+    private RuntimeRules tierUp(String uri, AtomicReference<Object> evaluationContextHolder, RuntimeRules runtimeRules) {
+        RuntimeRules compiledRules = runtimeRules.getCompiledRules();
+        if (compiledRules != null) {
+            evaluationContextHolder.compareAndSet(runtimeRules, compiledRules);
+            return compiledRules;
+        }
+        if (runtimeRules.countInvocation() == configuration.getCompilationThreshold()) {
+            try {
+                CompletableFuture.supplyAsync(() -> compile(runtimeRules, null), configuration.getCompilationExecutor())
+                        .thenAccept(compiled -> {
+                            runtimeRules.setCompiledRules(compiled);
+                            runtimeRulesCache.asMap().replace(uri, runtimeRules, compiled);
+                            evaluationContextHolder.compareAndSet(runtimeRules, compiled);
+                            log.info("Compiled rules '{}'", uri);
+                        })
+                        .exceptionally(e -> {
+                            logCompilationFailure(uri, e);
+                            return null;
+                        });
+            } catch (RuntimeException e) {
+                logCompilationFailure(uri, e);
+            }
+        }
+        return runtimeRules;
+    }
+
+    private static void logCompilationFailure(String uri, Throwable e) {
+        log.warn("Unable to compile rules '{}', interpreted ones are used", uri, e);
+    }
+
+    /**
+     * Compiles predicates of {@code runtimeRules}, with a class loader of their own, so classes of compiled predicates
+     * are unloaded along with them. Predicates already compiled in {@code previous} rules (i.e. of rules reused
+     * by reloaded ones) are reused instead of being compiled again.
+     */
+    private RuntimeRules compile(RuntimeRules runtimeRules, RuntimeRules previous) {
+        PredicateCompiler compiler = predicateCompiler.withNewClassLoader();
+        Map<Predicate, Predicate> previouslyCompiled = previous != null ? previous.getCompiledPredicates() : Collections.emptyMap();
+        Map<Predicate, Predicate> compiledPredicates = new IdentityHashMap<>();
+        List<RuntimeRules.ExecutableRule> executableRules = runtimeRules.getExecutableRules().stream()
+                .map(rule -> rule.withPredicate(compiler.compile(rule.getPredicate(), previouslyCompiled, compiledPredicates)))
+                .collect(Collectors.toList());
+        return runtimeRules.withCompiledRules(executableRules, compiledPredicates);
+    }
+
+    /**
+     * Wraps predicates and consequences of {@code runtimeRules} so they record their evaluations in {@code registry}.
+     * Uninstrumented rules are evaluated when metrics are disabled, so they don't pay for them.
+     */
+    private static RuntimeRules instrument(String uri, RuntimeRules runtimeRules, RuleMetricsRegistry registry) {
+        List<RuntimeRules.ExecutableRule> executableRules = runtimeRules.getExecutableRules().stream()
+                .map(rule -> {
+                    RuleMetrics metrics = registry.getOrCreate(uri, rule.getRuleId());
+                    return rule.withPredicate(new InstrumentedPredicate(rule.getPredicate(), metrics))
+                            .withConsequence(new InstrumentedConsequence(rule.getConsequence(), metrics));
+                })
+                .collect(Collectors.toList());
+        return runtimeRules.withExecutableRules(executableRules, runtimeRules.isCompiled());
+    }
+
+    /**
+     * Creates iterator of fact tuples of rule partitions, generated of facts kept by alpha conditions of partitions' rules
+     * and joined by their equality conditions. Facts modified by actions in sequential mode may satisfy conditions
+     * they were filtered out by, so plain cross product is iterated then.
+     */
+    private Iterator<Object[]> createCrossProductIterator(RuntimeRules runtimeRules, Object result, List<List<Object>> groupedFacts, Object[] tuple,
+                                                          SessionControl control) {
+        return configuration.isSequentialMode()
+                ? new CrossProductFactTupleIterator(groupedFacts, tuple)
+                : new PartitionedFactTupleIterator(runtimeRules.getRulePartitions().getPartitions(), groupedFacts, tuple,
+                runtimeRules.getContextLayout(), result, control);
+    }
+
+    /**
+     * Returns rules evaluated against the current tuple of {@code iterator}.
+     *
+     * @return indexes of rules or {@code null} if all rules are evaluated
+     */
+    private static BitSet partitionRules(Iterator<Object[]> iterator) {
+        return iterator instanceof PartitionedFactTupleIterator ? ((PartitionedFactTupleIterator) iterator).getRules() : null;
+    }
+
+    /**
+     * Groups facts by their index in fact tuples (see {@link RuntimeRules#getFactIndex(Class)}). Facts of types
+     * not referred by rules are grouped together after all the others. Absent groups are {@code null}.
+     */
+    private static List<List<Object>> groupFacts(Collection<?> inFacts, RuntimeRules runtimeRules) {
+        int unknownIndex = runtimeRules.getContextLayout().getFactCount();
+        List<List<Object>> groupedFacts = new ArrayList<>(Collections.nCopies(unknownIndex + 1, null));
         for (Object fact : inFacts) {
-            List<Object> grouped = facts.computeIfAbsent(fact.getClass(), (k) -> new ArrayList<>());
-            grouped.add(fact);
+            int index = runtimeRules.getFactIndex(fact.getClass());
+            if (index < 0) {
+                index = unknownIndex;
+            }
+            List<Object> group = groupedFacts.get(index);
+            if (group == null) {
+                group = new ArrayList<>();
+                groupedFacts.set(index, group);
+            }
+            group.add(fact);
         }
-        Map<String, List<Object>> result = new HashMap<>(facts.size());
-        for (Entry<Class<?>, List<Object>> entry : facts.entrySet()) {
-            result.put(typeNames.computeIfAbsent(entry.getKey(), factNames::get), entry.getValue());
+        if (groupedFacts.get(unknownIndex) == null) {
+            groupedFacts.remove(unknownIndex);
         }
-        return result;
+        return groupedFacts;
     }
 
-    private void evaluateSequentially(RuntimeRules runtimeRules, Object result, Map<String, Object> factMap) {
+    private static int countGroups(List<List<Object>> groupedFacts) {
+        int count = 0;
+        for (List<Object> group : groupedFacts) {
+            if (group != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Evaluates rules one by one, firing consequence of each matching rule before the next one is evaluated.
+     * Consequences may modify facts, so candidate rules are found again and function results are forgotten
+     * after each of them is fired.
+     */
+    private void evaluateSequentially(RuntimeRules runtimeRules, PredicateContext context, SessionControl control) {
         List<RuntimeRules.ExecutableRule> executableRules = runtimeRules.getExecutableRules();
-        for (int i = 0; i < executableRules.size() && !engineListener.isEvaluationTerminated(); ++i) {
+        DiscriminationIndex discriminationIndex = runtimeRules.getDiscriminationIndex();
+        BitSet candidates = discriminationIndex.findCandidates(context);
+        MatchCounter matches = createMatchCounter(runtimeRules);
+        for (int i = candidates.nextSetBit(0); i >= 0 && !control.isTerminated(); i = candidates.nextSetBit(i + 1)) {
+            if (matches != null && matches.isExhausted(i)) {
+                continue;
+            }
             RuntimeRules.ExecutableRule executableRule = executableRules.get(i);
-            PredicateContext context = new PredicateContext(executableRule.getRuleId(), result, factMap, executableRule.getAttributes(), engineController);
+            context.bind(executableRule.getRuleId(), executableRule.getAttributes(), executableRule.getAttributeValues());
             Boolean evaluationResult = executableRule.getPredicate().evaluate(context);
             if (Boolean.TRUE.equals(evaluationResult)) {
                 executableRule.getConsequence().proceed(context);
+                if (matches != null && matches.countMatch(i)) {
+                    return;
+                }
+                context.forgetFunctionResults();
+                candidates = discriminationIndex.findCandidates(context);
+            }
+        }
+    }
+
+    /**
+     * Evaluates predicates of batches of fact tuples using {@link ExecutorConfiguration#getParallelExecutor()}.
+     * Consequences are fired by the calling thread in tuple order, as they would be fired by the default mode.
+     * The last batch is evaluated by the calling thread, so is the only one when tuples fit in a single batch.
+     * At most {@link ExecutorConfiguration#getParallelMaxPendingBatches()} batches are pending at a time, the oldest one
+     * is fired before the next one is submitted, so memory doesn't grow with the number of fact tuples.
+     */
+    private void evaluateInParallel(RuntimeRules runtimeRules, Object result, Collection<CompletionStage<?>> pendingActions,
+                                    Iterator<Object[]> iterator, SessionControl control) {
+        Executor executor = configuration.getParallelExecutor();
+        int batchSize = configuration.getParallelBatchSize();
+        int maxPendingBatches = configuration.getParallelMaxPendingBatches();
+        Deque<CompletableFuture<List<List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>>>>> batches = new ArrayDeque<>();
+        while (iterator.hasNext() && !control.isTerminated()) {
+            if (batches.size() == maxPendingBatches && !fire(batches.poll(), control)) {
+                return;
+            }
+            List<Object[]> tuples = new ArrayList<>(batchSize);
+            List<BitSet> rules = new ArrayList<>(batchSize);
+            while (iterator.hasNext() && tuples.size() < batchSize) {
+                tuples.add(iterator.next().clone());
+                rules.add(partitionRules(iterator));
             }
+            batches.add(iterator.hasNext()
+                    ? CompletableFuture.supplyAsync(() -> findConsequences(runtimeRules, result, pendingActions, tuples, rules, control), executor)
+                    : CompletableFuture.completedFuture(findConsequences(runtimeRules, result, pendingActions, tuples, rules, control)));
+        }
+        while (!batches.isEmpty()) {
+            if (!fire(batches.poll(), control)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fires consequences of {@code batch} once it is evaluated.
+     *
+     * @return {@code false} if session has been terminated
+     */
+    private static boolean fire(CompletableFuture<List<List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>>>> batch,
+                                SessionControl control) {
+        for (List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>> consequences : join(batch)) {
+            if (control.isTerminated()) {
+                return false;
+            }
+            fire(consequences, control);
+        }
+        return true;
+    }
+
+    private List<List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>>> findConsequences(RuntimeRules runtimeRules, Object result,
+                                                                                                    Collection<CompletionStage<?>> pendingActions,
+                                                                                                    List<Object[]> tuples, List<BitSet> rules,
+                                                                                                    SessionControl control) {
+        List<List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>>> consequences = new ArrayList<>(tuples.size());
+        for (int i = 0; i < tuples.size() && !control.isTerminated(); i++) {
+            PredicateContext context = new PredicateContext(runtimeRules.getContextLayout(), result, tuples.get(i), control)
+                    .trackPendingActions(pendingActions);
+            consequences.add(findConsequences(runtimeRules, context, rules.get(i), control));
         }
+        return consequences;
     }
 
-    private void evaluate(RuntimeRules runtimeRules, Object result, Map<String, Object> factMap) {
-        List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>> consequences = new LinkedList<>();
-        for (RuntimeRules.ExecutableRule executableRule : runtimeRules.getExecutableRules()) {
-            PredicateContext context = new PredicateContext(executableRule.getRuleId(), result, factMap, executableRule.getAttributes(), engineController);
+    private List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>> findConsequences(RuntimeRules runtimeRules, PredicateContext context,
+                                                                                               BitSet rules, SessionControl control) {
+        List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>> consequences = new ArrayList<>();
+        List<RuntimeRules.ExecutableRule> executableRules = runtimeRules.getExecutableRules();
+        BitSet candidates = runtimeRules.getDiscriminationIndex().findCandidates(context, rules);
+        MatchCounter matches = createMatchCounter(runtimeRules);
+        for (int i = candidates.nextSetBit(0); i >= 0 && !control.isTerminated(); i = candidates.nextSetBit(i + 1)) {
+            if (matches != null && matches.isExhausted(i)) {
+                continue;
+            }
+            RuntimeRules.ExecutableRule executableRule = executableRules.get(i);
+            context.bind(executableRule.getRuleId(), executableRule.getAttributes(), executableRule.getAttributeValues());
             Boolean evaluationResult = executableRule.getPredicate().evaluate(context);
             if (Boolean.TRUE.equals(evaluationResult)) {
-                consequences.add(Pair.of(executableRule.getConsequence(), context));
+                consequences.add(Pair.of(executableRule.getConsequence(), context.copy()));
+                if (matches != null && matches.countMatch(i)) {
+                    break;
+                }
             }
         }
+        return consequences;
+    }
 
-        for (int i = 0; i < consequences.size() && !engineListener.isEvaluationTerminated(); ++i) {
+    /**
+     * Creates counter of matches of a single fact tuple, or returns {@code null} if matches aren't limited.
+     */
+    private MatchCounter createMatchCounter(RuntimeRules runtimeRules) {
+        MatchLimit matchLimit = configuration.getMatchLimit();
+        return matchLimit.isLimited() ? MatchCounter.create(matchLimit, runtimeRules) : null;
+    }
+
+    private static void fire(List<Pair<Invocation<ProcessingContext, Void>, PredicateContext>> consequences, SessionControl control) {
+        for (int i = 0; i < consequences.size() && !control.isTerminated(); ++i) {
             Pair<Invocation<ProcessingContext, Void>, PredicateContext> consequence = consequences.get(i);
             consequence.getKey().proceed(consequence.getValue());
         }
     }
 
-    private LoadingCache<String, RuntimeRules> buildCachingContext(RulesRepository rulesRepository, RuntimeRulesBuilder runtimeRulesBuilder) {
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void rulesChanged(String uri) {
+        RuntimeRules current = runtimeRulesCache.asMap().get(uri);
+        if (current != null) {
+            log.info("Rules '{}' changed, reloading", uri);
+            configuration.getRulesReloadExecutor().execute(() -> reloadRules(uri, current));
+        }
+    }
+
+    /**
+     * Reloads rules, warms them up and publishes them in place of {@code current} ones, to the cache and to sessions
+     * using {@code current} rules. Reloaded rules are dropped if {@code current} ones have been replaced in the meantime.
+     * Metrics of rules removed by reload are removed once reloaded rules are published.
+     */
+    private void reloadRules(String uri, RuntimeRules current) {
+        try {
+            RuntimeRules reloaded = loadRules(uri, current);
+            if (reloaded == current) {
+                return;
+            }
+            reloaded = warmUp(uri, reloaded, current);
+            RuntimeRules compiled = current.getCompiledRules();
+            if (runtimeRulesCache.asMap().replace(uri, current, reloaded)
+                    || compiled != null && runtimeRulesCache.asMap().replace(uri, compiled, reloaded)) {
+                current.supersede(reloaded);
+                if (configuration.isRuleMetricsEnabled()) {
+                    configuration.getRuleMetricsRegistry().retain(uri, reloaded.getExecutableRules().stream()
+                            .map(RuntimeRules.ExecutableRule::getRuleId)
+                            .collect(Collectors.toSet()));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Unable to reload rules '{}', current ones are still used", uri, e);
+        }
+    }
+
+    /**
+     * Prepares reloaded rules up front, so executions don't pay for it: compiles them if {@code current} rules are
+     * already compiled by tiered compilation, reusing compiled predicates of rules reloaded unchanged, and builds
+     * structures otherwise built on first use.
+     */
+    private RuntimeRules warmUp(String uri, RuntimeRules reloaded, RuntimeRules current) {
+        RuntimeRules warmedUp = reloaded;
+        RuntimeRules currentCompiled = current.isCompiled() ? current : current.getCompiledRules();
+        if (predicateCompiler != null && !reloaded.isCompiled() && currentCompiled != null) {
+            try {
+                RuntimeRules compiled = compile(reloaded, currentCompiled);
+                reloaded.setCompiledRules(compiled);
+                warmedUp = compiled;
+            } catch (RuntimeException e) {
+                logCompilationFailure(uri, e);
+            }
+        }
+        MatchLimit matchLimit = configuration.getMatchLimit();
+        if (matchLimit.getGroupAttribute() != null) {
+            warmedUp.getRuleGroups(matchLimit.getGroupAttribute());
+        }
+        return warmedUp;
+    }
+
+    private LoadingCache<String, RuntimeRules> buildCachingContext() {
         return CacheBuilder.newBuilder()
                 .refreshAfterWrite(configuration.getRulesCacheRefreshTime().toMillis(), TimeUnit.MILLISECONDS)
                 .build(new CacheLoader<String, RuntimeRules>() {
                     @Override
                     public RuntimeRules load(String key) {
-                        log.info("Loading rules base for {} ...", key);
-                        Stopwatch stopwatch = Stopwatch.createStarted();
-
-                        List<Rule> rules = rulesRepository.get(key).stream()
-                                .filter(rule -> rule.getAttribute("ignored") == null || Boolean.FALSE.equals(rule.getAttribute("ignored").getValue()))
-                                .sorted((a, b) -> {
-                                    long priorityA = getPriority(a);
-                                    long priorityB = getPriority(b);
-                                    return Long.compare(priorityB, priorityA);
-                                })
-                                .collect(Collectors.toList());
-
-                        RuntimeRules runtimeRules = runtimeRulesBuilder.build(rules);
-
-                        log.info("Loaded rules '{}' in {} seconds", key, stopwatch.elapsed(TimeUnit.SECONDS));
-                        return runtimeRules;
+                        return loadRules(key, null);
+                    }
+
+                    @Override
+                    public ListenableFuture<RuntimeRules> reload(String key, RuntimeRules oldValue) {
+                        // current rules are kept until reloaded ones are published, so executions never wait for reload
+                        configuration.getRulesReloadExecutor().execute(() -> reloadRules(key, oldValue));
+                        return Futures.immediateFuture(oldValue);
                     }
                 });
     }
 
+    private RuntimeRules loadRules(String key, RuntimeRules previous) {
+        Collection<Rule> repositoryRules;
+        String version = null;
+        if (rulesRepository instanceof VersionedRulesRepository) {
+            String knownVersion = previous != null ? previous.getVersion() : null;
+            Optional<VersionedRules> changedRules = ((VersionedRulesRepository) rulesRepository).getIfChanged(key, knownVersion);
+            if (!changedRules.isPresent()) {
+                if (previous == null) {
+                    throw new IllegalStateException(String.format("Repository returned no rules for %s", key));
+                }
+                log.debug("Rules '{}' unchanged since version {}", key, knownVersion);
+                return previous;
+            }
+            repositoryRules = changedRules.get().getRules();
+            version = changedRules.get().getVersion();
+        } else {
+            repositoryRules = rulesRepository.get(key);
+        }
+
+        log.info("Loading rules base for {} ...", key);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+
+        List<Rule> rules = repositoryRules.stream()
+                .filter(rule -> rule.getAttribute("ignored") == null || Boolean.FALSE.equals(rule.getAttribute("ignored").getValue()))
+                .sorted((a, b) -> {
+                    long priorityA = getPriority(a);
+                    long priorityB = getPriority(b);
+                    return Long.compare(priorityB, priorityA);
+                })
+                .collect(Collectors.toList());
+
+        RuntimeRules runtimeRules = runtimeRulesBuilder.build(rules, previous);
+        if (configuration.isRuleMetricsEnabled()) {
+            runtimeRules = instrument(key, runtimeRules, configuration.getRuleMetricsRegistry());
+        }
+
+        if (version != null) {
+            runtimeRules = runtimeRules.withVersion(version);
+        }
+
+        log.info("Loaded rules '{}' in {} seconds", key, stopwatch.elapsed(TimeUnit.SECONDS));
+        return runtimeRules;
+    }
+
     private long getPriority(Rule a) {
         Attribute attribute = a.getAttribute("priority");
         return attribute != null ? (Long) attribute.getValue() : 0L;
     }
 
-    static class SingleInstanceFactTupleIterator implements Iterator<Map<String, Object>> {
-        private final Map<String, Object> factMap;
-        private boolean end;
+    /**
+     * State shared by executions of a batch (see {@link DefaultContextKey#BATCH_STATE}): rules resolved once per batch,
+     * along with fact tuple and context reused by subsequent executions.
+     */
+    private static final class BatchState {
+        private final RuntimeRules runtimeRules;
+        private final Object[] tuple;
+        private PredicateContext predicateContext;
+
+        private BatchState(RuntimeRules runtimeRules) {
+            this.runtimeRules = runtimeRules;
+            // fits facts of all types, including ones not referred by rules
+            this.tuple = new Object[runtimeRules.getContextLayout().getFactCount() + 1];
+        }
 
-        SingleInstanceFactTupleIterator(Map<String, List<Object>> groupedFacts) {
-            if (groupedFacts.values().stream().anyMatch(l -> l.size() > 1)) {
-                log.warn("Multiple instances of {} fact type(s) found. First one will be used",
-                        groupedFacts.keySet().stream()
-                                .filter(e -> groupedFacts.get(e).size() > 1)
-                                .collect(Collectors.joining(", ")));
+        private Object[] clearTuple() {
+            Arrays.fill(tuple, null);
+            return tuple;
+        }
+
+        private PredicateContext rebindContext(Object result, EngineController engineController) {
+            if (predicateContext == null) {
+                predicateContext = new PredicateContext(runtimeRules.getContextLayout(), result, tuple, engineController);
+            } else {
+                predicateContext.rebind(result, tuple, engineController);
             }
-            for (Entry<String, List<Object>> entry : groupedFacts.entrySet()) {
-                String key = entry.getKey();
-                List<?> value = entry.getValue();
+            return predicateContext;
+        }
+    }
+
+    static class SingleInstanceFactTupleIterator implements Iterator<Object[]> {
+        private final Object[] tuple;
+        private boolean end;
 
-                if (value == null || value.isEmpty()) {
-                    throw new IllegalArgumentException(String.format("No fact instances for identifier '%s'", key));
+        SingleInstanceFactTupleIterator(List<List<Object>> groupedFacts, Object[] tuple) {
+            this.tuple = tuple;
+            this.end = true;
+            for (int i = 0; i < groupedFacts.size(); i++) {
+                List<Object> instances = groupedFacts.get(i);
+                if (instances == null) {
+                    continue;
                 }
+                if (instances.isEmpty()) {
+                    throw new IllegalArgumentException(String.format("No fact instances at index %d", i));
+                }
+                if (instances.size() > 1) {
+                    log.warn("Multiple instances of {} fact type found. First one will be used", instances.get(0).getClass().getName());
+                }
+                tuple[i] = instances.get(0);
+                end = false;
             }
-            factMap = groupedFacts.entrySet().stream()
-                    .collect(Collectors.toMap(Entry::getKey, e -> e.getValue().get(0)));
-            end = groupedFacts.isEmpty();
         }
 
         @Override
@@ -222,30 +763,33 @@ public class DefaultRulesExecutor implements RulesExecutor, Wrapper, EvictableCa
         }
 
         @Override
-        public Map<String, Object> next() {
+        public Object[] next() {
             end = true;
-            return factMap;
+            return tuple;
         }
     }
 
-    static class SingleTypeFactTupleIterator implements Iterator<Map<String, Object>> {
-        private final String identifier;
+    static class SingleTypeFactTupleIterator implements Iterator<Object[]> {
+        private final Object[] tuple;
+        private final int factIndex;
         private final List<Object> instances;
         private final int size;
-        private final Map<String, Object> factTuple = new HashMap<>(2);
         private int index = 0;
         private boolean end;
 
-        SingleTypeFactTupleIterator(Map<String, List<Object>> groupedFacts) {
-            Validate.isTrue(groupedFacts.size() == 1, "SingleTypeFactTupleIterator purpose is to support fact instances with the same type");
-            Entry<String, List<Object>> entry = groupedFacts.entrySet().iterator().next();
-            this.identifier = entry.getKey();
-            this.instances = entry.getValue();
-            if (instances == null || instances.isEmpty()) {
-                throw new IllegalArgumentException(String.format("No fact instances for identifier '%s'", identifier));
+        SingleTypeFactTupleIterator(List<List<Object>> groupedFacts, Object[] tuple) {
+            Validate.isTrue(countGroups(groupedFacts) == 1, "SingleTypeFactTupleIterator purpose is to support fact instances with the same type");
+            this.tuple = tuple;
+            int i = 0;
+            while (groupedFacts.get(i) == null) {
+                i++;
+            }
+            this.factIndex = i;
+            this.instances = groupedFacts.get(i);
+            if (instances.isEmpty()) {
+                throw new IllegalArgumentException(String.format("No fact instances at index %d", factIndex));
             }
             this.size = this.instances.size();
-            end = groupedFacts.isEmpty();
         }
 
         @Override
@@ -254,88 +798,216 @@ public class DefaultRulesExecutor implements RulesExecutor, Wrapper, EvictableCa
         }
 
         @Override
-        public Map<String, Object> next() {
+        public Object[] next() {
             int current = index;
             index = (index + 1) % size;
             if (index == 0) {
                 end = true;
             }
-            factTuple.put(identifier, instances.get(current));
-            return factTuple;
+            tuple[factIndex] = instances.get(current);
+            return tuple;
         }
     }
 
-    static class CrossProductFactTupleIterator implements Iterator<Map<String, Object>> {
-        private final Map<String, List<Object>> groupedFact;
-        private final int[] sizes;
-        private final int[] values;
-        private final String[] names;
-        private int valuesSize;
-        private int valuesIdx;
-
-        private Map<String, Object> next;
-
+    /**
+     * Iterates over cross product of fact instances. The group of the lowest index changes the fastest.
+     * The same {@code tuple} array is filled and returned by each {@link #next()} call.
+     */
+    static class CrossProductFactTupleIterator implements Iterator<Object[]> {
+        private final Object[] tuple;
+        private final int[] factIndexes;
+        private final List<List<Object>> groups;
+        private final int[] positions;
         private boolean end;
 
-        @SuppressWarnings("unchecked")
-        CrossProductFactTupleIterator(Map<String, List<Object>> groupedFact) {
-
-            this.groupedFact = groupedFact;
-
-            this.valuesSize = groupedFact.keySet().size();
-            this.valuesIdx = 0;
-
-            this.sizes = new int[valuesSize];
-            this.values = new int[valuesSize];
-            this.names = new String[valuesSize];
+        CrossProductFactTupleIterator(List<List<Object>> groupedFacts, Object[] tuple) {
+            this.tuple = tuple;
+            this.groups = new ArrayList<>(groupedFacts.size());
+            List<Integer> indexes = new ArrayList<>(groupedFacts.size());
+            for (int i = 0; i < groupedFacts.size(); i++) {
+                List<Object> instances = groupedFacts.get(i);
+                if (instances == null) {
+                    continue;
+                }
+                if (instances.isEmpty()) {
+                    throw new IllegalArgumentException(String.format("No fact instances at index %d", i));
+                }
+                groups.add(instances);
+                indexes.add(i);
+            }
+            this.factIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+            this.positions = new int[factIndexes.length];
+            this.end = factIndexes.length == 0;
+        }
 
-            next = new HashMap<>(this.valuesSize);
+        @Override
+        public boolean hasNext() {
+            return !end;
+        }
 
-            int idx = 0;
-            for (Entry<String, List<Object>> entry : groupedFact.entrySet()) {
-                String key = entry.getKey();
-                List<?> value = entry.getValue();
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new IllegalStateException("No next value!");
+            }
+            for (int d = 0; d < factIndexes.length; d++) {
+                tuple[factIndexes[d]] = groups.get(d).get(positions[d]);
+            }
+            int d = 0;
+            while (d < factIndexes.length && ++positions[d] == groups.get(d).size()) {
+                positions[d] = 0;
+                d++;
+            }
+            end = d == factIndexes.length;
+            return tuple;
+        }
+    }
 
-                if (value == null || value.isEmpty()) {
-                    throw new IllegalArgumentException(String.format("No fact instances for identifier '%s'", key));
+    /**
+     * Iterates over fact tuples of rule partitions in the order of {@link CrossProductFactTupleIterator}. Tuples of
+     * a partition are generated of fact instances kept by its {@link com.sabre.oss.yare.engine.executor.runtime.index.AlphaFilter},
+     * joined by its {@link com.sabre.oss.yare.engine.executor.runtime.index.EquiJoins} if there are any. Tuples of several
+     * partitions are merged by positions of their fact instances, so a tuple shared by partitions is returned once,
+     * with rules of all of them. The same {@code tuple} array is filled and returned by each {@link #next()} call.
+     */
+    static class PartitionedFactTupleIterator implements Iterator<Object[]> {
+        private final Object[] tuple;
+        private final List<PartitionTuples> partitions = new ArrayList<>();
+        private final List<Map<Object, Integer>> positions;
+        private BitSet rules;
+
+        PartitionedFactTupleIterator(List<RulePartition> partitions, List<List<Object>> groupedFacts, Object[] tuple, ContextLayout layout,
+                                     Object result, EngineController engineController) {
+            this.tuple = tuple;
+            this.positions = partitions.size() > 1 ? positionsOf(groupedFacts) : null;
+            for (RulePartition partition : partitions) {
+                List<List<Object>> keptFacts = partition.getAlphaFilter().filter(groupedFacts, layout, result, engineController);
+                if (keptFacts == null) {
+                    continue;
                 }
-
-                names[idx] = key;
-                sizes[idx] = value.size();
-                next.put(key, value.get(0));
-                idx++;
+                // single partition fills tuple directly, as its tuples don't have to be merged
+                Object[] partitionTuple = positions != null ? new Object[tuple.length] : tuple;
+                Iterator<Object[]> tuples = partition.getEquiJoins().isEmpty()
+                        ? new CrossProductFactTupleIterator(keptFacts, partitionTuple)
+                        : partition.getEquiJoins().iterator(keptFacts, partitionTuple, layout, result, engineController);
+                this.partitions.add(new PartitionTuples(partition.getRules(), tuples, partitionTuple));
+            }
+            if (positions != null) {
+                this.partitions.forEach(p -> p.advance(positions));
+                this.partitions.removeIf(p -> p.positions == null);
             }
-            this.end = this.valuesSize == 0;
         }
 
         @Override
         public boolean hasNext() {
-            return !end;
+            return positions == null
+                    ? partitions.size() == 1 && partitions.get(0).tuples.hasNext()
+                    : !partitions.isEmpty();
         }
 
         @Override
-        public Map<String, Object> next() {
+        public Object[] next() {
             if (!hasNext()) {
                 throw new IllegalStateException("No next value!");
             }
+            if (positions == null) {
+                rules = partitions.get(0).rules;
+                return partitions.get(0).tuples.next();
+            }
+            PartitionTuples first = partitions.get(0);
+            for (PartitionTuples partition : partitions) {
+                if (compare(partition.positions, first.positions) < 0) {
+                    first = partition;
+                }
+            }
+            System.arraycopy(first.tuple, 0, tuple, 0, tuple.length);
+            int[] current = first.positions;
+            rules = null;
+            Iterator<PartitionTuples> iterator = partitions.iterator();
+            while (iterator.hasNext()) {
+                PartitionTuples partition = iterator.next();
+                if (compare(partition.positions, current) == 0) {
+                    rules = rules == null ? partition.rules : union(rules, partition.rules);
+                    if (!partition.advance(positions)) {
+                        iterator.remove();
+                    }
+                }
+            }
+            return tuple;
+        }
 
-            Map<String, Object> current = new HashMap<>(next);
+        /**
+         * Returns rules of partitions the last returned tuple belongs to.
+         *
+         * @return indexes of rules or {@code null} if all rules are evaluated
+         */
+        BitSet getRules() {
+            return rules;
+        }
 
-            values[valuesIdx] = (values[valuesIdx] + 1) % sizes[valuesIdx];
-            next.put(names[valuesIdx], groupedFact.get(names[valuesIdx]).get(values[valuesIdx]));
+        private static List<Map<Object, Integer>> positionsOf(List<List<Object>> groupedFacts) {
+            List<Map<Object, Integer>> positions = new ArrayList<>(groupedFacts.size());
+            for (List<Object> instances : groupedFacts) {
+                Map<Object, Integer> instancePositions = new IdentityHashMap<>();
+                if (instances != null) {
+                    for (int i = 0; i < instances.size(); i++) {
+                        instancePositions.putIfAbsent(instances.get(i), i);
+                    }
+                }
+                positions.add(instancePositions);
+            }
+            return positions;
+        }
 
-            while (values[valuesIdx] == 0) {
-                valuesIdx = (valuesIdx + 1) % valuesSize;
-                if (valuesIdx == 0) {
-                    end = true;
-                    break;
+        /**
+         * Compares positions of tuples' fact instances in cross product order, where the fact of the lowest index
+         * changes the fastest.
+         */
+        private static int compare(int[] a, int[] b) {
+            for (int i = a.length - 1; i >= 0; i--) {
+                if (a[i] != b[i]) {
+                    return Integer.compare(a[i], b[i]);
                 }
-                values[valuesIdx] = (values[valuesIdx] + 1) % sizes[valuesIdx];
-                next.put(names[valuesIdx], groupedFact.get(names[valuesIdx]).get(values[valuesIdx]));
             }
-            valuesIdx = 0;
+            return 0;
+        }
+
+        private static BitSet union(BitSet a, BitSet b) {
+            BitSet union = (BitSet) a.clone();
+            union.or(b);
+            return union;
+        }
+
+        private static final class PartitionTuples {
+            private final BitSet rules;
+            private final Iterator<Object[]> tuples;
+            private final Object[] tuple;
+            private int[] positions;
 
-            return current;
+            private PartitionTuples(BitSet rules, Iterator<Object[]> tuples, Object[] tuple) {
+                this.rules = rules;
+                this.tuples = tuples;
+                this.tuple = tuple;
+            }
+
+            /**
+             * Moves to the next tuple of partition and computes positions of its fact instances.
+             *
+             * @return {@code false} if there are no more tuples
+             */
+            private boolean advance(List<Map<Object, Integer>> factPositions) {
+                if (!tuples.hasNext()) {
+                    positions = null;
+                    return false;
+                }
+                tuples.next();
+                int[] next = new int[tuple.length];
+                for (int i = 0; i < tuple.length; i++) {
+                    next[i] = tuple[i] != null ? factPositions.get(i).get(tuple[i]) : -1;
+                }
+                positions = next;
+                return true;
+            }
         }
     }
 }
@@ -30,14 +30,20 @@ import com.sabre.oss.yare.core.call.ConsequenceFactory;
 import com.sabre.oss.yare.core.call.FunctionFactory;
 import com.sabre.oss.yare.core.call.ProcessingInvocationFactory;
 import com.sabre.oss.yare.core.feature.FeaturedObject;
+import com.sabre.oss.yare.core.internal.DefaultEngineController;
 import com.sabre.oss.yare.core.internal.EngineControllerFactory;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
 import com.sabre.oss.yare.engine.*;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetricsRegistry;
+import com.sabre.oss.yare.engine.executor.runtime.compiler.PredicateCompiler;
+import com.sabre.oss.yare.engine.executor.runtime.value.PropertyAccessorFactory;
 import com.sabre.oss.yare.engine.feature.DefaultEngineFeature;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
@@ -47,6 +53,7 @@ public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
     private RulesRepository rulesRepository;
     private ErrorHandler errorHandler;
     private CallInvocationResultCache invocationCache;
+    private RuleLifecycleListener ruleLifecycleListener;
 
     /**
      * {@inheritDoc}
@@ -75,8 +82,10 @@ public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
             String name = entry.getKey();
             FeaturedObject<CallMetadata> object = entry.getValue();
             boolean shouldCache = !ArrayUtils.contains(object.getFeatures(), DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT);
+            boolean memoized = ArrayUtils.contains(object.getFeatures(), DefaultEngineFeature.MEMOIZE_FUNCTION_RESULT);
             this.functionMappings.put(name, object.getObject());
             withFunctionCacheable(name, shouldCache);
+            withFunctionMemoized(name, memoized);
         }
         return this;
     }
@@ -125,6 +134,58 @@ public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
         return this;
     }
 
+    /**
+     * Specify maximum number of cached results of the function identified by {@code functionName}.
+     * Bounded caches admit results of calls requested repeatedly only, so results of rare calls
+     * don't evict frequently used ones.
+     *
+     * @param functionName name of the function
+     * @param maximumSize  maximum number of cached results
+     * @return this defaultRulesExecutorBuilder instance
+     */
+    public DefaultRulesExecutorBuilder withFunctionCacheMaximumSize(String functionName, long maximumSize) {
+        this.configurationBuilder.withFunctionCacheMaximumSize(functionName, maximumSize);
+        return this;
+    }
+
+    /**
+     * Specify maximum total weight, computed with {@code weigher}, of cached results of the function
+     * identified by {@code functionName}. Takes precedence over {@link #withFunctionCacheMaximumSize(String, long)}.
+     *
+     * @param functionName  name of the function
+     * @param maximumWeight maximum total weight of cached results
+     * @param weigher       weigher of results
+     * @return this defaultRulesExecutorBuilder instance
+     */
+    public DefaultRulesExecutorBuilder withFunctionCacheMaximumWeight(String functionName, long maximumWeight, FunctionResultWeigher weigher) {
+        this.configurationBuilder.withFunctionCacheMaximumWeight(functionName, maximumWeight, weigher);
+        return this;
+    }
+
+    /**
+     * Specify default maximum number of cached results of a function, {@link ExecutorConfiguration#UNBOUNDED} by default.
+     *
+     * @param maximumSize maximum number of cached results
+     * @return this defaultRulesExecutorBuilder instance
+     */
+    public DefaultRulesExecutorBuilder withDefaultFunctionCacheMaximumSize(long maximumSize) {
+        this.configurationBuilder.withDefaultFunctionCacheMaximumSize(maximumSize);
+        return this;
+    }
+
+    /**
+     * Specify whether results of the function identified by {@code functionName} should be memoized within
+     * evaluation of a single fact tuple, see {@link DefaultEngineFeature#MEMOIZE_FUNCTION_RESULT}.
+     *
+     * @param functionName name of the function
+     * @param memoized     whether result should be memoized
+     * @return this defaultRulesExecutorBuilder instance
+     */
+    public DefaultRulesExecutorBuilder withFunctionMemoized(String functionName, boolean memoized) {
+        this.configurationBuilder.withFunctionMemoized(functionName, memoized);
+        return this;
+    }
+
     /**
      * Indicate whether results of functions should be cached by default.
      *
@@ -160,6 +221,8 @@ public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
 
     /**
      * Specify whether {@link DefaultRulesExecutor} should evaluate rules sequentially.
+     * Evaluation waits for results of asynchronous functions in this mode, also when rules are executed
+     * with {@link com.sabre.oss.yare.core.RuleSession#executeAsync}, as consequences are fired between predicates.
      *
      * @param sequentialMode should work in sequential mode
      * @return this defaultRulesExecutorBuilder
@@ -169,6 +232,19 @@ public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
         return this;
     }
 
+    /**
+     * Specify {@link MatchLimit} of rules matched by a single fact tuple, e.g. {@link MatchLimit#firstMatch()}
+     * to fire the highest-priority matching rule only. Rules following the last allowed match
+     * (in order of descending priority) aren't evaluated at all. {@link MatchLimit#NONE} by default.
+     *
+     * @param matchLimit match limit
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withMatchLimit(MatchLimit matchLimit) {
+        this.configurationBuilder.withMatchLimit(matchLimit);
+        return this;
+    }
+
     /**
      * Specify whether {@link DefaultRulesExecutor} should create cross product when multiple types of facts is used
      * as an input.
@@ -181,6 +257,134 @@ public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
         return this;
     }
 
+    /**
+     * Specify {@link Executor} (e.g. {@link java.util.concurrent.ForkJoinPool}) used by {@link DefaultRulesExecutor}
+     * to evaluate predicates of fact tuples in parallel. Consequences are still fired by the calling thread,
+     * tuple by tuple in the same order as without parallelism, so the result object needs no synchronization.
+     * Not supported in sequential mode. Parallel tasks wait for results of asynchronous functions.
+     * {@code null} (default) disables parallel evaluation.
+     *
+     * @param parallelExecutor executor evaluating batches of fact tuples
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withParallelExecutor(Executor parallelExecutor) {
+        this.configurationBuilder.withParallelExecutor(parallelExecutor);
+        return this;
+    }
+
+    /**
+     * Specify number of fact tuples evaluated by a single parallel task.
+     *
+     * @param parallelBatchSize number of fact tuples in a batch
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withParallelBatchSize(int parallelBatchSize) {
+        this.configurationBuilder.withParallelBatchSize(parallelBatchSize);
+        return this;
+    }
+
+    /**
+     * Specify maximum number of batches of fact tuples evaluated ahead of firing their consequences, which bounds
+     * memory used by parallel evaluation to about {@code parallelMaxPendingBatches * parallelBatchSize} fact tuples.
+     * Defaults to 16.
+     *
+     * @param parallelMaxPendingBatches maximum number of pending batches
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withParallelMaxPendingBatches(int parallelMaxPendingBatches) {
+        this.configurationBuilder.withParallelMaxPendingBatches(parallelMaxPendingBatches);
+        return this;
+    }
+
+    /**
+     * Specify whether predicates of rules should be compiled into generated classes instead of being
+     * evaluated as trees of operators. Operators which cannot be compiled are still evaluated as they are.
+     *
+     * @param predicateCompilation should compile predicates
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withPredicateCompilation(boolean predicateCompilation) {
+        this.configurationBuilder.withPredicateCompilation(predicateCompilation);
+        return this;
+    }
+
+    /**
+     * Specify number of executions of a rules execution set after which its predicates are compiled in the background,
+     * see {@link #withPredicateCompilation(boolean)}. Until compilation completes, and after each reload of the rules,
+     * predicates are interpreted. {@code 0} (default) disables tiered compilation.
+     *
+     * @param compilationThreshold number of executions triggering compilation
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withCompilationThreshold(int compilationThreshold) {
+        this.configurationBuilder.withCompilationThreshold(compilationThreshold);
+        return this;
+    }
+
+    /**
+     * Specify {@link Executor} compiling predicates of rules execution sets which reached compilation threshold.
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()} is used by default.
+     *
+     * @param compilationExecutor executor compiling predicates
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withCompilationExecutor(Executor compilationExecutor) {
+        this.configurationBuilder.withCompilationExecutor(compilationExecutor);
+        return this;
+    }
+
+    /**
+     * Specify {@link Executor} reloading rules execution sets in background, when they are due to refresh
+     * (see {@link #withRulesCacheRefreshTime(Duration)}) or changed in {@link VersionedRulesRepository}. Reloaded rules are warmed up before they replace
+     * current ones, so executions never wait for rules to be loaded or compiled after the first load.
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()} is used by default.
+     *
+     * @param rulesReloadExecutor executor reloading rules
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withRulesReloadExecutor(Executor rulesReloadExecutor) {
+        this.configurationBuilder.withRulesReloadExecutor(rulesReloadExecutor);
+        return this;
+    }
+
+    /**
+     * Specify {@link PropertyAccessorFactory} creating accessors of properties referred by rules (e.g. {@code ${fact.property}}).
+     * {@link PropertyAccessorFactory#JAVASSIST} (default) generates a class per accessor, which is the fastest
+     * once warmed up, while {@link PropertyAccessorFactory#METHOD_HANDLES} builds accessors much faster, without
+     * generating classes, which pays off when rules are reloaded frequently.
+     *
+     * @param propertyAccessorFactory factory of property accessors
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withPropertyAccessorFactory(PropertyAccessorFactory propertyAccessorFactory) {
+        this.configurationBuilder.withPropertyAccessorFactory(propertyAccessorFactory);
+        return this;
+    }
+
+    /**
+     * Specify {@link RuleLifecycleListener} notified of evaluation of rules and completion of sessions.
+     * Rules are built with notifications only when listener is given, so they aren't slowed down otherwise.
+     *
+     * @param ruleLifecycleListener rule lifecycle listener, or {@code null} if none (default)
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withRuleLifecycleListener(RuleLifecycleListener ruleLifecycleListener) {
+        this.ruleLifecycleListener = ruleLifecycleListener;
+        return this;
+    }
+
+    /**
+     * Specify {@link RuleMetricsRegistry} recording evaluation count, match count, predicate and consequence time
+     * of each rule. Rules are instrumented only when registry is given, so they aren't slowed down otherwise.
+     *
+     * @param ruleMetricsRegistry registry of rule metrics, or {@code null} to disable them (default)
+     * @return this defaultRulesExecutorBuilder
+     */
+    public DefaultRulesExecutorBuilder withRuleMetricsRegistry(RuleMetricsRegistry ruleMetricsRegistry) {
+        this.configurationBuilder.withRuleMetricsRegistry(ruleMetricsRegistry);
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -196,13 +400,17 @@ public class DefaultRulesExecutorBuilder implements RulesExecutorBuilder {
                 configuration
         );
         ProcessingInvocationFactory<Void> actionInvocationFactory = new DefaultProcessingInvocationFactory<>(resolverReference::get, actionMappings);
-        resolverReference.set(new DefaultArgumentValueResolver(functionInvocationFactory));
+        resolverReference.set(new DefaultArgumentValueResolver(functionInvocationFactory, configuration.getPropertyAccessorFactory()));
         FunctionFactory functionFactory = new FunctionFactory(functionInvocationFactory);
         ConsequenceFactory consequenceFactory = new ConsequenceFactory(actionInvocationFactory, errorHandler);
-        RuntimeRulesBuilder runtimeRulesBuilder = new RuntimeRulesBuilder(new DefaultPredicateFactory(), functionFactory, consequenceFactory);
-
         EngineListener engineListener = new EngineListener();
-        EngineController engineController = EngineControllerFactory.createDefaultFrom(engineListener);
-        return new DefaultRulesExecutor(rulesRepository, runtimeRulesBuilder, configuration, engineController, engineListener);
+        DefaultEngineController engineController = ruleLifecycleListener != null
+                ? EngineControllerFactory.createDefaultFrom(engineListener, ruleLifecycleListener)
+                : EngineControllerFactory.createDefaultFrom(engineListener);
+        RuntimeRulesBuilder runtimeRulesBuilder = new RuntimeRulesBuilder(new DefaultPredicateFactory(), functionFactory, consequenceFactory,
+                configuration.isPredicateCompilation() ? new PredicateCompiler() : null, configuration.getPropertyAccessorFactory(),
+                engineController.getListener(RuleLifecycleListener.class));
+
+        return new DefaultRulesExecutor(rulesRepository, runtimeRulesBuilder, configuration, engineController);
     }
 }
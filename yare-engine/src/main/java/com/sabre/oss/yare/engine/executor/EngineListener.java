@@ -31,11 +31,23 @@ import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Listener logging closing of sessions. Evaluation of the closed session itself is terminated by its own controller,
+ * so sessions executed concurrently by the same executor aren't affected.
+ */
 public class EngineListener implements CloseSessionListener {
     private static final Logger log = LoggerFactory.getLogger(EngineListener.class);
 
     private final AtomicBoolean evaluationTerminated = new AtomicBoolean(false);
 
+    /**
+     * Tells whether any session has been closed.
+     *
+     * @return {@code true} if any session has been closed
+     * @deprecated Evaluation is no longer terminated for all sessions once any of them is closed, but only for the closed
+     * session, by {@link SessionControl} created for each execution, which should be consulted instead.
+     */
+    @Deprecated
     boolean isEvaluationTerminated() {
         return evaluationTerminated.get();
     }
@@ -24,28 +24,82 @@
 
 package com.sabre.oss.yare.engine.executor;
 
+import com.sabre.oss.yare.engine.FunctionResultWeigher;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetricsRegistry;
+import com.sabre.oss.yare.engine.executor.runtime.value.PropertyAccessorFactory;
+import org.apache.commons.lang3.Validate;
+
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class ExecutorConfiguration {
+    /**
+     * Indicates that function results cache isn't bounded by size or weight.
+     */
+    public static final long UNBOUNDED = -1;
+
     private final Map<String, Boolean> functionToCacheable;
     private final Map<String, Duration> functionToCacheExpirationTime;
+    private final Map<String, Boolean> functionToMemoized;
+    private final Map<String, Long> functionToCacheMaximumSize;
+    private final Map<String, Long> functionToCacheMaximumWeight;
+    private final Map<String, FunctionResultWeigher> functionToCacheWeigher;
     private final boolean defaultFunctionCacheable;
     private final Duration defaultFunctionCacheExpirationTime;
+    private final long defaultFunctionCacheMaximumSize;
     private final Duration rulesCacheRefreshTime;
     private final boolean sequentialMode;
+    private final MatchLimit matchLimit;
     private final boolean crossProductMode;
+    private final Executor parallelExecutor;
+    private final int parallelBatchSize;
+    private final int parallelMaxPendingBatches;
+    private final boolean predicateCompilation;
+    private final int compilationThreshold;
+    private final Executor compilationExecutor;
+    private final Executor rulesReloadExecutor;
+    private final PropertyAccessorFactory propertyAccessorFactory;
+    private final RuleMetricsRegistry ruleMetricsRegistry;
 
     public ExecutorConfiguration(Builder builder) {
         this.functionToCacheable = Collections.unmodifiableMap(builder.functionToCacheable);
         this.functionToCacheExpirationTime = Collections.unmodifiableMap(builder.functionToCacheExpirationTime);
+        this.functionToMemoized = Collections.unmodifiableMap(builder.functionToMemoized);
+        this.functionToCacheMaximumSize = Collections.unmodifiableMap(builder.functionToCacheMaximumSize);
+        this.functionToCacheMaximumWeight = Collections.unmodifiableMap(builder.functionToCacheMaximumWeight);
+        this.functionToCacheWeigher = Collections.unmodifiableMap(builder.functionToCacheWeigher);
         this.defaultFunctionCacheable = builder.defaultFunctionCacheable;
         this.defaultFunctionCacheExpirationTime = builder.defaultFunctionCacheExpirationTime;
+        this.defaultFunctionCacheMaximumSize = builder.defaultFunctionCacheMaximumSize;
         this.rulesCacheRefreshTime = builder.rulesCacheRefreshTime;
         this.sequentialMode = builder.sequentialMode;
+        this.matchLimit = builder.matchLimit;
         this.crossProductMode = builder.crossProductMode;
+        this.parallelExecutor = builder.parallelExecutor;
+        this.parallelBatchSize = builder.parallelBatchSize;
+        this.parallelMaxPendingBatches = builder.parallelMaxPendingBatches;
+        this.predicateCompilation = builder.predicateCompilation;
+        this.compilationThreshold = builder.compilationThreshold;
+        this.compilationExecutor = builder.compilationExecutor;
+        this.rulesReloadExecutor = builder.rulesReloadExecutor;
+        this.propertyAccessorFactory = builder.propertyAccessorFactory;
+        this.ruleMetricsRegistry = builder.ruleMetricsRegistry;
+        Validate.isTrue(parallelExecutor == null || !sequentialMode, "Parallel evaluation is not supported in sequential mode");
+        Validate.isTrue(parallelBatchSize > 0, "Parallel batch size must be positive");
+        Validate.isTrue(parallelMaxPendingBatches > 0, "Maximum number of pending parallel batches must be positive");
+        Validate.isTrue(compilationThreshold >= 0, "Compilation threshold must not be negative");
+        Validate.isTrue(compilationThreshold == 0 || !predicateCompilation, "Tiered compilation is not supported when predicates are compiled eagerly");
+        Validate.notNull(compilationExecutor, "Compilation executor must not be null");
+        Validate.notNull(rulesReloadExecutor, "Rules reload executor must not be null");
+        Validate.notNull(propertyAccessorFactory, "Property accessor factory must not be null");
+        Validate.notNull(matchLimit, "Match limit must not be null");
+        Validate.isTrue(defaultFunctionCacheMaximumSize == UNBOUNDED || defaultFunctionCacheMaximumSize >= 0, "Function cache maximum size must not be negative");
+        functionToCacheMaximumSize.values().forEach(size -> Validate.isTrue(size >= 0, "Function cache maximum size must not be negative"));
+        functionToCacheMaximumWeight.values().forEach(weight -> Validate.isTrue(weight >= 0, "Function cache maximum weight must not be negative"));
     }
 
     public static Builder builder() {
@@ -60,6 +114,22 @@ public class ExecutorConfiguration {
         return functionToCacheExpirationTime.getOrDefault(functionName, defaultFunctionCacheExpirationTime);
     }
 
+    public long getFunctionCacheMaximumSize(String functionName) {
+        return functionToCacheMaximumSize.getOrDefault(functionName, defaultFunctionCacheMaximumSize);
+    }
+
+    public long getFunctionCacheMaximumWeight(String functionName) {
+        return functionToCacheMaximumWeight.getOrDefault(functionName, UNBOUNDED);
+    }
+
+    public FunctionResultWeigher getFunctionCacheWeigher(String functionName) {
+        return functionToCacheWeigher.get(functionName);
+    }
+
+    public boolean isFunctionMemoized(String functionName) {
+        return functionToMemoized.getOrDefault(functionName, false);
+    }
+
     public Duration getRulesCacheRefreshTime() {
         return rulesCacheRefreshTime;
     }
@@ -68,18 +138,85 @@ public class ExecutorConfiguration {
         return sequentialMode;
     }
 
+    public MatchLimit getMatchLimit() {
+        return matchLimit;
+    }
+
     public boolean isCrossProductMode() {
         return crossProductMode;
     }
 
+    public boolean isParallelMode() {
+        return parallelExecutor != null;
+    }
+
+    public Executor getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    public int getParallelBatchSize() {
+        return parallelBatchSize;
+    }
+
+    public int getParallelMaxPendingBatches() {
+        return parallelMaxPendingBatches;
+    }
+
+    public boolean isPredicateCompilation() {
+        return predicateCompilation;
+    }
+
+    public boolean isTieredCompilation() {
+        return compilationThreshold > 0;
+    }
+
+    public int getCompilationThreshold() {
+        return compilationThreshold;
+    }
+
+    public Executor getCompilationExecutor() {
+        return compilationExecutor;
+    }
+
+    public Executor getRulesReloadExecutor() {
+        return rulesReloadExecutor;
+    }
+
+    public PropertyAccessorFactory getPropertyAccessorFactory() {
+        return propertyAccessorFactory;
+    }
+
+    public boolean isRuleMetricsEnabled() {
+        return ruleMetricsRegistry != null;
+    }
+
+    public RuleMetricsRegistry getRuleMetricsRegistry() {
+        return ruleMetricsRegistry;
+    }
+
     public static final class Builder {
         private Map<String, Boolean> functionToCacheable = new HashMap<>();
         private Map<String, Duration> functionToCacheExpirationTime = new HashMap<>();
+        private Map<String, Boolean> functionToMemoized = new HashMap<>();
+        private Map<String, Long> functionToCacheMaximumSize = new HashMap<>();
+        private Map<String, Long> functionToCacheMaximumWeight = new HashMap<>();
+        private Map<String, FunctionResultWeigher> functionToCacheWeigher = new HashMap<>();
         private boolean defaultFunctionCacheable = false;
         private Duration defaultFunctionCacheExpirationTime = Duration.ofMinutes(5);
+        private long defaultFunctionCacheMaximumSize = UNBOUNDED;
         private Duration rulesCacheRefreshTime = Duration.ofMinutes(5);
         private boolean sequentialMode = false;
+        private MatchLimit matchLimit = MatchLimit.NONE;
         private boolean crossProductMode = false;
+        private Executor parallelExecutor = null;
+        private int parallelBatchSize = 256;
+        private int parallelMaxPendingBatches = 16;
+        private boolean predicateCompilation = false;
+        private int compilationThreshold = 0;
+        private Executor compilationExecutor = ForkJoinPool.commonPool();
+        private Executor rulesReloadExecutor = ForkJoinPool.commonPool();
+        private PropertyAccessorFactory propertyAccessorFactory = PropertyAccessorFactory.JAVASSIST;
+        private RuleMetricsRegistry ruleMetricsRegistry = null;
 
         private Builder() {
         }
@@ -94,6 +231,31 @@ public class ExecutorConfiguration {
             return this;
         }
 
+        public Builder withFunctionCacheMaximumSize(String functionName, long maximumSize) {
+            functionToCacheMaximumSize.put(functionName, maximumSize);
+            return this;
+        }
+
+        /**
+         * Bounds total weight of cached results of the function identified by {@code functionName}.
+         * Weight bound takes precedence over size bound of the function.
+         *
+         * @param functionName  name of the function
+         * @param maximumWeight maximum total weight
+         * @param weigher       weigher of results
+         * @return this builder instance
+         */
+        public Builder withFunctionCacheMaximumWeight(String functionName, long maximumWeight, FunctionResultWeigher weigher) {
+            functionToCacheMaximumWeight.put(functionName, maximumWeight);
+            functionToCacheWeigher.put(functionName, Validate.notNull(weigher, "Weigher must not be null"));
+            return this;
+        }
+
+        public Builder withFunctionMemoized(String functionName, boolean memoized) {
+            functionToMemoized.put(functionName, memoized);
+            return this;
+        }
+
         public Builder withDefaultFunctionCacheable(boolean functionResultCacheable) {
             this.defaultFunctionCacheable = functionResultCacheable;
             return this;
@@ -104,6 +266,11 @@ public class ExecutorConfiguration {
             return this;
         }
 
+        public Builder withDefaultFunctionCacheMaximumSize(long defaultFunctionCacheMaximumSize) {
+            this.defaultFunctionCacheMaximumSize = defaultFunctionCacheMaximumSize;
+            return this;
+        }
+
         public Builder withRulesCacheRefreshTime(Duration rulesCacheRefreshTime) {
             this.rulesCacheRefreshTime = rulesCacheRefreshTime;
             return this;
@@ -114,11 +281,61 @@ public class ExecutorConfiguration {
             return this;
         }
 
+        public Builder withMatchLimit(MatchLimit matchLimit) {
+            this.matchLimit = matchLimit;
+            return this;
+        }
+
         public Builder withCrossProductMode(boolean crossProductMode) {
             this.crossProductMode = crossProductMode;
             return this;
         }
 
+        public Builder withParallelExecutor(Executor parallelExecutor) {
+            this.parallelExecutor = parallelExecutor;
+            return this;
+        }
+
+        public Builder withParallelBatchSize(int parallelBatchSize) {
+            this.parallelBatchSize = parallelBatchSize;
+            return this;
+        }
+
+        public Builder withParallelMaxPendingBatches(int parallelMaxPendingBatches) {
+            this.parallelMaxPendingBatches = parallelMaxPendingBatches;
+            return this;
+        }
+
+        public Builder withPredicateCompilation(boolean predicateCompilation) {
+            this.predicateCompilation = predicateCompilation;
+            return this;
+        }
+
+        public Builder withCompilationThreshold(int compilationThreshold) {
+            this.compilationThreshold = compilationThreshold;
+            return this;
+        }
+
+        public Builder withCompilationExecutor(Executor compilationExecutor) {
+            this.compilationExecutor = compilationExecutor;
+            return this;
+        }
+
+        public Builder withRulesReloadExecutor(Executor rulesReloadExecutor) {
+            this.rulesReloadExecutor = rulesReloadExecutor;
+            return this;
+        }
+
+        public Builder withPropertyAccessorFactory(PropertyAccessorFactory propertyAccessorFactory) {
+            this.propertyAccessorFactory = propertyAccessorFactory;
+            return this;
+        }
+
+        public Builder withRuleMetricsRegistry(RuleMetricsRegistry ruleMetricsRegistry) {
+            this.ruleMetricsRegistry = ruleMetricsRegistry;
+            return this;
+        }
+
         public ExecutorConfiguration build() {
             return new ExecutorConfiguration(this);
         }
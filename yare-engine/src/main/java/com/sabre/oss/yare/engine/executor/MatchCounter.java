@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor;
+
+/**
+ * Counts rules matched by a single fact tuple against {@link MatchLimit}.
+ */
+final class MatchCounter {
+    private final int limit;
+    private final int[] groups;
+    private final int[] counts;
+    private final int lastUngroupedIndex;
+    private int count;
+    private int openGroups;
+
+    private MatchCounter(int limit, int[] groups, int[] counts, int lastUngroupedIndex) {
+        this.limit = limit;
+        this.groups = groups;
+        this.counts = counts;
+        this.lastUngroupedIndex = lastUngroupedIndex;
+        this.openGroups = counts != null ? counts.length : 0;
+    }
+
+    static MatchCounter create(MatchLimit matchLimit, RuntimeRules runtimeRules) {
+        if (matchLimit.getGroupAttribute() == null) {
+            return new MatchCounter(matchLimit.getLimit(), null, null, -1);
+        }
+        RuntimeRules.RuleGroups ruleGroups = runtimeRules.getRuleGroups(matchLimit.getGroupAttribute());
+        return new MatchCounter(matchLimit.getLimit(), ruleGroups.getGroups(), new int[ruleGroups.getGroupCount()],
+                ruleGroups.getLastUngroupedIndex());
+    }
+
+    /**
+     * Tells whether rule at {@code index} mustn't be evaluated, as limit of its group is reached.
+     *
+     * @param index index of rule
+     * @return {@code true} if rule should be skipped
+     */
+    boolean isExhausted(int index) {
+        if (groups == null) {
+            return count >= limit;
+        }
+        int group = groups[index];
+        return group >= 0 && counts[group] >= limit;
+    }
+
+    /**
+     * Counts match of rule at {@code index}. When matches are limited per group, no further rules should be evaluated
+     * once limits of all groups are reached and no rule without group follows.
+     *
+     * @param index index of rule
+     * @return {@code true} if no further rules should be evaluated
+     */
+    boolean countMatch(int index) {
+        if (groups == null) {
+            return ++count >= limit;
+        }
+        int group = groups[index];
+        if (group >= 0 && ++counts[group] == limit) {
+            openGroups--;
+        }
+        return openGroups == 0 && index >= lastUngroupedIndex;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Limit of rules matched by a single fact tuple, see {@link DefaultRulesExecutorBuilder#withMatchLimit(MatchLimit)}.
+ * <p>
+ * Rules are evaluated in order of descending priority and once the limit is reached no further rules are evaluated
+ * against the tuple. Limit may apply to groups of rules instead, identified by the value of a rule attribute
+ * (i.e. activation groups), in which case it is counted separately per group and rules without the attribute
+ * aren't limited.
+ */
+public final class MatchLimit {
+    /**
+     * No limit, every rule is evaluated.
+     */
+    public static final MatchLimit NONE = new MatchLimit(0, null);
+
+    private final int limit;
+    private final String groupAttribute;
+
+    private MatchLimit(int limit, String groupAttribute) {
+        this.limit = limit;
+        this.groupAttribute = groupAttribute;
+    }
+
+    /**
+     * Creates limit firing the highest-priority matching rule only.
+     *
+     * @return match limit
+     */
+    public static MatchLimit firstMatch() {
+        return topN(1);
+    }
+
+    /**
+     * Creates limit firing {@code n} highest-priority matching rules.
+     *
+     * @param n number of rules to fire
+     * @return match limit
+     */
+    public static MatchLimit topN(int n) {
+        Validate.isTrue(n > 0, "Match limit must be positive");
+        return new MatchLimit(n, null);
+    }
+
+    /**
+     * Creates the same limit applied to each group of rules having the same value of {@code groupAttribute}.
+     *
+     * @param groupAttribute name of attribute identifying group of rule
+     * @return match limit
+     */
+    public MatchLimit perGroup(String groupAttribute) {
+        Validate.validState(limit > 0, "Unlimited matches cannot be grouped");
+        return new MatchLimit(limit, Validate.notNull(groupAttribute, "Group attribute must not be null"));
+    }
+
+    /**
+     * Returns number of rules matched by a tuple (or group), or {@code 0} if unlimited.
+     *
+     * @return match limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns name of attribute identifying group of rule, or {@code null} if limit applies to all rules.
+     *
+     * @return group attribute
+     */
+    public String getGroupAttribute() {
+        return groupAttribute;
+    }
+
+    public boolean isLimited() {
+        return limit > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchLimit{" +
+                "limit=" + limit +
+                ", groupAttribute='" + groupAttribute + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor;
+
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.DelegatingPredicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+
+/**
+ * Predicate notifying {@link RuleLifecycleListener} of its evaluation and satisfaction.
+ */
+final class NotifyingPredicate extends DelegatingPredicate {
+    private final RuleLifecycleListener listener;
+
+    NotifyingPredicate(Predicate delegate, RuleLifecycleListener listener) {
+        super(delegate);
+        this.listener = listener;
+    }
+
+    @Override
+    public Boolean evaluate(PredicateContext context) {
+        listener.beforeRuleEvaluated(context);
+        Boolean result = delegate.evaluate(context);
+        if (Boolean.TRUE.equals(result)) {
+            listener.ruleMatched(context);
+        }
+        return result;
+    }
+
+    @Override
+    public NotifyingPredicate withDelegate(Predicate delegate) {
+        return new NotifyingPredicate(delegate, listener);
+    }
+}
@@ -26,46 +26,373 @@ package com.sabre.oss.yare.engine.executor;
 
 import com.sabre.oss.yare.core.call.ProcessingContext;
 import com.sabre.oss.yare.core.invocation.Invocation;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.engine.executor.runtime.index.DiscriminationIndex;
+import com.sabre.oss.yare.engine.executor.runtime.index.RulePartitions;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.RuleComponents;
 
 import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class RuntimeRules {
     private final List<RuntimeRules.ExecutableRule> executableRules;
     private final Map<Type, String> factNames;
+    private final DiscriminationIndex discriminationIndex;
+    private final RulePartitions rulePartitions;
+    private final ContextLayout contextLayout;
+    private final boolean compiled;
+    private final Map<Rule, ExecutableRule> builtRules;
+    private final Map<Rule, RuleComponents> indexComponents;
+    private final String version;
+    private final AtomicReference<RuntimeRules> successor;
+    private final Map<Predicate, Predicate> compiledPredicates;
+    private final ClassValue<Integer> factIndexes;
+    private final AtomicLong invocations = new AtomicLong();
+    private volatile RuntimeRules compiledRules;
+    private volatile RuleGroups ruleGroups;
 
     public RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames) {
+        this(executableRules, factNames, DiscriminationIndex.none(executableRules.size()));
+    }
+
+    public RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames, DiscriminationIndex discriminationIndex) {
+        this(executableRules, factNames, discriminationIndex, new ContextLayout(factNames.values(), Collections.emptyList()));
+    }
+
+    public RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames, DiscriminationIndex discriminationIndex,
+                        ContextLayout contextLayout) {
+        this(executableRules, factNames, discriminationIndex, contextLayout, false);
+    }
+
+    public RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames, DiscriminationIndex discriminationIndex,
+                        ContextLayout contextLayout, boolean compiled) {
+        this(executableRules, factNames, discriminationIndex, RulePartitions.none(), contextLayout, compiled);
+    }
+
+    public RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames, DiscriminationIndex discriminationIndex,
+                        RulePartitions rulePartitions, ContextLayout contextLayout, boolean compiled) {
+        this(executableRules, factNames, discriminationIndex, rulePartitions, contextLayout, compiled, Collections.emptyMap());
+    }
+
+    /**
+     * Creates rules remembering {@code builtRules}, so they can be reused by {@link RuntimeRulesBuilder#build(java.util.Collection, RuntimeRules)}
+     * when rules are rebuilt.
+     *
+     * @param executableRules     executable rules
+     * @param factNames           identifiers of facts by their types
+     * @param discriminationIndex discrimination index
+     * @param rulePartitions      partitions of rules
+     * @param contextLayout       context layout
+     * @param compiled            whether predicates are compiled
+     * @param builtRules          executable rules, as built by {@link RuntimeRulesBuilder}, by rules they are built of
+     */
+    public RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames, DiscriminationIndex discriminationIndex,
+                        RulePartitions rulePartitions, ContextLayout contextLayout, boolean compiled,
+                        Map<Rule, ExecutableRule> builtRules) {
+        this(executableRules, factNames, discriminationIndex, rulePartitions, contextLayout, compiled, builtRules, Collections.emptyMap());
+    }
+
+    /**
+     * Creates rules remembering {@code builtRules} and {@code indexComponents}, so they can be reused by
+     * {@link RuntimeRulesBuilder#build(java.util.Collection, RuntimeRules)} when rules are rebuilt.
+     *
+     * @param executableRules     executable rules
+     * @param factNames           identifiers of facts by their types
+     * @param discriminationIndex discrimination index
+     * @param rulePartitions      partitions of rules
+     * @param contextLayout       context layout
+     * @param compiled            whether predicates are compiled
+     * @param builtRules          executable rules, as built by {@link RuntimeRulesBuilder}, by rules they are built of
+     * @param indexComponents     components rules contributed to indexes, by rules
+     */
+    public RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames, DiscriminationIndex discriminationIndex,
+                        RulePartitions rulePartitions, ContextLayout contextLayout, boolean compiled,
+                        Map<Rule, ExecutableRule> builtRules, Map<Rule, RuleComponents> indexComponents) {
+        this(executableRules, factNames, discriminationIndex, rulePartitions, contextLayout, compiled, builtRules, indexComponents, null,
+                new AtomicReference<>(), Collections.emptyMap());
+    }
+
+    private RuntimeRules(List<ExecutableRule> executableRules, Map<Type, String> factNames, DiscriminationIndex discriminationIndex,
+                         RulePartitions rulePartitions, ContextLayout contextLayout, boolean compiled,
+                         Map<Rule, ExecutableRule> builtRules, Map<Rule, RuleComponents> indexComponents, String version,
+                         AtomicReference<RuntimeRules> successor,
+                         Map<Predicate, Predicate> compiledPredicates) {
+        this.builtRules = builtRules;
+        this.indexComponents = indexComponents;
+        this.version = version;
+        this.successor = successor;
+        this.compiledPredicates = compiledPredicates;
         this.executableRules = executableRules;
         this.factNames = factNames;
+        this.discriminationIndex = discriminationIndex;
+        this.rulePartitions = rulePartitions;
+        this.contextLayout = contextLayout;
+        this.compiled = compiled;
+        this.factIndexes = new ClassValue<Integer>() {
+            @Override
+            protected Integer computeValue(Class<?> type) {
+                String identifier = factNames.get(type);
+                return identifier != null ? contextLayout.getFactIndex(identifier) : -1;
+            }
+        };
     }
 
     public List<ExecutableRule> getExecutableRules() {
         return executableRules;
     }
 
+    /**
+     * Creates copy of these rules with {@code executableRules} replaced, e.g. with compiled or instrumented ones.
+     *
+     * @param executableRules replacement of executable rules, in the same order
+     * @param compiled        whether predicates of replacement are compiled
+     * @return copy of rules
+     */
+    public RuntimeRules withExecutableRules(List<ExecutableRule> executableRules, boolean compiled) {
+        return new RuntimeRules(executableRules, factNames, discriminationIndex, rulePartitions, contextLayout, compiled, builtRules, indexComponents,
+                version, successor, compiledPredicates);
+    }
+
+    /**
+     * Creates copy of these rules with {@code executableRules} replaced with compiled ones.
+     *
+     * @param executableRules    compiled replacement of executable rules, in the same order
+     * @param compiledPredicates compiled predicates by interpreted ones they are compiled of
+     * @return copy of rules
+     */
+    public RuntimeRules withCompiledRules(List<ExecutableRule> executableRules, Map<Predicate, Predicate> compiledPredicates) {
+        return new RuntimeRules(executableRules, factNames, discriminationIndex, rulePartitions, contextLayout, true, builtRules, indexComponents,
+                version, successor, compiledPredicates);
+    }
+
+    /**
+     * Creates copy of these rules marked with {@code version} of rules they are built of.
+     *
+     * @param version version of rules, as given by {@link com.sabre.oss.yare.core.VersionedRulesRepository}
+     * @return copy of rules
+     */
+    public RuntimeRules withVersion(String version) {
+        return new RuntimeRules(executableRules, factNames, discriminationIndex, rulePartitions, contextLayout, compiled, builtRules, indexComponents,
+                version, successor, compiledPredicates);
+    }
+
+    /**
+     * Returns version of rules these rules are built of.
+     *
+     * @return version of rules, or {@code null} if rules aren't versioned
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns executable rules, as built by {@link RuntimeRulesBuilder} (i.e. neither compiled by tiered compilation
+     * nor instrumented), by rules they are built of.
+     *
+     * @return built rules
+     */
+    public Map<Rule, ExecutableRule> getBuiltRules() {
+        return builtRules;
+    }
+
+    /**
+     * Returns components (predicates, value providers) rules contributed to indexes, by rules.
+     *
+     * @return index components
+     */
+    public Map<Rule, RuleComponents> getIndexComponents() {
+        return indexComponents;
+    }
+
     public Map<Type, String> getFactNames() {
         return factNames;
     }
 
+    /**
+     * Returns index of facts of exactly given {@code type} in fact tuples, see {@link ContextLayout#getFactIndex(String)}.
+     *
+     * @param type type of fact
+     * @return index or {@code -1} when facts of {@code type} are not referred by any rule
+     */
+    public int getFactIndex(Class<?> type) {
+        return factIndexes.get(type);
+    }
+
+    public DiscriminationIndex getDiscriminationIndex() {
+        return discriminationIndex;
+    }
+
+    public RulePartitions getRulePartitions() {
+        return rulePartitions;
+    }
+
+    public ContextLayout getContextLayout() {
+        return contextLayout;
+    }
+
+    /**
+     * Tells whether predicates of these rules are compiled.
+     *
+     * @return {@code true} if predicates are compiled
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Returns compiled predicates of these rules by interpreted ones they are compiled of, so rules reused
+     * by reloaded rules don't have to be compiled again.
+     *
+     * @return compiled predicates, empty unless these rules are compiled by tiered compilation
+     */
+    public Map<Predicate, Predicate> getCompiledPredicates() {
+        return compiledPredicates;
+    }
+
+    /**
+     * Counts execution of these rules.
+     *
+     * @return number of executions including this one
+     */
+    public long countInvocation() {
+        return invocations.incrementAndGet();
+    }
+
+    /**
+     * Returns compiled counterpart of these rules, once it is available.
+     *
+     * @return compiled rules or {@code null}
+     */
+    public RuntimeRules getCompiledRules() {
+        return compiledRules;
+    }
+
+    public void setCompiledRules(RuntimeRules compiledRules) {
+        this.compiledRules = compiledRules;
+    }
+
+    /**
+     * Returns rules superseding these rules (or any of their compiled or instrumented copies) once they are reloaded.
+     *
+     * @return superseding rules or {@code null}
+     */
+    public RuntimeRules getSuccessor() {
+        return successor.get();
+    }
+
+    /**
+     * Makes {@code successor} supersede these rules, along with their compiled and instrumented copies, so sessions
+     * which already use them switch to {@code successor}.
+     *
+     * @param successor superseding rules
+     */
+    public void supersede(RuntimeRules successor) {
+        this.successor.set(successor);
+    }
+
+    /**
+     * Returns groups of rules having the same value of {@code groupAttribute}.
+     *
+     * @param groupAttribute name of attribute identifying group of rule
+     * @return rule groups
+     */
+    public RuleGroups getRuleGroups(String groupAttribute) {
+        RuleGroups groups = ruleGroups;
+        if (groups == null || !groups.groupAttribute.equals(groupAttribute)) {
+            groups = new RuleGroups(groupAttribute, executableRules);
+            ruleGroups = groups;
+        }
+        return groups;
+    }
+
+    /**
+     * Assignment of rules to groups identified by value of a rule attribute.
+     */
+    public static final class RuleGroups {
+        private final String groupAttribute;
+        private final int[] groups;
+        private final int groupCount;
+        private final int lastUngroupedIndex;
+
+        private RuleGroups(String groupAttribute, List<ExecutableRule> executableRules) {
+            Map<Object, Integer> groupIndexes = new HashMap<>();
+            this.groupAttribute = groupAttribute;
+            this.groups = new int[executableRules.size()];
+            int lastUngrouped = -1;
+            for (int i = 0; i < groups.length; i++) {
+                Object group = executableRules.get(i).getAttributes().get(groupAttribute);
+                groups[i] = group != null ? groupIndexes.computeIfAbsent(group, g -> groupIndexes.size()) : -1;
+                if (group == null) {
+                    lastUngrouped = i;
+                }
+            }
+            this.groupCount = groupIndexes.size();
+            this.lastUngroupedIndex = lastUngrouped;
+        }
+
+        /**
+         * Returns group indexes of subsequent rules, {@code -1} for rules not belonging to any group.
+         *
+         * @return group indexes
+         */
+        public int[] getGroups() {
+            return groups;
+        }
+
+        public int getGroupCount() {
+            return groupCount;
+        }
+
+        /**
+         * Returns index of the last rule not belonging to any group.
+         *
+         * @return index or {@code -1} if all rules belong to groups
+         */
+        public int getLastUngroupedIndex() {
+            return lastUngroupedIndex;
+        }
+    }
+
     public static final class ExecutableRule {
         private final String ruleId;
         private final Predicate predicate;
         private final Invocation<ProcessingContext, Void> consequence;
         private final Map<String, Object> attributes;
+        private final Object[] attributeValues;
         private final long order;
 
-        private ExecutableRule(String ruleId, Map<String, Object> attributes, Predicate predicate, Invocation<ProcessingContext, Void> consequence, long order) {
+        private ExecutableRule(String ruleId, Map<String, Object> attributes, Object[] attributeValues, Predicate predicate,
+                               Invocation<ProcessingContext, Void> consequence, long order) {
             this.ruleId = ruleId;
             this.attributes = attributes;
+            this.attributeValues = attributeValues;
             this.predicate = predicate;
             this.consequence = consequence;
             this.order = order;
         }
 
         public static ExecutableRule of(String ruleId, Map<String, Object> attributeMap, Predicate predicate, Invocation<ProcessingContext, Void> consequence, long order) {
-            return new ExecutableRule(ruleId, attributeMap, predicate, consequence, order);
+            return of(ruleId, attributeMap, ContextLayout.EMPTY.layOutAttributes(attributeMap), predicate, consequence, order);
+        }
+
+        public static ExecutableRule of(String ruleId, Map<String, Object> attributeMap, Object[] attributeValues, Predicate predicate,
+                                        Invocation<ProcessingContext, Void> consequence, long order) {
+            return new ExecutableRule(ruleId, attributeMap, attributeValues, predicate, consequence, order);
+        }
+
+        public ExecutableRule withPredicate(Predicate predicate) {
+            return new ExecutableRule(ruleId, attributes, attributeValues, predicate, consequence, order);
+        }
+
+        public ExecutableRule withConsequence(Invocation<ProcessingContext, Void> consequence) {
+            return new ExecutableRule(ruleId, attributes, attributeValues, predicate, consequence, order);
         }
 
         public String getRuleId() {
@@ -80,6 +407,15 @@ public class RuntimeRules {
             return attributes;
         }
 
+        /**
+         * Returns attributes laid out with {@link ContextLayout#layOutAttributes(Map)}.
+         *
+         * @return attributes' values ordered by their slots
+         */
+        public Object[] getAttributeValues() {
+            return attributeValues;
+        }
+
         public Invocation<ProcessingContext, Void> getConsequence() {
             return consequence;
         }
@@ -28,6 +28,7 @@ import com.sabre.oss.yare.core.call.ConsequenceFactory;
 import com.sabre.oss.yare.core.call.FunctionFactory;
 import com.sabre.oss.yare.core.call.ProcessingContext;
 import com.sabre.oss.yare.core.invocation.Invocation;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
 import com.sabre.oss.yare.core.model.Attribute;
 import com.sabre.oss.yare.core.model.Expression;
 import com.sabre.oss.yare.core.model.Fact;
@@ -35,12 +36,18 @@ import com.sabre.oss.yare.core.model.Rule;
 import com.sabre.oss.yare.core.reference.ReferenceFactory;
 import com.sabre.oss.yare.core.reference.ValueConverter;
 import com.sabre.oss.yare.core.reference.ValueFactory;
+import com.sabre.oss.yare.engine.executor.runtime.compiler.PredicateCompiler;
+import com.sabre.oss.yare.engine.executor.runtime.index.DiscriminationIndexBuilder;
+import com.sabre.oss.yare.engine.executor.runtime.index.RulePartitionsBuilder;
 import com.sabre.oss.yare.engine.executor.runtime.operator.logical.False;
 import com.sabre.oss.yare.engine.executor.runtime.operator.logical.True;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactory;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactoryContext;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.RuleComponents;
 import com.sabre.oss.yare.engine.executor.runtime.validator.RuntimeInputValidator;
+import com.sabre.oss.yare.engine.executor.runtime.value.PropertyAccessorFactory;
 import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
 import com.sabre.oss.yare.engine.executor.runtime.value.ValueProviderFactory;
 import org.apache.commons.lang3.reflect.TypeUtils;
@@ -59,34 +66,122 @@ public class RuntimeRulesBuilder implements RuleComponentsFactoryFacade {
     private final PredicateFactory predicateFactory;
     private final FunctionFactory functionFactory;
     private final ConsequenceFactory consequenceFactory;
-    private final ValueConverter<ValueProvider> valueProviderConverter;
-    private final ValueConverter<Predicate> predicateValueConverter;
+    private final ValueFactory<ValueProvider> valueProviderValueFactory;
+    private final ValueFactory<Predicate> predicateValueFactory;
+    private final PredicateCompiler predicateCompiler;
+    private final PropertyAccessorFactory propertyAccessorFactory;
+    private final RuleLifecycleListener ruleLifecycleListener;
 
     public RuntimeRulesBuilder(PredicateFactory predicateFactory, FunctionFactory functionFactory, ConsequenceFactory consequenceFactory) {
+        this(predicateFactory, functionFactory, consequenceFactory, null);
+    }
+
+    public RuntimeRulesBuilder(PredicateFactory predicateFactory, FunctionFactory functionFactory, ConsequenceFactory consequenceFactory,
+                               PredicateCompiler predicateCompiler) {
+        this(predicateFactory, functionFactory, consequenceFactory, predicateCompiler, PropertyAccessorFactory.JAVASSIST);
+    }
+
+    public RuntimeRulesBuilder(PredicateFactory predicateFactory, FunctionFactory functionFactory, ConsequenceFactory consequenceFactory,
+                               PredicateCompiler predicateCompiler, PropertyAccessorFactory propertyAccessorFactory) {
+        this(predicateFactory, functionFactory, consequenceFactory, predicateCompiler, propertyAccessorFactory, null);
+    }
+
+    /**
+     * Creates builder of rules notifying {@code ruleLifecycleListener} of their evaluation. When the listener is absent,
+     * rules are built without any notification code.
+     *
+     * @param predicateFactory        predicate factory
+     * @param functionFactory         function factory
+     * @param consequenceFactory      consequence factory
+     * @param predicateCompiler       compiler of predicates, or {@code null} if predicates shouldn't be compiled
+     * @param propertyAccessorFactory factory of property accessors
+     * @param ruleLifecycleListener   rule lifecycle listener, or {@code null} if none
+     */
+    public RuntimeRulesBuilder(PredicateFactory predicateFactory, FunctionFactory functionFactory, ConsequenceFactory consequenceFactory,
+                               PredicateCompiler predicateCompiler, PropertyAccessorFactory propertyAccessorFactory,
+                               RuleLifecycleListener ruleLifecycleListener) {
         this.predicateFactory = predicateFactory;
         this.functionFactory = requireNonNull(functionFactory);
         this.consequenceFactory = requireNonNull(consequenceFactory);
-        this.valueProviderConverter = new ValueConverter<>(new ValueProviderReferenceFactory(), new ValueProviderValueFactory());
-        this.predicateValueConverter = new ValueConverter<>(new PredicateReferenceFactory(), new PredicateValueFactory());
+        this.valueProviderValueFactory = new ValueProviderValueFactory();
+        this.predicateValueFactory = new PredicateValueFactory();
+        this.predicateCompiler = predicateCompiler;
+        this.propertyAccessorFactory = requireNonNull(propertyAccessorFactory);
+        this.ruleLifecycleListener = ruleLifecycleListener;
     }
 
     public RuntimeRules build(Collection<Rule> rules) {
+        return build(rules, null);
+    }
+
+    /**
+     * Builds {@code rules} reusing executable rules of {@code previous} built of equal rules, so only added
+     * or modified rules are built again. Context layout of {@code previous} is extended with identifiers of added rules,
+     * so slots of unchanged rules are kept (see {@link ContextLayout#extend(Collection, Collection)}); otherwise
+     * all rules are built. Indexes are assembled of all rules, but reuse predicates and value providers unchanged
+     * rules contributed to indexes of {@code previous}.
+     *
+     * @param rules    rules
+     * @param previous previously built rules, or {@code null} if none
+     * @return runtime rules
+     */
+    public RuntimeRules build(Collection<Rule> rules, RuntimeRules previous) {
         Map<Type, String> factNames = new HashMap<>();
-        List<RuntimeRules.ExecutableRule> executableRules = new ArrayList<>(rules.size());
         for (Rule rule : rules) {
             factNames.putAll(rule.getFacts().stream()
                     .collect(Collectors.toMap(Fact::getType, Fact::getIdentifier)));
-            RuntimeRules.ExecutableRule runtimeRule = build(rule);
+        }
+        List<String> attributeNames = rules.stream()
+                .flatMap(rule -> rule.getAttributes().stream())
+                .map(Attribute::getName)
+                .collect(Collectors.toList());
+        ContextLayout layout = previous != null
+                ? previous.getContextLayout().extend(factNames.values(), attributeNames)
+                : new ContextLayout(factNames.values(), attributeNames);
+        boolean reusable = previous != null && layout.keepsSlotsOf(previous.getContextLayout());
+        Map<Rule, RuntimeRules.ExecutableRule> reusableRules = reusable ? previous.getBuiltRules() : Collections.emptyMap();
+        Map<Rule, RuleComponents> reusableComponents = reusable ? previous.getIndexComponents() : Collections.emptyMap();
+        Map<Rule, RuntimeRules.ExecutableRule> builtRules = new HashMap<>();
+        Map<Rule, RuleComponents> indexComponents = new HashMap<>();
+        List<RuntimeRules.ExecutableRule> executableRules = new ArrayList<>(rules.size());
+        DiscriminationIndexBuilder discriminationIndexBuilder = new DiscriminationIndexBuilder();
+        RulePartitionsBuilder rulePartitionsBuilder = new RulePartitionsBuilder();
+        // classes of compiled predicates are unloaded along with rules they are compiled for
+        PredicateCompiler compiler = predicateCompiler != null ? predicateCompiler.withNewClassLoader() : null;
+        for (Rule rule : rules) {
+            RuntimeRules.ExecutableRule runtimeRule = reusableRules.get(rule);
+            if (runtimeRule == null) {
+                runtimeRule = build(rule, layout, compiler);
+            }
+            builtRules.put(rule, runtimeRule);
+            RuleComponents components = reusableComponents.get(rule);
+            if (components == null) {
+                components = new RuleComponents();
+            }
+            indexComponents.put(rule, components);
+            PredicateFactoryContext context = new PredicateFactoryContext(rule, this, layout, components);
+            discriminationIndexBuilder.add(executableRules.size(), context);
+            rulePartitionsBuilder.add(context);
             executableRules.add(runtimeRule);
         }
-        return new RuntimeRules(executableRules, factNames);
+        return new RuntimeRules(executableRules, factNames, discriminationIndexBuilder.build(), rulePartitionsBuilder.build(),
+                layout, predicateCompiler != null, builtRules, indexComponents);
     }
 
     @Override
     public Predicate createPredicate(PredicateFactoryContext context, Expression expression) {
+        return context.getComponent(Predicate.class, expression, () -> buildPredicate(context, expression));
+    }
+
+    @Override
+    public ValueProvider createValueProvider(PredicateFactoryContext context, Expression expression) {
+        return context.getComponent(ValueProvider.class, expression, () -> buildValueProvider(context, expression));
+    }
+
+    private Predicate buildPredicate(PredicateFactoryContext context, Expression expression) {
         if (expression instanceof Expression.Value) {
             Expression.Value value = (Expression.Value) expression;
-            return predicateValueConverter.create(context.getRule(), value);
+            return new ValueConverter<>(new PredicateReferenceFactory(context, propertyAccessorFactory), predicateValueFactory).create(context.getRule(), value);
         }
         if (expression instanceof Expression.Operator) {
             Expression.Operator operator = (Expression.Operator) expression;
@@ -101,11 +196,10 @@ public class RuntimeRulesBuilder implements RuleComponentsFactoryFacade {
         throw new IllegalArgumentException(String.format("Unsupported expression: %s", expression));
     }
 
-    @Override
-    public ValueProvider createValueProvider(PredicateFactoryContext context, Expression expression) {
+    private ValueProvider buildValueProvider(PredicateFactoryContext context, Expression expression) {
         if (expression instanceof Expression.Value) {
             Expression.Value value = (Expression.Value) expression;
-            return valueProviderConverter.create(context.getRule(), value);
+            return new ValueConverter<>(new ValueProviderReferenceFactory(context, propertyAccessorFactory), valueProviderValueFactory).create(context.getRule(), value);
         }
         if (expression instanceof Expression.Values) {
             List<ValueProvider> values = ((Expression.Values) expression).getValues().stream()
@@ -121,7 +215,7 @@ public class RuntimeRulesBuilder implements RuleComponentsFactoryFacade {
         throw new IllegalArgumentException(String.format("Unsupported expression: %s", expression));
     }
 
-    private RuntimeRules.ExecutableRule build(Rule rule) {
+    private RuntimeRules.ExecutableRule build(Rule rule, ContextLayout layout, PredicateCompiler compiler) {
         Attribute ruleNameAttr = rule.getAttribute("ruleName");
         Attribute priorityAttr = rule.getAttribute("priority");
         String ruleName = ruleNameAttr != null ? (String) ruleNameAttr.getValue() : null;
@@ -130,11 +224,19 @@ public class RuntimeRulesBuilder implements RuleComponentsFactoryFacade {
             ruleName = "id-" + Long.toHexString(System.identityHashCode(rule));
             log.warn("'ruleName' property not defined. Created identifier {}", ruleName);
         }
-        PredicateFactoryContext factoryContext = new PredicateFactoryContext(rule, this);
-        Predicate predicate = RuntimeInputValidator.of(rule.getFacts(), createPredicate(factoryContext, rule.getPredicate()));
+        PredicateFactoryContext factoryContext = new PredicateFactoryContext(rule, this, layout);
+        Predicate predicate = RuntimeInputValidator.of(rule.getFacts(), createPredicate(factoryContext, rule.getPredicate()), layout);
+        if (compiler != null) {
+            predicate = compiler.compile(predicate);
+        }
         Invocation<ProcessingContext, Void> consequence = prepareConsequence(rule);
+        if (ruleLifecycleListener != null) {
+            predicate = new NotifyingPredicate(predicate, ruleLifecycleListener);
+            consequence = new NotifyingConsequence(consequence, ruleLifecycleListener);
+        }
+        Map<String, Object> attributes = createAttributeMap(rule);
 
-        return RuntimeRules.ExecutableRule.of(ruleName, createAttributeMap(rule), predicate, consequence, priority.longValue());
+        return RuntimeRules.ExecutableRule.of(ruleName, attributes, layout.layOutAttributes(attributes), predicate, consequence, priority.longValue());
     }
 
     private Map<String, Object> createAttributeMap(Rule rule) {
@@ -150,6 +252,13 @@ public class RuntimeRulesBuilder implements RuleComponentsFactoryFacade {
     }
 
     private static class ValueProviderReferenceFactory implements ReferenceFactory<ValueProvider> {
+        private final PredicateFactoryContext context;
+        private final PropertyAccessorFactory propertyAccessorFactory;
+
+        ValueProviderReferenceFactory(PredicateFactoryContext context, PropertyAccessorFactory propertyAccessorFactory) {
+            this.context = context;
+            this.propertyAccessorFactory = propertyAccessorFactory;
+        }
 
         @Override
         public ValueProvider create(String name, Type baseReferenceType, Type referenceType, String reference) {
@@ -165,13 +274,19 @@ public class RuntimeRulesBuilder implements RuleComponentsFactoryFacade {
             return ValueProviderFactory.createFromPath(
                     TypeUtils.getRawType(baseReferenceType, null),
                     referenceName,
+                    context.getLayout().getSlot(context.getRule(), referenceName),
                     TypeUtils.getRawType(referenceType, null),
-                    path);
+                    path,
+                    propertyAccessorFactory);
         }
     }
 
     private static class PredicateReferenceFactory extends ValueProviderReferenceFactory {
 
+        PredicateReferenceFactory(PredicateFactoryContext context, PropertyAccessorFactory propertyAccessorFactory) {
+            super(context, propertyAccessorFactory);
+        }
+
         @Override
         public ValueProvider create(String name, Type baseReferenceType, Type referenceType, String reference) {
             if (isNotBoolean(referenceType)) {
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor;
+
+import com.sabre.oss.yare.core.Deadline;
+import com.sabre.oss.yare.core.EngineController;
+
+/**
+ * Controller of a single execution of rules, exposed to rules as {@code engineController}.
+ * <p>
+ * Closing session terminates evaluation of this execution only, and so does passing of its {@link Deadline}.
+ * Termination is checked cooperatively by evaluating threads, hence state is volatile.
+ */
+final class SessionControl implements EngineController {
+    private final EngineController engineController;
+    private final Deadline deadline;
+    private volatile boolean closed;
+    private volatile boolean expired;
+
+    SessionControl(EngineController engineController, Deadline deadline) {
+        this.engineController = engineController;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void closeSession() {
+        closed = true;
+        engineController.closeSession();
+    }
+
+    /**
+     * Tells whether evaluation should be terminated, because session was closed or deadline passed.
+     *
+     * @return {@code true} if evaluation should be terminated
+     */
+    boolean isTerminated() {
+        if (closed || expired) {
+            return true;
+        }
+        if (deadline != null && deadline.isExpired()) {
+            expired = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether evaluation was terminated due to passed deadline.
+     *
+     * @return {@code true} if deadline passed during evaluation
+     */
+    boolean isExpired() {
+        return expired;
+    }
+
+    Deadline getDeadline() {
+        return deadline;
+    }
+}
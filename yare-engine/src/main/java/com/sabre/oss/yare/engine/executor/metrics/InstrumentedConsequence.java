@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.metrics;
+
+import com.sabre.oss.yare.core.call.ProcessingContext;
+import com.sabre.oss.yare.core.invocation.Invocation;
+
+/**
+ * Consequence recording its executions in {@link RuleMetrics}.
+ */
+public final class InstrumentedConsequence implements Invocation<ProcessingContext, Void> {
+    private final Invocation<ProcessingContext, Void> delegate;
+    private final RuleMetrics metrics;
+
+    public InstrumentedConsequence(Invocation<ProcessingContext, Void> delegate, RuleMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Void proceed(ProcessingContext context) {
+        long start = System.nanoTime();
+        try {
+            return delegate.proceed(context);
+        } finally {
+            metrics.recordConsequence(System.nanoTime() - start);
+        }
+    }
+}
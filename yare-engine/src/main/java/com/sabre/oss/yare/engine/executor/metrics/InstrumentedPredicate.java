@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.metrics;
+
+import com.sabre.oss.yare.engine.executor.runtime.predicate.DelegatingPredicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+
+/**
+ * Predicate recording its evaluations in {@link RuleMetrics}.
+ */
+public final class InstrumentedPredicate extends DelegatingPredicate {
+    private final RuleMetrics metrics;
+
+    public InstrumentedPredicate(Predicate delegate, RuleMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Boolean evaluate(PredicateContext context) {
+        long start = System.nanoTime();
+        Boolean result = delegate.evaluate(context);
+        metrics.recordEvaluation(System.nanoTime() - start, Boolean.TRUE.equals(result));
+        return result;
+    }
+
+    @Override
+    public InstrumentedPredicate withDelegate(Predicate delegate) {
+        return new InstrumentedPredicate(delegate, metrics);
+    }
+}
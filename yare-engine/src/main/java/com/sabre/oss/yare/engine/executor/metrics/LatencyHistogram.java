@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies with buckets bounded by subsequent powers of two nanoseconds.
+ * Recording is a single atomic increment, so it is cheap enough for the evaluation path,
+ * whereas percentiles are approximated with upper bounds of buckets.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalTime = new LongAdder();
+
+    /**
+     * Records latency of {@code nanos} nanoseconds.
+     *
+     * @param nanos latency
+     */
+    public void record(long nanos) {
+        long latency = Math.max(nanos, 0L);
+        counts.incrementAndGet(bucketOf(latency));
+        totalTime.add(latency);
+    }
+
+    /**
+     * Returns consistent enough (not atomic) view of recorded latencies.
+     *
+     * @return snapshot of histogram
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = counts.get(i);
+        }
+        return new Snapshot(bucketCounts, totalTime.sum());
+    }
+
+    static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+    }
+
+    static long upperBoundOf(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] bucketCounts;
+        private final long count;
+        private final long totalTime;
+
+        private Snapshot(long[] bucketCounts, long totalTime) {
+            this.bucketCounts = bucketCounts;
+            this.totalTime = totalTime;
+            long sum = 0;
+            for (long bucketCount : bucketCounts) {
+                sum += bucketCount;
+            }
+            this.count = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns total of recorded latencies in nanoseconds.
+         *
+         * @return total time
+         */
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        /**
+         * Returns mean latency in nanoseconds, or {@code 0} when nothing was recorded.
+         *
+         * @return mean latency
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) totalTime / count;
+        }
+
+        /**
+         * Returns upper bound (in nanoseconds) of latency of the given {@code quantile} of recordings,
+         * exceeding actual latency by less than a factor of two.
+         *
+         * @param quantile quantile in range [0, 1]
+         * @return latency or {@code 0} when nothing was recorded
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0) {
+                throw new IllegalArgumentException(String.format("Quantile %s is out of range [0, 1]", quantile));
+            }
+            long rank = Math.max((long) Math.ceil(quantile * count), 1L);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return upperBoundOf(i);
+                }
+            }
+            return 0L;
+        }
+    }
+}
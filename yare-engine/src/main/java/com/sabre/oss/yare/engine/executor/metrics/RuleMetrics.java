@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluation metrics of the rule identified by URI of its rules execution set and rule identifier.
+ * Evaluation count equals number of recorded predicate times, and consequence count number of recorded consequence times.
+ */
+public final class RuleMetrics implements RuleMetricsMXBean {
+    private static final double PERCENTILE_99 = 0.99;
+
+    private final String uri;
+    private final String ruleId;
+    private final LongAdder matchCount = new LongAdder();
+    private final LatencyHistogram predicateTime = new LatencyHistogram();
+    private final LatencyHistogram consequenceTime = new LatencyHistogram();
+
+    RuleMetrics(String uri, String ruleId) {
+        this.uri = uri;
+        this.ruleId = ruleId;
+    }
+
+    /**
+     * Records evaluation of rule's predicate.
+     *
+     * @param nanos   time of evaluation
+     * @param matched whether predicate was satisfied
+     */
+    public void recordEvaluation(long nanos, boolean matched) {
+        predicateTime.record(nanos);
+        if (matched) {
+            matchCount.increment();
+        }
+    }
+
+    /**
+     * Records execution of rule's consequence.
+     *
+     * @param nanos time of execution
+     */
+    public void recordConsequence(long nanos) {
+        consequenceTime.record(nanos);
+    }
+
+    public LatencyHistogram.Snapshot getPredicateTime() {
+        return predicateTime.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot getConsequenceTime() {
+        return consequenceTime.snapshot();
+    }
+
+    @Override
+    public String getUri() {
+        return uri;
+    }
+
+    @Override
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    @Override
+    public long getEvaluationCount() {
+        return getPredicateTime().getCount();
+    }
+
+    @Override
+    public long getMatchCount() {
+        return matchCount.sum();
+    }
+
+    @Override
+    public long getConsequenceCount() {
+        return getConsequenceTime().getCount();
+    }
+
+    @Override
+    public double getPredicateTimeMean() {
+        return getPredicateTime().getMean();
+    }
+
+    @Override
+    public long getPredicateTime99thPercentile() {
+        return getPredicateTime().getValueAtQuantile(PERCENTILE_99);
+    }
+
+    @Override
+    public long getPredicateTimeTotal() {
+        return getPredicateTime().getTotalTime();
+    }
+
+    @Override
+    public double getConsequenceTimeMean() {
+        return getConsequenceTime().getMean();
+    }
+
+    @Override
+    public long getConsequenceTime99thPercentile() {
+        return getConsequenceTime().getValueAtQuantile(PERCENTILE_99);
+    }
+
+    @Override
+    public long getConsequenceTimeTotal() {
+        return getConsequenceTime().getTotalTime();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Registry of {@link RuleMetrics} of rules evaluated by executors it is given to.
+ * <p>
+ * Metrics are created when rules execution set is loaded and kept when it's reloaded, except metrics of rules
+ * removed by reload, which are removed along with metrics of evicted rules execution sets.
+ * When created with {@link MBeanServer}, metrics of each rule are registered as MXBean named
+ * {@code com.sabre.oss.yare:type=RuleMetrics,uri=<uri>,rule=<rule id>}.
+ */
+public class RuleMetricsRegistry {
+    public static final String DOMAIN = "com.sabre.oss.yare";
+    private static final Logger log = LoggerFactory.getLogger(RuleMetricsRegistry.class);
+
+    private final ConcurrentMap<Key, RuleMetrics> metrics = new ConcurrentHashMap<>();
+    private final MBeanServer mBeanServer;
+
+    /**
+     * Creates registry not exposing metrics through JMX.
+     */
+    public RuleMetricsRegistry() {
+        this(null);
+    }
+
+    /**
+     * Creates registry exposing metrics through {@code mBeanServer}.
+     *
+     * @param mBeanServer server MXBeans are registered with
+     */
+    public RuleMetricsRegistry(MBeanServer mBeanServer) {
+        this.mBeanServer = mBeanServer;
+    }
+
+    /**
+     * Returns metrics of the rule identified by {@code ruleId} of the rules execution set identified by {@code uri},
+     * creating them if needed.
+     *
+     * @param uri    rules execution set URI
+     * @param ruleId rule identifier
+     * @return rule metrics
+     */
+    public RuleMetrics getOrCreate(String uri, String ruleId) {
+        Key key = new Key(uri, ruleId);
+        RuleMetrics ruleMetrics = metrics.get(key);
+        if (ruleMetrics == null) {
+            ruleMetrics = metrics.computeIfAbsent(key, k -> register(new RuleMetrics(uri, ruleId)));
+        }
+        return ruleMetrics;
+    }
+
+    /**
+     * Returns metrics of the rule identified by {@code ruleId} of the rules execution set identified by {@code uri}.
+     *
+     * @param uri    rules execution set URI
+     * @param ruleId rule identifier
+     * @return rule metrics or {@code null} if rule wasn't loaded
+     */
+    public RuleMetrics get(String uri, String ruleId) {
+        return metrics.get(new Key(uri, ruleId));
+    }
+
+    /**
+     * Returns metrics of all loaded rules.
+     *
+     * @return rule metrics
+     */
+    public Collection<RuleMetrics> getAll() {
+        return Collections.unmodifiableCollection(new ArrayList<>(metrics.values()));
+    }
+
+    /**
+     * Removes metrics of rules of the rules execution set identified by {@code uri}, except metrics of rules
+     * identified by {@code ruleIds}, unregistering their MXBeans.
+     *
+     * @param uri     rules execution set URI
+     * @param ruleIds identifiers of rules whose metrics are retained
+     */
+    public void retain(String uri, Collection<String> ruleIds) {
+        removeIf(key -> Objects.equals(key.uri, uri) && !ruleIds.contains(key.ruleId));
+    }
+
+    /**
+     * Removes metrics of all rules of the rules execution set identified by {@code uri}, unregistering their MXBeans.
+     *
+     * @param uri rules execution set URI
+     */
+    public void remove(String uri) {
+        retain(uri, Collections.emptySet());
+    }
+
+    /**
+     * Removes all metrics, unregistering their MXBeans.
+     */
+    public void clear() {
+        removeIf(key -> true);
+    }
+
+    private void removeIf(Predicate<Key> filter) {
+        metrics.keySet().removeIf(key -> {
+            if (!filter.test(key)) {
+                return false;
+            }
+            unregister(key.uri, key.ruleId);
+            return true;
+        });
+    }
+
+    private RuleMetrics register(RuleMetrics ruleMetrics) {
+        if (mBeanServer != null) {
+            try {
+                mBeanServer.registerMBean(ruleMetrics, createObjectName(ruleMetrics.getUri(), ruleMetrics.getRuleId()));
+            } catch (JMException e) {
+                log.warn("Unable to register metrics of rule '{}' of '{}'", ruleMetrics.getRuleId(), ruleMetrics.getUri(), e);
+            }
+        }
+        return ruleMetrics;
+    }
+
+    private void unregister(String uri, String ruleId) {
+        if (mBeanServer != null) {
+            try {
+                mBeanServer.unregisterMBean(createObjectName(uri, ruleId));
+            } catch (JMException e) {
+                log.warn("Unable to unregister metrics of rule '{}' of '{}'", ruleId, uri, e);
+            }
+        }
+    }
+
+    /**
+     * Creates name of MXBean of metrics of the rule identified by {@code ruleId} of the rules execution set identified by {@code uri}.
+     *
+     * @param uri    rules execution set URI
+     * @param ruleId rule identifier
+     * @return object name
+     * @throws JMException if name is malformed
+     */
+    public static ObjectName createObjectName(String uri, String ruleId) throws JMException {
+        return new ObjectName(String.format("%s:type=RuleMetrics,uri=%s,rule=%s",
+                DOMAIN, ObjectName.quote(String.valueOf(uri)), ObjectName.quote(String.valueOf(ruleId))));
+    }
+
+    private static final class Key {
+        private final String uri;
+        private final String ruleId;
+
+        private Key(String uri, String ruleId) {
+            this.uri = uri;
+            this.ruleId = ruleId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(uri, key.uri) && Objects.equals(ruleId, key.ruleId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, ruleId);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.compiler;
+
+import com.sabre.oss.yare.engine.executor.runtime.operator.BiArgsPredicate;
+import com.sabre.oss.yare.engine.executor.runtime.operator.UniArgPredicate;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.And;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.False;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.Not;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.Or;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.True;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.EqObject;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.GeComparable;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.GeZonedDateTime;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.GtComparable;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.GtZonedDateTime;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.IsFalse;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.IsNull;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.IsTrue;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.LeComparable;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.LeZonedDateTime;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.LtComparable;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.LtZonedDateTime;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.DelegatingPredicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+import com.sabre.oss.yare.engine.executor.runtime.validator.RuntimeInputValidator;
+import com.sabre.oss.yare.engine.executor.runtime.value.ConstantValueProvider;
+import com.sabre.oss.yare.engine.executor.runtime.value.ReferenceValueProvider;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+import javassist.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link PredicateCompiler} turns interpreted {@link Predicate} tree of a rule into a single generated class.
+ * <p>
+ * Logical operators, comparisons and {@link PredicateContext} slot reads are inlined into private methods
+ * of the generated class (one per tree node), so evaluation does not go through megamorphic virtual calls
+ * and comparisons with {@link Integer}, {@link Long} and {@link Double} constants are performed on primitives.
+ * Nodes the compiler doesn't know are embedded and called as they are, the same way as the remaining
+ * value providers. Three-valued logic of the interpreted operators is preserved.
+ * <p>
+ * Generated classes are defined in a class loader owned by the compiler, so they are unloaded once the compiler
+ * and predicates it has compiled are no longer used. Predicates of a single rules execution set should be compiled
+ * with a compiler of their own, see {@link #withNewClassLoader()}. Compiler is thread-safe.
+ */
+public final class PredicateCompiler {
+    private static final Logger log = LoggerFactory.getLogger(PredicateCompiler.class);
+    private static final AtomicLong classCounter = new AtomicLong();
+    private static final String CONTEXT = PredicateContext.class.getName();
+    private static final String PREDICATE = Predicate.class.getName();
+    private static final String VALUE_PROVIDER = ValueProvider.class.getName();
+    private static final String ZONED_DATE_TIME = "java.time.ZonedDateTime";
+
+    private final ClassPool classPool;
+    private final GeneratedClassLoader classLoader;
+
+    public PredicateCompiler() {
+        this(createClassPool());
+    }
+
+    private PredicateCompiler(ClassPool classPool) {
+        this.classPool = classPool;
+        this.classLoader = new GeneratedClassLoader(PredicateCompiler.class.getClassLoader());
+    }
+
+    /**
+     * Creates compiler defining generated classes in a new class loader, so they can be unloaded along with
+     * predicates compiled by it, independently of predicates compiled by this compiler.
+     *
+     * @return compiler with a class loader of its own
+     */
+    public PredicateCompiler withNewClassLoader() {
+        return new PredicateCompiler(classPool);
+    }
+
+    /**
+     * Compiles {@code predicate}. Predicates that cannot be compiled are returned unchanged.
+     *
+     * @param predicate interpreted predicate
+     * @return compiled predicate or {@code predicate} itself
+     */
+    public Predicate compile(Predicate predicate) {
+        return compile(predicate, Collections.emptyMap(), new IdentityHashMap<>());
+    }
+
+    /**
+     * Compiles {@code predicate}, reusing predicates compiled before. Predicates that cannot be compiled
+     * are returned unchanged.
+     *
+     * @param predicate          interpreted predicate
+     * @param previouslyCompiled compiled predicates by interpreted ones they are compiled of, as recorded by previous
+     *                           compilations; these are reused instead of being compiled again
+     * @param compiled           map compiled predicates are recorded to, by interpreted ones they are compiled of
+     * @return compiled predicate or {@code predicate} itself
+     */
+    public Predicate compile(Predicate predicate, Map<Predicate, Predicate> previouslyCompiled, Map<Predicate, Predicate> compiled) {
+        if (predicate instanceof RuntimeInputValidator) {
+            RuntimeInputValidator validator = (RuntimeInputValidator) predicate;
+            Predicate delegate = compile(validator.getDelegate(), previouslyCompiled, compiled);
+            return delegate != validator.getDelegate() ? validator.withDelegate(delegate) : validator;
+        }
+        if (predicate instanceof DelegatingPredicate) {
+            DelegatingPredicate delegating = (DelegatingPredicate) predicate;
+            Predicate delegate = compile(delegating.getDelegate(), previouslyCompiled, compiled);
+            return delegate != delegating.getDelegate() ? delegating.withDelegate(delegate) : delegating;
+        }
+        if (!isCompilable(predicate)) {
+            return predicate;
+        }
+        Predicate result = previouslyCompiled.get(predicate);
+        if (result == null) {
+            try {
+                result = new Generator().generate(predicate);
+            } catch (CannotCompileException | NotFoundException | IOException | ReflectiveOperationException e) {
+                log.warn("Unable to compile predicate, interpreted one is used", e);
+                return predicate;
+            }
+        }
+        compiled.put(predicate, result);
+        return result;
+    }
+
+    private static boolean isCompilable(Predicate predicate) {
+        Class<?> type = predicate.getClass();
+        return type == And.class || type == Or.class || type == Not.class || type == True.class || type == False.class
+                || type == IsNull.class || type == IsTrue.class || type == IsFalse.class
+                || comparisonOf(predicate) != null
+                || predicate instanceof ValueProvider;
+    }
+
+    private static Comparison comparisonOf(Predicate predicate) {
+        Class<?> type = predicate.getClass();
+        if (type == EqObject.class) {
+            return Comparison.EQUAL;
+        }
+        if (type == LtComparable.class) {
+            return Comparison.LESS;
+        }
+        if (type == LeComparable.class) {
+            return Comparison.LESS_OR_EQUAL;
+        }
+        if (type == GtComparable.class) {
+            return Comparison.GREATER;
+        }
+        if (type == GeComparable.class) {
+            return Comparison.GREATER_OR_EQUAL;
+        }
+        if (type == LtZonedDateTime.class) {
+            return Comparison.BEFORE;
+        }
+        if (type == LeZonedDateTime.class) {
+            return Comparison.BEFORE_OR_EQUAL;
+        }
+        if (type == GtZonedDateTime.class) {
+            return Comparison.AFTER;
+        }
+        if (type == GeZonedDateTime.class) {
+            return Comparison.AFTER_OR_EQUAL;
+        }
+        return null;
+    }
+
+    private static ClassPool createClassPool() {
+        ClassPool classPool = new ClassPool(ClassPool.getDefault());
+        classPool.appendClassPath(new LoaderClassPath(PredicateCompiler.class.getClassLoader()));
+        return classPool;
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length, PredicateCompiler.class.getProtectionDomain());
+        }
+    }
+
+    private enum Comparison {
+        EQUAL("l.equals(r)"),
+        LESS("%s < 0"),
+        LESS_OR_EQUAL("%s <= 0"),
+        GREATER("%s > 0"),
+        GREATER_OR_EQUAL("%s >= 0"),
+        BEFORE("zl.isBefore(zr)"),
+        BEFORE_OR_EQUAL("zl.isBefore(zr) || zl.isEqual(zr)"),
+        AFTER("zl.isAfter(zr)"),
+        AFTER_OR_EQUAL("zl.isAfter(zr) || zl.isEqual(zr)");
+
+        private final String template;
+
+        Comparison(String template) {
+            this.template = template;
+        }
+    }
+
+    private final class Generator {
+        private final List<String> fieldTypes = new ArrayList<>();
+        private final List<Object> fieldValues = new ArrayList<>();
+        private final List<String> methods = new ArrayList<>();
+        private int methodCounter = 0;
+
+        private Predicate generate(Predicate predicate) throws CannotCompileException, NotFoundException, IOException, ReflectiveOperationException {
+            String root = predicate(predicate);
+            // generated class is made in a pool of its own, as shared pool may be used concurrently
+            ClassPool generationPool = new ClassPool(classPool);
+            CtClass ctClass = generationPool.makeClass(PredicateCompiler.class.getPackage().getName() + ".CompiledPredicate$" + classCounter.incrementAndGet());
+            try {
+                ctClass.setSuperclass(generationPool.get(PREDICATE));
+                StringBuilder constructor = new StringBuilder("public " + ctClass.getSimpleName() + "(Object[] a) { super(); ");
+                for (int i = 0; i < fieldTypes.size(); i++) {
+                    String type = fieldTypes.get(i);
+                    ctClass.addField(CtField.make(String.format("private final %s f%d;", type, i), ctClass));
+                    constructor.append(type.equals("Object") ? String.format("f%d = a[%d]; ", i, i)
+                            : isPrimitive(type) ? String.format("f%d = ((%s) a[%d]).%sValue(); ", i, wrapper(type), i, type)
+                            : String.format("f%d = (%s) a[%d]; ", i, type, i));
+                }
+                ctClass.addConstructor(CtNewConstructor.make(constructor.append('}').toString(), ctClass));
+                for (String method : methods) {
+                    ctClass.addMethod(CtMethod.make(method, ctClass));
+                }
+                ctClass.addMethod(CtMethod.make(String.format("public Boolean evaluate(%s ctx) { return %s(ctx); }", CONTEXT, root), ctClass));
+                Class<?> compiledClass = classLoader.define(ctClass.getName(), ctClass.toBytecode());
+                return (Predicate) compiledClass.getConstructor(Object[].class).newInstance(new Object[]{fieldValues.toArray()});
+            } finally {
+                ctClass.detach();
+            }
+        }
+
+        private String predicate(Predicate predicate) {
+            String name = "p" + methodCounter++;
+            String body;
+            Class<?> type = predicate.getClass();
+            Comparison comparison = comparisonOf(predicate);
+            if (type == And.class) {
+                body = junction(((And) predicate).getPredicates(), "!r.booleanValue()", "Boolean.FALSE", "Boolean.TRUE");
+            } else if (type == Or.class) {
+                body = junction(((Or) predicate).getPredicates(), "r.booleanValue()", "Boolean.TRUE", "Boolean.FALSE");
+            } else if (type == Not.class) {
+                body = String.format("Boolean r = %s(ctx); \n" +
+                        "if (r == null) { return null; } \n" +
+                        "return r.booleanValue() ? Boolean.FALSE : Boolean.TRUE; \n", predicate(((Not) predicate).getPredicate()));
+            } else if (type == True.class) {
+                body = "return Boolean.TRUE; \n";
+            } else if (type == False.class) {
+                body = "return Boolean.FALSE; \n";
+            } else if (type == IsNull.class) {
+                body = String.format("return %s == null ? Boolean.TRUE : Boolean.FALSE; \n", value(((UniArgPredicate) predicate).getOperandProvider()));
+            } else if (type == IsTrue.class || type == IsFalse.class) {
+                body = String.format("Object v = %s; \n" +
+                                "if (v == null) { return null; } \n" +
+                                "return v.equals(Boolean.%s) ? Boolean.TRUE : Boolean.FALSE; \n",
+                        value(((UniArgPredicate) predicate).getOperandProvider()), type == IsTrue.class ? "TRUE" : "FALSE");
+            } else if (comparison != null) {
+                body = comparison((BiArgsPredicate) predicate, comparison);
+            } else if (predicate instanceof ValueProvider) {
+                body = String.format("Object v = %s; \n" +
+                        "if (v instanceof Boolean) { return v == Boolean.TRUE ? Boolean.TRUE : Boolean.FALSE; } \n" +
+                        "return null; \n", value((ValueProvider) predicate));
+            } else {
+                body = String.format("return %s.evaluate(ctx); \n", field(PREDICATE, predicate));
+            }
+            methods.add(String.format("private Boolean %s(%s ctx) { \n%s} \n", name, CONTEXT, body));
+            return name;
+        }
+
+        private String junction(List<Predicate> predicates, String decisiveResult, String decision, String otherwise) {
+            StringBuilder body = new StringBuilder("Boolean r; \nboolean unknown = false; \n");
+            for (Predicate predicate : predicates) {
+                body.append(String.format("r = %s(ctx); \n" +
+                        "if (r == null) { unknown = true; } else if (%s) { return %s; } \n", predicate(predicate), decisiveResult, decision));
+            }
+            return body.append(String.format("if (unknown) { return null; } \nreturn %s; \n", otherwise)).toString();
+        }
+
+        private String comparison(BiArgsPredicate predicate, Comparison comparison) {
+            ValueProvider left = predicate.getLeftOperandProvider();
+            ValueProvider right = predicate.getRightOperandProvider();
+            StringBuilder body = new StringBuilder()
+                    .append(String.format("Object l = %s; \nif (l == null) { return null; } \n", value(left)))
+                    .append(String.format("Object r = %s; \n", value(right)));
+            if (constant(right) == null) {
+                body.append("if (r == null) { return null; } \n");
+            }
+            String condition;
+            switch (comparison) {
+                case EQUAL:
+                    condition = comparison.template;
+                    break;
+                case BEFORE:
+                case BEFORE_OR_EQUAL:
+                case AFTER:
+                case AFTER_OR_EQUAL:
+                    body.append(String.format("%1$s zl = (%1$s) l; \n%1$s zr = (%1$s) r; \n", ZONED_DATE_TIME));
+                    condition = comparison.template;
+                    break;
+                default:
+                    condition = String.format(comparison.template, compareTo(left, right));
+            }
+            return body.append(String.format("return %s ? Boolean.TRUE : Boolean.FALSE; \n", condition)).toString();
+        }
+
+        private String compareTo(ValueProvider left, ValueProvider right) {
+            String generic = "((Comparable) l).compareTo(r)";
+            Object leftConstant = constant(left);
+            Object rightConstant = constant(right);
+            if (rightConstant != null && isSpecialized(rightConstant)) {
+                String type = primitive(rightConstant);
+                return String.format("(l instanceof %s ? %s.compare(((%s) l).%sValue(), %s) : %s)",
+                        wrapper(type), wrapper(type), wrapper(type), type, field(type, rightConstant), generic);
+            }
+            if (leftConstant != null && isSpecialized(leftConstant)) {
+                String type = primitive(leftConstant);
+                return String.format("(r instanceof %s ? %s.compare(%s, ((%s) r).%sValue()) : %s)",
+                        wrapper(type), wrapper(type), field(type, leftConstant), wrapper(type), type, generic);
+            }
+            return generic;
+        }
+
+        private String value(ValueProvider valueProvider) {
+            if (valueProvider instanceof ConstantValueProvider) {
+                Object value = ((ConstantValueProvider) valueProvider).getValue();
+                return value != null ? field("Object", value) : "null";
+            }
+            if (valueProvider instanceof ReferenceValueProvider && ((ReferenceValueProvider) valueProvider).getSlot() != ContextLayout.UNRESOLVED) {
+                return String.format("ctx.get(%d)", ((ReferenceValueProvider) valueProvider).getSlot());
+            }
+            return String.format("%s.get(ctx)", field(VALUE_PROVIDER, valueProvider));
+        }
+
+        private String field(String type, Object value) {
+            fieldTypes.add(type);
+            fieldValues.add(value);
+            return "f" + (fieldTypes.size() - 1);
+        }
+    }
+
+    private static Object constant(ValueProvider valueProvider) {
+        return valueProvider instanceof ConstantValueProvider ? ((ConstantValueProvider) valueProvider).getValue() : null;
+    }
+
+    private static boolean isSpecialized(Object constant) {
+        return constant instanceof Integer || constant instanceof Long || constant instanceof Double;
+    }
+
+    private static String primitive(Object constant) {
+        return constant instanceof Integer ? "int" : constant instanceof Long ? "long" : "double";
+    }
+
+    private static boolean isPrimitive(String type) {
+        return type.equals("int") || type.equals("long") || type.equals("double");
+    }
+
+    private static String wrapper(String primitive) {
+        return primitive.equals("int") ? "Integer" : primitive.equals("long") ? "Long" : "Double";
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.core.EngineController;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+
+import java.util.*;
+
+/**
+ * {@link AlphaFilter} removes fact instances which cannot take part in any matching fact tuple,
+ * before tuples are generated.
+ * <p>
+ * A fact is filtered only when every rule the filter is built for has conditions ("alpha" conditions) referring
+ * to nothing but the fact of the same identifier. Fact is kept when all alpha conditions of at least one rule
+ * are satisfied.
+ */
+public final class AlphaFilter {
+    private static final AlphaFilter NONE = new AlphaFilter(new Predicate[0][]);
+
+    private final Predicate[][] filters;
+    private final boolean empty;
+
+    AlphaFilter(Predicate[][] filters) {
+        this.filters = filters;
+        this.empty = Arrays.stream(filters).allMatch(Objects::isNull);
+    }
+
+    /**
+     * Returns filter which keeps all facts.
+     *
+     * @return filter without conditions
+     */
+    public static AlphaFilter none() {
+        return NONE;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Filters fact instances grouped by their indexes in fact tuples. Relative order of kept instances is preserved.
+     *
+     * @param groupedFacts     fact instances grouped by fact indexes ({@code null} for absent facts)
+     * @param layout           layout of evaluated rules
+     * @param result           result object
+     * @param engineController engine controller
+     * @return kept fact instances grouped by fact indexes or {@code null} when no instance of some fact is kept
+     */
+    public List<List<Object>> filter(List<List<Object>> groupedFacts, ContextLayout layout, Object result, EngineController engineController) {
+        if (empty) {
+            return groupedFacts;
+        }
+        List<List<Object>> filtered = new ArrayList<>(groupedFacts);
+        Object[] tuple = new Object[groupedFacts.size()];
+        PredicateContext context = new PredicateContext(layout, result, tuple, engineController);
+        for (int i = 0; i < groupedFacts.size() && i < filters.length; i++) {
+            Predicate[] predicates = filters[i];
+            List<Object> instances = groupedFacts.get(i);
+            if (predicates == null || instances == null) {
+                continue;
+            }
+            List<Object> kept = new ArrayList<>(instances.size());
+            for (Object fact : instances) {
+                tuple[i] = fact;
+                context.nextTuple();
+                if (anyMatches(predicates, context)) {
+                    kept.add(fact);
+                }
+            }
+            tuple[i] = null;
+            if (kept.isEmpty()) {
+                return null;
+            }
+            filtered.set(i, kept);
+        }
+        return filtered;
+    }
+
+    private static boolean anyMatches(Predicate[] predicates, PredicateContext context) {
+        for (Predicate predicate : predicates) {
+            if (Boolean.TRUE.equals(predicate.evaluate(context))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.core.model.Expression;
+import com.sabre.oss.yare.core.model.Fact;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.core.reference.PlaceholderUtils;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.And;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactoryContext;
+
+import java.util.*;
+
+import static com.sabre.oss.yare.engine.executor.runtime.index.Expressions.conjuncts;
+import static com.sabre.oss.yare.engine.executor.runtime.index.Expressions.identifier;
+
+/**
+ * Builds {@link AlphaFilter} by splitting rules' top-level conjuncts into alpha conditions, which refer to
+ * a single fact (and constants) only, and the remaining ones, which are left to the rules' predicates.
+ */
+public final class AlphaFilterBuilder {
+    private final List<Map<String, Predicate>> alphaPredicates = new ArrayList<>();
+    private ContextLayout layout;
+
+    /**
+     * Registers rule described by {@code context}. Rules are indexed in order of registration.
+     *
+     * @param context factory context of the rule
+     * @return this alphaFilterBuilder instance
+     */
+    public AlphaFilterBuilder add(PredicateFactoryContext context) {
+        Rule rule = context.getRule();
+        Map<String, List<Predicate>> conditions = new HashMap<>();
+        for (Expression conjunct : conjuncts(rule.getPredicate())) {
+            Set<String> identifiers = new HashSet<>();
+            if (collectFactIdentifiers(rule, conjunct, identifiers) && identifiers.size() == 1) {
+                conditions.computeIfAbsent(identifiers.iterator().next(), k -> new ArrayList<>())
+                        .add(context.getFactoryFacade().createPredicate(context, conjunct));
+            }
+        }
+        Map<String, Predicate> predicates = new HashMap<>();
+        for (Map.Entry<String, List<Predicate>> entry : conditions.entrySet()) {
+            List<Predicate> conjuncts = entry.getValue();
+            predicates.put(entry.getKey(), conjuncts.size() == 1 ? conjuncts.get(0) : new And(conjuncts));
+        }
+        layout = context.getLayout();
+        alphaPredicates.add(predicates);
+        return this;
+    }
+
+    /**
+     * Returns identifiers of facts rule registered under {@code ruleIndex} has alpha conditions for.
+     *
+     * @param ruleIndex index of the rule
+     * @return fact identifiers
+     */
+    public Set<String> getFilteredFacts(int ruleIndex) {
+        return alphaPredicates.get(ruleIndex).keySet();
+    }
+
+    /**
+     * Builds filter of facts all registered rules have alpha conditions for.
+     *
+     * @return alpha filter
+     */
+    public AlphaFilter build() {
+        BitSet rules = new BitSet();
+        rules.set(0, alphaPredicates.size());
+        return build(rules);
+    }
+
+    /**
+     * Builds filter of facts every rule of {@code rules} has alpha conditions for, so a rule without alpha
+     * conditions on some fact leaves all its instances to the rules.
+     *
+     * @param rules indexes of rules
+     * @return alpha filter
+     */
+    public AlphaFilter build(BitSet rules) {
+        Set<String> identifiers = null;
+        for (int i = rules.nextSetBit(0); i >= 0; i = rules.nextSetBit(i + 1)) {
+            if (identifiers == null) {
+                identifiers = new HashSet<>(alphaPredicates.get(i).keySet());
+            } else {
+                identifiers.retainAll(alphaPredicates.get(i).keySet());
+            }
+        }
+        if (identifiers == null || identifiers.isEmpty()) {
+            return AlphaFilter.none();
+        }
+        Predicate[][] filters = new Predicate[layout.getFactCount()][];
+        for (String identifier : identifiers) {
+            List<Predicate> predicates = new ArrayList<>(rules.cardinality());
+            for (int i = rules.nextSetBit(0); i >= 0; i = rules.nextSetBit(i + 1)) {
+                predicates.add(alphaPredicates.get(i).get(identifier));
+            }
+            filters[layout.getFactIndex(identifier)] = predicates.toArray(new Predicate[0]);
+        }
+        return new AlphaFilter(filters);
+    }
+
+    /**
+     * Collects identifiers of facts referred by {@code expression}.
+     *
+     * @return {@code false} if expression refers to anything else than facts and constants
+     */
+    private static boolean collectFactIdentifiers(Rule rule, Expression expression, Set<String> identifiers) {
+        if (expression instanceof Expression.Value) {
+            String reference = PlaceholderUtils.extract((Expression.Value) expression).orElse(null);
+            if (reference == null) {
+                return true;
+            }
+            String identifier = identifier(reference);
+            Fact fact = rule.getAttribute(identifier) == null ? rule.getFact(identifier) : null;
+            if (fact == null) {
+                return false;
+            }
+            identifiers.add(identifier);
+            return true;
+        }
+        if (expression instanceof Expression.Values) {
+            return collectFactIdentifiers(rule, ((Expression.Values) expression).getValues(), identifiers);
+        }
+        if (expression instanceof Expression.Operator) {
+            return collectFactIdentifiers(rule, ((Expression.Operator) expression).getArguments(), identifiers);
+        }
+        return false;
+    }
+
+    private static boolean collectFactIdentifiers(Rule rule, List<? extends Expression> expressions, Set<String> identifiers) {
+        for (Expression expression : expressions) {
+            if (!collectFactIdentifiers(rule, expression, identifiers)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link DiscriminationIndex} narrows rules evaluated for a fact tuple down to the candidates which
+ * can possibly match it.
+ * <p>
+ * Rules not assigned to any {@link Discriminator} are always candidates.
+ */
+public final class DiscriminationIndex {
+    private final BitSet unconstrained;
+    private final Discriminator[] discriminators;
+
+    DiscriminationIndex(BitSet unconstrained, List<Discriminator> discriminators) {
+        this.unconstrained = unconstrained;
+        this.discriminators = discriminators.toArray(new Discriminator[0]);
+    }
+
+    /**
+     * Creates index which selects all {@code rulesCount} rules.
+     *
+     * @param rulesCount number of rules
+     * @return index without discriminators
+     */
+    public static DiscriminationIndex none(int rulesCount) {
+        BitSet all = new BitSet(rulesCount);
+        all.set(0, rulesCount);
+        return new DiscriminationIndex(all, Collections.emptyList());
+    }
+
+    /**
+     * Returns indexes of rules which should be evaluated against fact tuple of given {@code context}.
+     * Returned set must not be modified.
+     *
+     * @param context context of fact tuple
+     * @return candidate rules (indexes of {@link com.sabre.oss.yare.engine.executor.RuntimeRules#getExecutableRules()})
+     */
+    public BitSet findCandidates(PredicateContext context) {
+        if (discriminators.length == 0) {
+            return unconstrained;
+        }
+        BitSet candidates = (BitSet) unconstrained.clone();
+        for (Discriminator discriminator : discriminators) {
+            discriminator.collect(context, candidates);
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns indexes of rules out of {@code rules} which should be evaluated against fact tuple of given {@code context}.
+     * Returned set must not be modified.
+     *
+     * @param context context of fact tuple
+     * @param rules   indexes of rules, or {@code null} if all rules are evaluated
+     * @return candidate rules (indexes of {@link com.sabre.oss.yare.engine.executor.RuntimeRules#getExecutableRules()})
+     */
+    public BitSet findCandidates(PredicateContext context, BitSet rules) {
+        BitSet candidates = findCandidates(context);
+        if (rules == null) {
+            return candidates;
+        }
+        BitSet restricted = discriminators.length == 0 ? (BitSet) candidates.clone() : candidates;
+        restricted.and(rules);
+        return restricted;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.core.model.Expression;
+import com.sabre.oss.yare.core.reference.PlaceholderUtils;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.*;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactoryContext;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.lang.reflect.Type;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.*;
+
+import static com.sabre.oss.yare.engine.executor.runtime.index.Expressions.conjuncts;
+import static com.sabre.oss.yare.engine.executor.runtime.index.Expressions.factReference;
+
+/**
+ * Builds {@link DiscriminationIndex} based on rules' top-level conjuncts.
+ * <p>
+ * A rule is indexed by the first conjunct comparing a fact's field with a constant of a value-based type
+ * (string, boxed primitive or enum) for equality. Otherwise it is indexed by the range its first conjunct comparing
+ * a fact's field with an ordered constant ({@code less}, {@code less-or-equal}, {@code greater}, {@code greater-or-equal})
+ * restricts, narrowed by the remaining comparisons of the same field. Rules without such conjuncts are always evaluated.
+ */
+public final class DiscriminationIndexBuilder {
+    private final BitSet unconstrained = new BitSet();
+    private final Map<Pair<Type, String>, ValueProvider> valueProviders = new HashMap<>();
+    private final Map<Pair<Type, String>, Map<Object, BitSet>> equalities = new LinkedHashMap<>();
+    private final Map<Triple<Pair<Type, String>, Class<?>, Comparator<Object>>, RangeDiscriminator.Builder> ranges = new LinkedHashMap<>();
+
+    /**
+     * Registers rule described by {@code context} under {@code ruleIndex}.
+     *
+     * @param ruleIndex index of the rule in {@link com.sabre.oss.yare.engine.executor.RuntimeRules#getExecutableRules()}
+     * @param context   factory context of the rule
+     * @return this discriminationIndexBuilder instance
+     */
+    public DiscriminationIndexBuilder add(int ruleIndex, PredicateFactoryContext context) {
+        List<Expression> conjuncts = conjuncts(context.getRule().getPredicate());
+        for (Expression conjunct : conjuncts) {
+            if (tryAddEquality(ruleIndex, context, conjunct)) {
+                return this;
+            }
+        }
+        if (!tryAddRange(ruleIndex, context, conjuncts)) {
+            unconstrained.set(ruleIndex);
+        }
+        return this;
+    }
+
+    public DiscriminationIndex build() {
+        List<Discriminator> discriminators = new ArrayList<>(equalities.size() + ranges.size());
+        for (Map.Entry<Pair<Type, String>, Map<Object, BitSet>> entry : equalities.entrySet()) {
+            discriminators.add(new EqualityDiscriminator(valueProviders.get(entry.getKey()), entry.getValue()));
+        }
+        for (Map.Entry<Triple<Pair<Type, String>, Class<?>, Comparator<Object>>, RangeDiscriminator.Builder> entry : ranges.entrySet()) {
+            discriminators.add(entry.getValue().build(valueProviders.get(entry.getKey().getLeft())));
+        }
+        return new DiscriminationIndex(unconstrained, discriminators);
+    }
+
+    private boolean tryAddEquality(int ruleIndex, PredicateFactoryContext context, Expression conjunct) {
+        Expression.Operator operator = conjunct.as(Expression.Operator.class);
+        if (operator == null || !Eq.OPERATOR_NAME.equals(operator.getCall()) || operator.getArguments().size() != 2) {
+            return false;
+        }
+        Expression left = operator.getArguments().get(0);
+        Expression right = operator.getArguments().get(1);
+        return tryAddEquality(ruleIndex, context, operator, left, right) || tryAddEquality(ruleIndex, context, operator, right, left);
+    }
+
+    private boolean tryAddEquality(int ruleIndex, PredicateFactoryContext context, Expression.Operator operator, Expression reference, Expression constant) {
+        Pair<Type, String> key = factReference(context.getRule(), reference);
+        Object value = constantValue(constant);
+        if (key == null || !isValueBased(value) || !isObjectEquality(context.getFactoryFacade().createPredicate(context, operator))) {
+            return false;
+        }
+        valueProviders.computeIfAbsent(key, k -> context.getFactoryFacade().createValueProvider(context, reference));
+        equalities.computeIfAbsent(key, k -> new HashMap<>())
+                .computeIfAbsent(value, v -> new BitSet())
+                .set(ruleIndex);
+        return true;
+    }
+
+    private boolean tryAddRange(int ruleIndex, PredicateFactoryContext context, List<Expression> conjuncts) {
+        Map<Triple<Pair<Type, String>, Class<?>, Comparator<Object>>, Range> rangesByKey = new LinkedHashMap<>();
+        for (Expression conjunct : conjuncts) {
+            Expression.Operator operator = conjunct.as(Expression.Operator.class);
+            if (operator == null || !isRangeOperator(operator.getCall()) || operator.getArguments().size() != 2) {
+                continue;
+            }
+            Expression left = operator.getArguments().get(0);
+            Expression right = operator.getArguments().get(1);
+            if (!tryRestrict(rangesByKey, context, operator, left, right, true)) {
+                tryRestrict(rangesByKey, context, operator, right, left, false);
+            }
+        }
+        if (rangesByKey.isEmpty()) {
+            return false;
+        }
+        Map.Entry<Triple<Pair<Type, String>, Class<?>, Comparator<Object>>, Range> entry = rangesByKey.entrySet().iterator().next();
+        Triple<Pair<Type, String>, Class<?>, Comparator<Object>> key = entry.getKey();
+        Range range = entry.getValue();
+        valueProviders.computeIfAbsent(key.getLeft(), k -> context.getFactoryFacade().createValueProvider(context, range.reference));
+        ranges.computeIfAbsent(key, k -> new RangeDiscriminator.Builder(k.getMiddle(), k.getRight()))
+                .add(ruleIndex, range.lower, range.lowerInclusive, range.upper, range.upperInclusive);
+        return true;
+    }
+
+    private static boolean tryRestrict(Map<Triple<Pair<Type, String>, Class<?>, Comparator<Object>>, Range> rangesByKey,
+                                       PredicateFactoryContext context, Expression.Operator operator,
+                                       Expression reference, Expression constant, boolean referenceFirst) {
+        Pair<Type, String> path = factReference(context.getRule(), reference);
+        Object value = constantValue(constant);
+        if (path == null || !isOrdered(value)) {
+            return false;
+        }
+        Comparator<Object> comparator = rangeComparator(context.getFactoryFacade().createPredicate(context, operator), value);
+        if (comparator == null) {
+            return false;
+        }
+        String call = operator.getCall();
+        boolean less = Lt.OPERATOR_NAME.equals(call) || Le.OPERATOR_NAME.equals(call);
+        boolean inclusive = Le.OPERATOR_NAME.equals(call) || Ge.OPERATOR_NAME.equals(call);
+        rangesByKey.computeIfAbsent(Triple.of(path, value.getClass(), comparator), k -> new Range(reference, comparator))
+                .restrict(value, inclusive, less == referenceFirst);
+        return true;
+    }
+
+    private static boolean isRangeOperator(String call) {
+        return Lt.OPERATOR_NAME.equals(call) || Le.OPERATOR_NAME.equals(call) || Gt.OPERATOR_NAME.equals(call) || Ge.OPERATOR_NAME.equals(call);
+    }
+
+    private static Comparator<Object> rangeComparator(Predicate predicate, Object value) {
+        if (predicate instanceof LtZonedDateTime || predicate instanceof LeZonedDateTime
+                || predicate instanceof GtZonedDateTime || predicate instanceof GeZonedDateTime) {
+            return RangeDiscriminator.INSTANT_ORDER;
+        }
+        if (predicate instanceof LtDynamic || predicate instanceof LeDynamic
+                || predicate instanceof GtDynamic || predicate instanceof GeDynamic) {
+            return value instanceof ZonedDateTime ? RangeDiscriminator.INSTANT_ORDER : RangeDiscriminator.NATURAL_ORDER;
+        }
+        if (predicate instanceof LtComparable || predicate instanceof LeComparable
+                || predicate instanceof GtComparable || predicate instanceof GeComparable) {
+            return RangeDiscriminator.NATURAL_ORDER;
+        }
+        return null;
+    }
+
+    private static Object constantValue(Expression expression) {
+        Expression.Value value = expression.as(Expression.Value.class);
+        if (value == null || PlaceholderUtils.extract(value).isPresent()) {
+            return null;
+        }
+        return PlaceholderUtils.unescape(value).orElse(value.getValue());
+    }
+
+    private static boolean isValueBased(Object value) {
+        return value instanceof String || value instanceof Enum || value != null && ClassUtils.isPrimitiveWrapper(value.getClass());
+    }
+
+    private static boolean isOrdered(Object value) {
+        return value instanceof Comparable && (isValueBased(value) || value instanceof Number || value instanceof Temporal);
+    }
+
+    private static boolean isObjectEquality(Predicate predicate) {
+        return predicate instanceof EqObject || predicate instanceof EqDynamic;
+    }
+
+    private static final class Range {
+        private final Expression reference;
+        private final Comparator<Object> comparator;
+        private Object lower;
+        private boolean lowerInclusive;
+        private Object upper;
+        private boolean upperInclusive;
+
+        private Range(Expression reference, Comparator<Object> comparator) {
+            this.reference = reference;
+            this.comparator = comparator;
+        }
+
+        private void restrict(Object bound, boolean inclusive, boolean upperBound) {
+            if (upperBound) {
+                int order = upper == null ? -1 : comparator.compare(bound, upper);
+                if (order < 0 || order == 0 && !inclusive) {
+                    upper = bound;
+                    upperInclusive = inclusive;
+                }
+            } else {
+                int order = lower == null ? 1 : comparator.compare(bound, lower);
+                if (order > 0 || order == 0 && !inclusive) {
+                    lower = bound;
+                    lowerInclusive = inclusive;
+                }
+            }
+        }
+    }
+}
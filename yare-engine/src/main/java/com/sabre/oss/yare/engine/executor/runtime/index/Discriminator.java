@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * {@link Discriminator} selects, based on single value read from the fact tuple, rules which
+ * can possibly be matched.
+ * <p>
+ * Each indexed rule is assigned to exactly one discriminator, so a rule not selected by its discriminator
+ * is guaranteed not to match the tuple.
+ */
+public abstract class Discriminator {
+    private final ValueProvider valueProvider;
+
+    protected Discriminator(ValueProvider valueProvider) {
+        this.valueProvider = Objects.requireNonNull(valueProvider);
+    }
+
+    /**
+     * Adds rules selected for the value resolved against {@code context} to {@code candidates}.
+     *
+     * @param context    evaluation context
+     * @param candidates candidate rules (indexes of {@link com.sabre.oss.yare.engine.executor.RuntimeRules#getExecutableRules()})
+     */
+    final void collect(PredicateContext context, BitSet candidates) {
+        Object value = valueProvider.get(context);
+        if (value != null) {
+            collect(value, candidates);
+        }
+    }
+
+    /**
+     * Adds rules selected for the non-null {@code value} to {@code candidates}.
+     *
+     * @param value      discriminating value
+     * @param candidates candidate rules
+     */
+    protected abstract void collect(Object value, BitSet candidates);
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link EqualityDiscriminator} selects rules by hash lookup of the value compared for equality
+ * with rule's constant.
+ */
+public final class EqualityDiscriminator extends Discriminator {
+    private final Map<Object, BitSet> rulesByValue;
+
+    EqualityDiscriminator(ValueProvider valueProvider, Map<Object, BitSet> rulesByValue) {
+        super(valueProvider);
+        this.rulesByValue = new HashMap<>(rulesByValue);
+    }
+
+    @Override
+    protected void collect(Object value, BitSet candidates) {
+        BitSet rules = rulesByValue.get(value);
+        if (rules != null) {
+            candidates.or(rules);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.core.EngineController;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link EquiJoins} holds equality conditions between fields of two different facts shared by a group of rules,
+ * so fact tuples violating them can be skipped instead of being generated by the cross product.
+ */
+public final class EquiJoins {
+    private static final EquiJoins NONE = new EquiJoins(Collections.emptyList());
+
+    private final List<Join> joins;
+
+    EquiJoins(List<Join> joins) {
+        this.joins = joins;
+    }
+
+    /**
+     * Returns joins which don't restrict fact tuples.
+     *
+     * @return empty joins
+     */
+    public static EquiJoins none() {
+        return NONE;
+    }
+
+    public boolean isEmpty() {
+        return joins.isEmpty();
+    }
+
+    /**
+     * Creates iterator over fact tuples satisfying the joins, in the order of
+     * {@link com.sabre.oss.yare.engine.executor.DefaultRulesExecutor} cross product.
+     *
+     * @param groupedFacts     fact instances grouped by fact indexes ({@code null} for absent facts)
+     * @param tuple            array filled with subsequent fact tuples
+     * @param layout           layout of evaluated rules
+     * @param result           result object
+     * @param engineController engine controller
+     * @return fact tuples iterator
+     */
+    public Iterator<Object[]> iterator(List<List<Object>> groupedFacts, Object[] tuple, ContextLayout layout, Object result,
+                                       EngineController engineController) {
+        return new HashJoinFactTupleIterator(groupedFacts, tuple, joins, layout, result, engineController);
+    }
+
+    static final class Join {
+        final int leftIndex;
+        final ValueProvider leftKey;
+        final int rightIndex;
+        final ValueProvider rightKey;
+
+        Join(int leftIndex, ValueProvider leftKey, int rightIndex, ValueProvider rightKey) {
+            this.leftIndex = leftIndex;
+            this.leftKey = leftKey;
+            this.rightIndex = rightIndex;
+            this.rightKey = rightKey;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.core.model.Expression;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.Eq;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.EqObject;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactoryContext;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.lang.reflect.Type;
+import java.util.*;
+
+import static com.sabre.oss.yare.engine.executor.runtime.index.Expressions.conjuncts;
+import static com.sabre.oss.yare.engine.executor.runtime.index.Expressions.factReference;
+import static com.sabre.oss.yare.engine.executor.runtime.index.Expressions.identifier;
+
+/**
+ * Builds {@link EquiJoins} from rules' top-level conjuncts comparing fields of two different facts
+ * with {@link EqObject} (so {@link Object#equals(Object)} and {@link Object#hashCode()} can be relied on).
+ * Joins are built for groups of rules, of joins present in all rules of a group, since a rule without them
+ * may match any fact tuple.
+ */
+public final class EquiJoinsBuilder {
+    private final Map<String, ValueProvider> valueProviders = new HashMap<>();
+    private final List<Set<Pair<String, String>>> ruleJoins = new ArrayList<>();
+    private ContextLayout layout;
+
+    /**
+     * Registers rule described by {@code context}. Rules are indexed in order of registration.
+     *
+     * @param context factory context of the rule
+     * @return this equiJoinsBuilder instance
+     */
+    public EquiJoinsBuilder add(PredicateFactoryContext context) {
+        Set<Pair<String, String>> joins = new LinkedHashSet<>();
+        for (Expression conjunct : conjuncts(context.getRule().getPredicate())) {
+            Pair<String, String> join = join(context, conjunct);
+            if (join != null) {
+                joins.add(join);
+            }
+        }
+        layout = context.getLayout();
+        ruleJoins.add(joins);
+        return this;
+    }
+
+    /**
+     * Returns joins of rule registered under {@code ruleIndex}.
+     *
+     * @param ruleIndex index of the rule
+     * @return pairs of joined field references
+     */
+    public Set<Pair<String, String>> getJoins(int ruleIndex) {
+        return ruleJoins.get(ruleIndex);
+    }
+
+    /**
+     * Builds joins present in all registered rules.
+     *
+     * @return equi joins
+     */
+    public EquiJoins build() {
+        BitSet rules = new BitSet();
+        rules.set(0, ruleJoins.size());
+        return build(rules);
+    }
+
+    /**
+     * Builds joins present in all rules of {@code rules}.
+     *
+     * @param rules indexes of rules
+     * @return equi joins
+     */
+    public EquiJoins build(BitSet rules) {
+        Set<Pair<String, String>> joins = null;
+        for (int i = rules.nextSetBit(0); i >= 0; i = rules.nextSetBit(i + 1)) {
+            if (joins == null) {
+                joins = new LinkedHashSet<>(ruleJoins.get(i));
+            } else {
+                joins.retainAll(ruleJoins.get(i));
+            }
+        }
+        if (joins == null || joins.isEmpty()) {
+            return EquiJoins.none();
+        }
+        List<EquiJoins.Join> result = new ArrayList<>(joins.size());
+        for (Pair<String, String> join : joins) {
+            result.add(new EquiJoins.Join(
+                    layout.getFactIndex(identifier(join.getLeft())), valueProviders.get(join.getLeft()),
+                    layout.getFactIndex(identifier(join.getRight())), valueProviders.get(join.getRight())));
+        }
+        return new EquiJoins(result);
+    }
+
+    private Pair<String, String> join(PredicateFactoryContext context, Expression conjunct) {
+        Expression.Operator operator = conjunct.as(Expression.Operator.class);
+        if (operator == null || !Eq.OPERATOR_NAME.equals(operator.getCall()) || operator.getArguments().size() != 2) {
+            return null;
+        }
+        Rule rule = context.getRule();
+        Expression left = operator.getArguments().get(0);
+        Expression right = operator.getArguments().get(1);
+        Pair<Type, String> leftReference = factReference(rule, left);
+        Pair<Type, String> rightReference = factReference(rule, right);
+        if (leftReference == null || rightReference == null
+                || identifier(leftReference.getRight()).equals(identifier(rightReference.getRight()))
+                || !(context.getFactoryFacade().createPredicate(context, operator) instanceof EqObject)) {
+            return null;
+        }
+        valueProviders.computeIfAbsent(leftReference.getRight(), k -> context.getFactoryFacade().createValueProvider(context, left));
+        valueProviders.computeIfAbsent(rightReference.getRight(), k -> context.getFactoryFacade().createValueProvider(context, right));
+        return leftReference.getRight().compareTo(rightReference.getRight()) < 0
+                ? Pair.of(leftReference.getRight(), rightReference.getRight())
+                : Pair.of(rightReference.getRight(), leftReference.getRight());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.core.model.Expression;
+import com.sabre.oss.yare.core.model.Fact;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.core.reference.PlaceholderUtils;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.And;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Helpers analyzing rules' expressions shared by the index builders.
+ */
+final class Expressions {
+
+    private Expressions() {
+    }
+
+    /**
+     * Returns top-level conjuncts of {@code expression}, flattening nested {@code and} operators.
+     */
+    static List<Expression> conjuncts(Expression expression) {
+        Expression.Operator operator = expression.as(Expression.Operator.class);
+        if (operator == null || !And.OPERATOR_NAME.equals(operator.getCall())) {
+            return Collections.singletonList(expression);
+        }
+        List<Expression> conjuncts = new ArrayList<>();
+        for (Expression argument : operator.getArguments()) {
+            conjuncts.addAll(conjuncts(argument));
+        }
+        return conjuncts;
+    }
+
+    /**
+     * Returns type of the fact and the reference {@code expression} refers to, or {@code null} if it isn't
+     * a reference to a fact (or its field) of the {@code rule}.
+     */
+    static Pair<Type, String> factReference(Rule rule, Expression expression) {
+        Expression.Value value = expression.as(Expression.Value.class);
+        String reference = value != null ? PlaceholderUtils.extract(value).orElse(null) : null;
+        if (reference == null || reference.contains("[*]")) {
+            return null;
+        }
+        String identifier = identifier(reference);
+        Fact fact = rule.getAttribute(identifier) == null ? rule.getFact(identifier) : null;
+        return fact != null ? Pair.of(fact.getType(), reference) : null;
+    }
+
+    /**
+     * Returns identifier {@code reference} starts with.
+     */
+    static String identifier(String reference) {
+        int dotIndex = reference.indexOf('.');
+        return dotIndex > -1 ? reference.substring(0, dotIndex) : reference;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.core.EngineController;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+
+import java.util.*;
+
+/**
+ * Iterates over fact tuples of the cross product of fact instances which satisfy {@link EquiJoins}.
+ * <p>
+ * Tuples are generated in the order of {@link com.sabre.oss.yare.engine.executor.DefaultRulesExecutor}
+ * cross product (the fact of the lowest index changes the fastest) and written to the same array on each
+ * {@link #next()} call. A fact joined with a more significant one
+ * gets a hash table of its instances by join key, built once per execution. Its candidate instances are looked up
+ * by the key of the instance currently chosen for the more significant identifier, so the cost is linear in number of
+ * facts and matching tuples instead of the size of the whole cross product.
+ */
+final class HashJoinFactTupleIterator implements Iterator<Object[]> {
+    private static final int[] NONE = new int[0];
+
+    private final int size;
+    private final Object[] tuple;
+    private final int[] factIndexes;
+    private final List<List<Object>> facts = new ArrayList<>();
+    private final int[] partners;
+    private final Object[][] probeKeys;
+    private final List<Map<Object, int[]>> tables = new ArrayList<>();
+    private final int[][] allInstances;
+    private final int[][] candidates;
+    private final int[] positions;
+    private boolean end;
+
+    HashJoinFactTupleIterator(List<List<Object>> groupedFacts, Object[] tuple, List<EquiJoins.Join> joins, ContextLayout layout, Object result,
+                              EngineController engineController) {
+        List<Integer> indexes = new ArrayList<>(groupedFacts.size());
+        for (int i = 0; i < groupedFacts.size(); i++) {
+            List<Object> instances = groupedFacts.get(i);
+            if (instances == null) {
+                continue;
+            }
+            if (instances.isEmpty()) {
+                throw new IllegalArgumentException(String.format("No fact instances at index %d", i));
+            }
+            indexes.add(i);
+            facts.add(instances);
+        }
+        this.size = indexes.size();
+        this.tuple = tuple;
+        this.factIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        this.partners = new int[size];
+        this.probeKeys = new Object[size][];
+        this.allInstances = new int[size][];
+        this.candidates = new int[size][];
+        this.positions = new int[size];
+        for (int d = 0; d < size; d++) {
+            allInstances[d] = new int[facts.get(d).size()];
+            Arrays.setAll(allInstances[d], i -> i);
+        }
+        Object[] keyTuple = new Object[groupedFacts.size()];
+        PredicateContext context = new PredicateContext(layout, result, keyTuple, engineController);
+        for (int d = 0; d < size; d++) {
+            partners[d] = -1;
+            tables.add(null);
+            for (int p = d + 1; p < size && partners[d] < 0; p++) {
+                for (EquiJoins.Join join : joins) {
+                    if (factIndexes[d] == join.leftIndex && factIndexes[p] == join.rightIndex) {
+                        plan(d, join.leftKey, p, join.rightKey, keyTuple, context);
+                        break;
+                    }
+                    if (factIndexes[d] == join.rightIndex && factIndexes[p] == join.leftIndex) {
+                        plan(d, join.rightKey, p, join.leftKey, keyTuple, context);
+                        break;
+                    }
+                }
+            }
+        }
+        end = size == 0 || !advance(size - 1, false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !end;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("No next value!");
+        }
+        for (int d = 0; d < size; d++) {
+            tuple[factIndexes[d]] = facts.get(d).get(candidates[d][positions[d]]);
+        }
+        end = !advance(0, true);
+        return tuple;
+    }
+
+    private void plan(int digit, ValueProvider key, int partner, ValueProvider partnerKey, Object[] keyTuple, PredicateContext context) {
+        partners[digit] = partner;
+        Map<Object, List<Integer>> table = new HashMap<>();
+        List<Object> instances = facts.get(digit);
+        for (int i = 0; i < instances.size(); i++) {
+            Object value = keyOf(key, keyTuple, factIndexes[digit], instances.get(i), context);
+            if (value != null) {
+                table.computeIfAbsent(value, k -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<Object, int[]> indexes = new HashMap<>(table.size() * 2);
+        for (Map.Entry<Object, List<Integer>> entry : table.entrySet()) {
+            indexes.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        tables.set(digit, indexes);
+        List<Object> partnerInstances = facts.get(partner);
+        probeKeys[digit] = new Object[partnerInstances.size()];
+        for (int i = 0; i < partnerInstances.size(); i++) {
+            probeKeys[digit][i] = keyOf(partnerKey, keyTuple, factIndexes[partner], partnerInstances.get(i), context);
+        }
+    }
+
+    private static Object keyOf(ValueProvider key, Object[] keyTuple, int factIndex, Object fact, PredicateContext context) {
+        keyTuple[factIndex] = fact;
+        context.nextTuple();
+        Object value = key.get(context);
+        keyTuple[factIndex] = null;
+        return value;
+    }
+
+    /**
+     * Moves to the next tuple, optionally incrementing {@code digit} first, and refilling candidates of all
+     * the less significant digits.
+     *
+     * @return {@code false} if there are no more tuples
+     */
+    private boolean advance(int digit, boolean increment) {
+        int d = digit;
+        boolean incrementing = increment;
+        while (true) {
+            if (incrementing) {
+                while (d < size && ++positions[d] >= candidates[d].length) {
+                    d++;
+                }
+                if (d == size) {
+                    return false;
+                }
+                d--;
+            }
+            while (d >= 0) {
+                candidates[d] = candidates(d);
+                positions[d] = 0;
+                if (candidates[d].length == 0) {
+                    break;
+                }
+                d--;
+            }
+            if (d < 0) {
+                return true;
+            }
+            d++;
+            incrementing = true;
+        }
+    }
+
+    private int[] candidates(int digit) {
+        int partner = partners[digit];
+        if (partner < 0) {
+            return allInstances[digit];
+        }
+        Object key = probeKeys[digit][candidates[partner][positions[partner]]];
+        return key != null ? tables.get(digit).getOrDefault(key, NONE) : NONE;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * {@link RangeDiscriminator} selects rules by binary search of the value over sorted boundaries
+ * of ranges rules restrict it to.
+ * <p>
+ * Distinct boundaries {@code b[0] < ... < b[m-1]} split the domain into {@code 2m + 1} slots,
+ * even ones being open intervals between boundaries and odd ones the boundaries themselves.
+ * Each slot holds rules whose range covers it, so a lookup costs {@code O(log m + k)}.
+ * Values of a type other than the boundaries' one are not comparable in a consistent way,
+ * so all indexed rules are selected for them and left to their predicates.
+ */
+public final class RangeDiscriminator extends Discriminator {
+    @SuppressWarnings("unchecked")
+    static final Comparator<Object> NATURAL_ORDER = (left, right) -> ((Comparable<Object>) left).compareTo(right);
+    static final Comparator<Object> INSTANT_ORDER = Comparator.comparing(value -> ((ZonedDateTime) value).toInstant());
+
+    private final Class<?> boundType;
+    private final Comparator<Object> comparator;
+    private final Object[] boundaries;
+    private final int[][] rulesBySlot;
+    private final BitSet rules;
+
+    private RangeDiscriminator(ValueProvider valueProvider, Class<?> boundType, Comparator<Object> comparator,
+                               Object[] boundaries, int[][] rulesBySlot, BitSet rules) {
+        super(valueProvider);
+        this.boundType = boundType;
+        this.comparator = comparator;
+        this.boundaries = boundaries;
+        this.rulesBySlot = rulesBySlot;
+        this.rules = rules;
+    }
+
+    @Override
+    protected void collect(Object value, BitSet candidates) {
+        if (value.getClass() != boundType) {
+            candidates.or(rules);
+            return;
+        }
+        int index = Arrays.binarySearch(boundaries, value, comparator);
+        for (int rule : rulesBySlot[index >= 0 ? 2 * index + 1 : -2 * (index + 1)]) {
+            candidates.set(rule);
+        }
+    }
+
+    static final class Builder {
+        private final Class<?> boundType;
+        private final Comparator<Object> comparator;
+        private final List<Range> ranges = new ArrayList<>();
+
+        Builder(Class<?> boundType, Comparator<Object> comparator) {
+            this.boundType = boundType;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Registers rule restricting value to the given range. {@code null} bound means unbounded side.
+         */
+        Builder add(int ruleIndex, Object lower, boolean lowerInclusive, Object upper, boolean upperInclusive) {
+            ranges.add(new Range(ruleIndex, lower, lowerInclusive, upper, upperInclusive));
+            return this;
+        }
+
+        RangeDiscriminator build(ValueProvider valueProvider) {
+            Set<Object> sorted = new TreeSet<>(comparator);
+            for (Range range : ranges) {
+                if (range.lower != null) {
+                    sorted.add(range.lower);
+                }
+                if (range.upper != null) {
+                    sorted.add(range.upper);
+                }
+            }
+            Object[] boundaries = sorted.toArray();
+            int lastSlot = 2 * boundaries.length;
+            int[] sizes = new int[lastSlot + 1];
+            for (Range range : ranges) {
+                range.first = range.lower == null ? 0 : 2 * Arrays.binarySearch(boundaries, range.lower, comparator) + (range.lowerInclusive ? 1 : 2);
+                range.last = range.upper == null ? lastSlot : 2 * Arrays.binarySearch(boundaries, range.upper, comparator) + (range.upperInclusive ? 1 : 0);
+                for (int slot = range.first; slot <= range.last; slot++) {
+                    sizes[slot]++;
+                }
+            }
+            int[][] rulesBySlot = new int[lastSlot + 1][];
+            for (int slot = 0; slot <= lastSlot; slot++) {
+                rulesBySlot[slot] = new int[sizes[slot]];
+                sizes[slot] = 0;
+            }
+            BitSet rules = new BitSet();
+            for (Range range : ranges) {
+                rules.set(range.ruleIndex);
+                for (int slot = range.first; slot <= range.last; slot++) {
+                    rulesBySlot[slot][sizes[slot]++] = range.ruleIndex;
+                }
+            }
+            return new RangeDiscriminator(valueProvider, boundType, comparator, boundaries, rulesBySlot, rules);
+        }
+    }
+
+    private static final class Range {
+        private final int ruleIndex;
+        private final Object lower;
+        private final boolean lowerInclusive;
+        private final Object upper;
+        private final boolean upperInclusive;
+        private int first;
+        private int last;
+
+        private Range(int ruleIndex, Object lower, boolean lowerInclusive, Object upper, boolean upperInclusive) {
+            this.ruleIndex = ruleIndex;
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+    }
+}
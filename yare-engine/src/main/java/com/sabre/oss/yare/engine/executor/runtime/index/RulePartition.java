@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import java.util.BitSet;
+
+/**
+ * {@link RulePartition} is a group of rules evaluated against the same fact tuples, i.e. cross product of facts
+ * kept by the partition's {@link AlphaFilter}, restricted by its {@link EquiJoins}.
+ */
+public final class RulePartition {
+    private final BitSet rules;
+    private final AlphaFilter alphaFilter;
+    private final EquiJoins equiJoins;
+
+    RulePartition(BitSet rules, AlphaFilter alphaFilter, EquiJoins equiJoins) {
+        this.rules = rules;
+        this.alphaFilter = alphaFilter;
+        this.equiJoins = equiJoins;
+    }
+
+    /**
+     * Returns indexes of rules of this partition.
+     *
+     * @return rules (indexes of {@link com.sabre.oss.yare.engine.executor.RuntimeRules#getExecutableRules()}),
+     * or {@code null} if partition consists of all rules
+     */
+    public BitSet getRules() {
+        return rules;
+    }
+
+    public AlphaFilter getAlphaFilter() {
+        return alphaFilter;
+    }
+
+    public EquiJoins getEquiJoins() {
+        return equiJoins;
+    }
+}
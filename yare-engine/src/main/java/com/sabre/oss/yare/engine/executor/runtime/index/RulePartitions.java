@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link RulePartitions} splits rules into {@link RulePartition}s, so facts are filtered and joined by conditions
+ * of rules evaluated against them, instead of conditions shared by all rules only.
+ */
+public final class RulePartitions {
+    private static final RulePartitions NONE = new RulePartitions(Collections.singletonList(
+            new RulePartition(null, AlphaFilter.none(), EquiJoins.none())));
+
+    private final List<RulePartition> partitions;
+
+    RulePartitions(List<RulePartition> partitions) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * Returns partitions which neither filter nor join facts.
+     *
+     * @return single partition of all rules
+     */
+    public static RulePartitions none() {
+        return NONE;
+    }
+
+    /**
+     * Returns disjoint partitions covering all rules, ordered by indexes of their first rules.
+     *
+     * @return partitions
+     */
+    public List<RulePartition> getPartitions() {
+        return partitions;
+    }
+}
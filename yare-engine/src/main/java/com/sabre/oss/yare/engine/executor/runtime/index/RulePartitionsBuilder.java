@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactoryContext;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.*;
+
+/**
+ * Builds {@link RulePartitions} grouping rules having alpha conditions (see {@link AlphaFilterBuilder}) for the same
+ * facts and the same joins (see {@link EquiJoinsBuilder}). Rules without alpha conditions for a fact are evaluated
+ * against all its instances, and rules without joins against cross product of facts.
+ */
+public final class RulePartitionsBuilder {
+    private final AlphaFilterBuilder alphaFilterBuilder = new AlphaFilterBuilder();
+    private final EquiJoinsBuilder equiJoinsBuilder = new EquiJoinsBuilder();
+    private final Map<Pair<Set<String>, Set<Pair<String, String>>>, BitSet> partitions = new LinkedHashMap<>();
+    private int rulesCount;
+
+    /**
+     * Registers rule described by {@code context}. Rules have to be registered in order of their indexes.
+     *
+     * @param context factory context of the rule
+     * @return this rulePartitionsBuilder instance
+     */
+    public RulePartitionsBuilder add(PredicateFactoryContext context) {
+        alphaFilterBuilder.add(context);
+        equiJoinsBuilder.add(context);
+        partitions.computeIfAbsent(Pair.of(alphaFilterBuilder.getFilteredFacts(rulesCount), equiJoinsBuilder.getJoins(rulesCount)),
+                k -> new BitSet()).set(rulesCount);
+        rulesCount++;
+        return this;
+    }
+
+    public RulePartitions build() {
+        if (partitions.size() <= 1) {
+            return new RulePartitions(Collections.singletonList(new RulePartition(null, alphaFilterBuilder.build(), equiJoinsBuilder.build())));
+        }
+        List<RulePartition> result = new ArrayList<>(partitions.size());
+        for (BitSet rules : partitions.values()) {
+            result.add(new RulePartition(rules, alphaFilterBuilder.build(rules), equiJoinsBuilder.build(rules)));
+        }
+        return new RulePartitions(result);
+    }
+}
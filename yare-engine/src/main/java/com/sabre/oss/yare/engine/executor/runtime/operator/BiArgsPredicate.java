@@ -53,6 +53,14 @@ public abstract class BiArgsPredicate extends Predicate {
         return evaluate(left, right);
     }
 
+    public ValueProvider getLeftOperandProvider() {
+        return lOperandProvider;
+    }
+
+    public ValueProvider getRightOperandProvider() {
+        return rOperandProvider;
+    }
+
     protected abstract boolean applicable(Object left, Object right);
 
     protected abstract Boolean evaluate(Object left, Object right);
@@ -47,5 +47,9 @@ public abstract class UniArgPredicate extends Predicate {
         return evaluate(operand);
     }
 
+    public ValueProvider getOperandProvider() {
+        return operandProvider;
+    }
+
     protected abstract Boolean evaluate(Object operand);
 }
@@ -56,6 +56,10 @@ public class Not extends Predicate {
         this.predicate = Objects.requireNonNull(predicate);
     }
 
+    public Predicate getPredicate() {
+        return predicate;
+    }
+
     @Override
     public Boolean evaluate(PredicateContext ctx) {
         Boolean result = predicate.evaluate(ctx);
@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.predicate;
+
+import com.sabre.oss.yare.core.model.Rule;
+
+import java.util.*;
+
+/**
+ * {@link ContextLayout} assigns {@link PredicateContext} slots to identifiers known when rules are built,
+ * so value providers read referenced objects by index instead of resolving identifiers by name.
+ * <p>
+ * Slots {@code [0, 3)} hold reserved identifiers ({@code ctx}, {@code ruleName}, {@code engineController}),
+ * followed by slots of fact identifiers (bound once per fact tuple). Slots of attribute names (bound per rule) start
+ * at {@link #ATTRIBUTE_SLOTS}, so adding facts doesn't move them (see {@link #extend(Collection, Collection)}).
+ */
+public final class ContextLayout {
+    public static final int UNRESOLVED = -1;
+    public static final int CTX_SLOT = 0;
+    public static final int RULE_NAME_SLOT = 1;
+    public static final int ENGINE_CONTROLLER_SLOT = 2;
+    static final int RESERVED_SLOTS = 3;
+    static final int ATTRIBUTE_SLOTS = 1 << 20;
+
+    public static final ContextLayout EMPTY = new ContextLayout(Collections.emptyList(), Collections.emptyList());
+
+    private final String[] factIdentifiers;
+    private final String[] attributeNames;
+    private final Map<String, Integer> factSlots;
+    private final Map<String, Integer> attributeSlots;
+
+    public ContextLayout(Collection<String> factIdentifiers, Collection<String> attributeNames) {
+        this.factIdentifiers = new LinkedHashSet<>(factIdentifiers).toArray(new String[0]);
+        this.attributeNames = new LinkedHashSet<>(attributeNames).toArray(new String[0]);
+        this.factSlots = new HashMap<>();
+        for (int i = 0; i < this.factIdentifiers.length; i++) {
+            factSlots.put(this.factIdentifiers[i], RESERVED_SLOTS + i);
+        }
+        this.attributeSlots = new HashMap<>();
+        for (int i = 0; i < this.attributeNames.length; i++) {
+            attributeSlots.put(this.attributeNames[i], ATTRIBUTE_SLOTS + i);
+        }
+    }
+
+    /**
+     * Lays out {@code factIdentifiers} and {@code attributeNames} keeping slots assigned by this layout, so components
+     * built for this layout remain valid. Identifiers no longer used keep their slots as well, unless they outnumber
+     * used ones, in which case a new layout is returned.
+     *
+     * @param factIdentifiers fact identifiers
+     * @param attributeNames  attribute names
+     * @return layout keeping slots of this one (see {@link #keepsSlotsOf(ContextLayout)}) or a new layout
+     */
+    public ContextLayout extend(Collection<String> factIdentifiers, Collection<String> attributeNames) {
+        Set<String> facts = new LinkedHashSet<>(factIdentifiers);
+        Set<String> attributes = new LinkedHashSet<>(attributeNames);
+        long unused = Arrays.stream(this.factIdentifiers).filter(identifier -> !facts.contains(identifier)).count()
+                + Arrays.stream(this.attributeNames).filter(name -> !attributes.contains(name)).count();
+        if (unused > facts.size() + attributes.size()) {
+            return new ContextLayout(facts, attributes);
+        }
+        Set<String> extendedFacts = new LinkedHashSet<>(Arrays.asList(this.factIdentifiers));
+        Set<String> extendedAttributes = new LinkedHashSet<>(Arrays.asList(this.attributeNames));
+        extendedFacts.addAll(facts);
+        extendedAttributes.addAll(attributes);
+        return extendedFacts.size() == this.factIdentifiers.length && extendedAttributes.size() == this.attributeNames.length
+                ? this
+                : new ContextLayout(extendedFacts, extendedAttributes);
+    }
+
+    /**
+     * Checks whether identifiers laid out by {@code layout} have the same slots in this layout.
+     *
+     * @param layout layout
+     * @return {@code true} if this layout keeps slots of {@code layout}
+     */
+    public boolean keepsSlotsOf(ContextLayout layout) {
+        return isPrefix(layout.factIdentifiers, factIdentifiers) && isPrefix(layout.attributeNames, attributeNames);
+    }
+
+    /**
+     * Resolves slot of {@code identifier} referenced by {@code rule} following {@link PredicateContext#resolve(String)}
+     * precedence: reserved identifiers, rule's attributes and then facts.
+     *
+     * @param rule       rule referencing identifier
+     * @param identifier identifier
+     * @return slot or {@link #UNRESOLVED} when identifier has to be resolved by name
+     */
+    public int getSlot(Rule rule, String identifier) {
+        switch (identifier) {
+            case PredicateContext.CTX:
+                return CTX_SLOT;
+            case PredicateContext.RULE_NAME:
+                return RULE_NAME_SLOT;
+            case PredicateContext.ENGINE_CONTROLLER:
+                return ENGINE_CONTROLLER_SLOT;
+            default:
+                if (rule.getAttribute(identifier) != null) {
+                    return attributeSlots.getOrDefault(identifier, UNRESOLVED);
+                }
+                return rule.getFact(identifier) != null ? getFactSlot(identifier) : UNRESOLVED;
+        }
+    }
+
+    /**
+     * Returns slot of fact identified by {@code identifier}.
+     *
+     * @param identifier fact identifier
+     * @return slot or {@link #UNRESOLVED} when identifier is not known
+     */
+    public int getFactSlot(String identifier) {
+        return factSlots.getOrDefault(identifier, UNRESOLVED);
+    }
+
+    /**
+     * Returns index of fact identified by {@code identifier} in fact values viewed by {@link PredicateContext}.
+     *
+     * @param identifier fact identifier
+     * @return index or {@code -1} when identifier is not known
+     */
+    public int getFactIndex(String identifier) {
+        Integer slot = factSlots.get(identifier);
+        return slot != null ? slot - RESERVED_SLOTS : -1;
+    }
+
+    /**
+     * Returns number of facts laid out.
+     *
+     * @return number of fact identifiers
+     */
+    public int getFactCount() {
+        return factIdentifiers.length;
+    }
+
+    /**
+     * Lays out rule's attributes, so they can be bound to {@link PredicateContext} at once.
+     *
+     * @param attributes rule's attributes
+     * @return attributes' values ordered by their slots
+     */
+    public Object[] layOutAttributes(Map<String, Object> attributes) {
+        Object[] values = new Object[attributeNames.length];
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            Integer slot = attributeSlots.get(attribute.getKey());
+            if (slot != null) {
+                values[slot - ATTRIBUTE_SLOTS] = attribute.getValue();
+            }
+        }
+        return values;
+    }
+
+    Object[] layOutFacts(Map<String, Object> facts) {
+        Object[] values = new Object[factIdentifiers.length];
+        for (int i = 0; i < factIdentifiers.length; i++) {
+            values[i] = facts.get(factIdentifiers[i]);
+        }
+        return values;
+    }
+
+    private static boolean isPrefix(String[] prefix, String[] identifiers) {
+        return prefix.length <= identifiers.length && Arrays.equals(prefix, Arrays.copyOf(identifiers, prefix.length));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ContextLayout that = (ContextLayout) o;
+        return Arrays.equals(factIdentifiers, that.factIdentifiers) &&
+                Arrays.equals(attributeNames, that.attributeNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(factIdentifiers) + Arrays.hashCode(attributeNames);
+    }
+}
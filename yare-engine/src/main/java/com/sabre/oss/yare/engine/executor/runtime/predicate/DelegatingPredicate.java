@@ -0,0 +1,49 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.predicate;
+
+/**
+ * Predicate decorating evaluation of another one, which can be replaced (e.g. with compiled counterpart)
+ * while decoration is kept.
+ */
+public abstract class DelegatingPredicate extends Predicate {
+    protected final Predicate delegate;
+
+    protected DelegatingPredicate(Predicate delegate) {
+        this.delegate = delegate;
+    }
+
+    public Predicate getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Creates predicate decorating {@code delegate} the same way this one decorates its delegate.
+     *
+     * @param delegate predicate to decorate
+     * @return decorating predicate
+     */
+    public abstract DelegatingPredicate withDelegate(Predicate delegate);
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.predicate;
+
+import java.util.function.Function;
+
+/**
+ * Memo table of results of functions called while evaluating rules against a single {@link PredicateContext}.
+ * <p>
+ * Results are keyed by function name and identities of arguments, so arguments aren't compared with
+ * {@link Object#equals(Object)} nor hashed by value. Memo isn't thread safe, as context is confined to a thread.
+ */
+public final class FunctionResultMemo {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Entry[] table = new Entry[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns result of {@code call} with {@code args}, computing it with {@code compute} when it is called
+     * with these instances of arguments for the first time.
+     *
+     * @param call    function name
+     * @param args    arguments
+     * @param compute function computing result
+     * @param <T>     type of result
+     * @return result of call
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String call, Object[] args, Function<Object[], T> compute) {
+        int hash = hash(call, args);
+        for (Entry entry = table[hash & (table.length - 1)]; entry != null; entry = entry.next) {
+            if (entry.hash == hash && entry.matches(call, args)) {
+                return (T) entry.result;
+            }
+        }
+        T result = compute.apply(args);
+        put(new Entry(hash, call, args, result));
+        return result;
+    }
+
+    /**
+     * Returns result of {@code call} with {@code args} recorded before.
+     *
+     * @param call function name
+     * @param args arguments
+     * @return result of call or {@code null} if it isn't recorded
+     */
+    public Object find(String call, Object[] args) {
+        int hash = hash(call, args);
+        for (Entry entry = table[hash & (table.length - 1)]; entry != null; entry = entry.next) {
+            if (entry.hash == hash && entry.matches(call, args)) {
+                return entry.result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records {@code result} of {@code call} with {@code args}.
+     *
+     * @param call   function name
+     * @param args   arguments
+     * @param result result of call
+     */
+    public void put(String call, Object[] args, Object result) {
+        put(new Entry(hash(call, args), call, args, result));
+    }
+
+    private void put(Entry entry) {
+        if (++size > table.length * 3 / 4) {
+            resize();
+        }
+        int index = entry.hash & (table.length - 1);
+        entry.next = table[index];
+        table[index] = entry;
+    }
+
+    private void resize() {
+        Entry[] resized = new Entry[table.length * 2];
+        for (Entry head : table) {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                int index = entry.hash & (resized.length - 1);
+                entry.next = resized[index];
+                resized[index] = entry;
+                entry = next;
+            }
+        }
+        table = resized;
+    }
+
+    private static int hash(String call, Object[] args) {
+        int hash = call.hashCode();
+        for (Object arg : args) {
+            hash = 31 * hash + System.identityHashCode(arg);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final String call;
+        private final Object[] args;
+        private final Object result;
+        private Entry next;
+
+        private Entry(int hash, String call, Object[] args, Object result) {
+            this.hash = hash;
+            this.call = call;
+            this.args = args.clone();
+            this.result = result;
+        }
+
+        private boolean matches(String otherCall, Object[] otherArgs) {
+            if (args.length != otherArgs.length || !call.equals(otherCall)) {
+                return false;
+            }
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] != otherArgs[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
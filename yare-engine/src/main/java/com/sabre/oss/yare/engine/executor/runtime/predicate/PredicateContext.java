@@ -27,41 +27,202 @@ package com.sabre.oss.yare.engine.executor.runtime.predicate;
 import com.sabre.oss.yare.core.EngineController;
 import com.sabre.oss.yare.core.call.ProcessingContext;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Predicate evaluation context.
+ * <p>
+ * Context is bound to subsequently evaluated rules with {@link #bind} and may view fact tuple refilled
+ * with subsequent tuples, hence it must not be retained past rule evaluation - use {@link #copy()} instead.
  */
 public class PredicateContext implements ProcessingContext {
     static final String CTX = "ctx";
     static final String RULE_NAME = "ruleName";
     static final String ENGINE_CONTROLLER = "engineController";
+    private static final Object[] NO_VALUES = new Object[0];
 
-    private final String ruleId;
-    private final Object result;
+    private final ContextLayout layout;
     private final Map<String, Object> facts;
-    private final Map<String, Object> attributes;
-    private final EngineController engineController;
-    private final Map<String, Object> reservedIdentifiers;
+    private Object result;
+    private Object[] factValues;
+    private EngineController engineController;
+    private String ruleId;
+    private Map<String, Object> attributes;
+    private Object[] attributeValues;
+    private Collection<CompletionStage<?>> pendingActions;
+    private FunctionResultMemo functionResultMemo;
+    private boolean suspendable;
+    private FunctionResultMemo awaitedFunctionResults;
 
     // Do not pass merged maps due to performance implications.
     public PredicateContext(String ruleId, Object result, Map<String, Object> facts, Map<String, Object> attributes, EngineController engineController) {
-        this.ruleId = ruleId;
+        this(ContextLayout.EMPTY, result, facts, engineController);
+        bind(ruleId, attributes, NO_VALUES);
+    }
+
+    /**
+     * Creates context of fact tuple described by {@code facts} laid out according to {@code layout}.
+     * Context has to be bound to a rule before evaluation.
+     *
+     * @param layout           layout of rules evaluated against context
+     * @param result           result object
+     * @param facts            fact tuple
+     * @param engineController engine controller
+     */
+    public PredicateContext(ContextLayout layout, Object result, Map<String, Object> facts, EngineController engineController) {
+        this(layout, result, facts, layout.layOutFacts(facts), engineController);
+        bind(null, Collections.emptyMap(), NO_VALUES);
+    }
+
+    /**
+     * Creates context viewing fact tuple stored in {@code factValues} at indexes given by
+     * {@link ContextLayout#getFactIndex(String)}. The array isn't copied, so it can be refilled with subsequent
+     * fact tuples while context is reused. Context has to be bound to a rule before evaluation.
+     *
+     * @param layout           layout of rules evaluated against context
+     * @param result           result object
+     * @param factValues       fact tuple, possibly followed by values not assigned to any fact identifier
+     * @param engineController engine controller
+     */
+    public PredicateContext(ContextLayout layout, Object result, Object[] factValues, EngineController engineController) {
+        this(layout, result, null, factValues, engineController);
+        bind(null, Collections.emptyMap(), NO_VALUES);
+    }
+
+    private PredicateContext(ContextLayout layout, Object result, Map<String, Object> facts, Object[] factValues, EngineController engineController) {
+        this.layout = layout;
         this.result = result;
         this.facts = facts;
+        this.factValues = factValues;
+        this.engineController = engineController;
+    }
+
+    /**
+     * Binds context to rule identified by {@code ruleId}.
+     *
+     * @param ruleId          rule identifier
+     * @param attributes      rule's attributes
+     * @param attributeValues rule's attributes laid out with {@link ContextLayout#layOutAttributes(Map)}
+     * @return this predicateContext instance
+     */
+    public PredicateContext bind(String ruleId, Map<String, Object> attributes, Object[] attributeValues) {
+        this.ruleId = ruleId;
         this.attributes = attributes;
+        this.attributeValues = attributeValues;
+        return this;
+    }
+
+    /**
+     * Rebinds context to fact tuple of another execution of the same rules, so the context can be reused by subsequent
+     * executions, like the one created with {@link #PredicateContext(ContextLayout, Object, Object[], EngineController)}.
+     * Context has to be bound to a rule before evaluation.
+     *
+     * @param result           result object
+     * @param factValues       fact tuple, possibly followed by values not assigned to any fact identifier
+     * @param engineController engine controller
+     * @return this predicateContext instance
+     */
+    public PredicateContext rebind(Object result, Object[] factValues, EngineController engineController) {
+        this.result = result;
+        this.factValues = factValues;
         this.engineController = engineController;
-        this.reservedIdentifiers = createResolveIdentifiers();
+        nextTuple();
+        return bind(null, Collections.emptyMap(), NO_VALUES);
+    }
+
+    /**
+     * Makes context (and its copies) collect stages registered with {@link #registerPendingAction(CompletionStage)}
+     * into {@code pendingActions}.
+     *
+     * @param pendingActions collection of pending actions, or {@code null} if they shouldn't be tracked
+     * @return this predicateContext instance
+     */
+    public PredicateContext trackPendingActions(Collection<CompletionStage<?>> pendingActions) {
+        this.pendingActions = pendingActions;
+        return this;
+    }
+
+    @Override
+    public void registerPendingAction(CompletionStage<?> stage) {
+        if (pendingActions != null) {
+            pendingActions.add(stage);
+        }
     }
 
-    private Map<String, Object> createResolveIdentifiers() {
-        Map<String, Object> reservedIdentifiers = new HashMap<>();
-        reservedIdentifiers.put(CTX, result);
-        reservedIdentifiers.put(RULE_NAME, ruleId);
-        reservedIdentifiers.put(ENGINE_CONTROLLER, engineController);
+    /**
+     * Returns memo of results of functions called with this context, which lasts as long as its fact tuple,
+     * see {@link #nextTuple()} and {@link #forgetFunctionResults()}. Copies of context have memos of their own.
+     *
+     * @return function result memo
+     */
+    public FunctionResultMemo getFunctionResultMemo() {
+        if (functionResultMemo == null) {
+            functionResultMemo = new FunctionResultMemo();
+        }
+        return functionResultMemo;
+    }
+
+    /**
+     * Makes evaluation against this context (but not against its copies) suspend once asynchronous function
+     * returns stage which is not completed yet, instead of awaiting the stage, see {@link #suspend(String, Object[], CompletionStage)}.
+     *
+     * @return this predicateContext instance
+     */
+    public PredicateContext suspendOnPendingFunctions() {
+        this.suspendable = true;
+        return this;
+    }
+
+    public boolean isSuspendable() {
+        return suspendable;
+    }
+
+    /**
+     * Records stage returned by asynchronous function {@code call} with {@code args} and creates exception suspending
+     * evaluation of the current fact tuple. Evaluation resumed once the stage completes gets the stage from
+     * {@link #getAwaitedFunctionResult(String, Object[])}, so the function isn't called again.
+     *
+     * @param call  function name
+     * @param args  arguments
+     * @param stage stage returned by function
+     * @return exception to be thrown
+     */
+    public PendingFunctionException suspend(String call, Object[] args, CompletionStage<?> stage) {
+        if (awaitedFunctionResults == null) {
+            awaitedFunctionResults = new FunctionResultMemo();
+        }
+        awaitedFunctionResults.put(call, args, stage);
+        return new PendingFunctionException(stage);
+    }
 
-        return reservedIdentifiers;
+    /**
+     * Returns stage awaited by suspended evaluation of the current fact tuple.
+     *
+     * @param call function name
+     * @param args arguments
+     * @return stage or {@code null} if evaluation hasn't been suspended by {@code call} with {@code args}
+     */
+    public CompletionStage<?> getAwaitedFunctionResult(String call, Object[] args) {
+        return awaitedFunctionResults != null ? (CompletionStage<?>) awaitedFunctionResults.find(call, args) : null;
+    }
+
+    /**
+     * Forgets results of functions called with this context, e.g. once facts may have been modified by actions.
+     */
+    public void forgetFunctionResults() {
+        functionResultMemo = null;
+    }
+
+    /**
+     * Notifies context that its fact tuple has been refilled with the next tuple, so results of functions
+     * called with the previous tuple are forgotten.
+     */
+    public void nextTuple() {
+        functionResultMemo = null;
+        awaitedFunctionResults = null;
     }
 
     @Override
@@ -74,18 +235,68 @@ public class PredicateContext implements ProcessingContext {
         return result;
     }
 
+    /**
+     * Returns value of the {@code slot} assigned by {@link ContextLayout}.
+     *
+     * @param slot slot
+     * @return slot's value
+     */
+    public Object get(int slot) {
+        switch (slot) {
+            case ContextLayout.CTX_SLOT:
+                return result;
+            case ContextLayout.RULE_NAME_SLOT:
+                return ruleId;
+            case ContextLayout.ENGINE_CONTROLLER_SLOT:
+                return engineController;
+            default:
+                return slot < ContextLayout.ATTRIBUTE_SLOTS
+                        ? factValues[slot - ContextLayout.RESERVED_SLOTS]
+                        : attributeValues[slot - ContextLayout.ATTRIBUTE_SLOTS];
+        }
+    }
+
     @Override
     public Object resolve(String identifier) {
-        return reservedIdentifiers.getOrDefault(identifier, attributes.getOrDefault(identifier, facts.get(identifier)));
+        switch (identifier) {
+            case CTX:
+                return result;
+            case RULE_NAME:
+                return ruleId;
+            case ENGINE_CONTROLLER:
+                return engineController;
+            default:
+                return resolve(identifier, null);
+        }
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> T resolve(String identifier, T defaultValue) {
-        return (T) attributes.getOrDefault(identifier, facts.getOrDefault(identifier, defaultValue));
+        Object attribute = attributes.get(identifier);
+        if (attribute != null || attributes.containsKey(identifier)) {
+            return (T) attribute;
+        }
+        if (facts != null) {
+            return (T) facts.getOrDefault(identifier, defaultValue);
+        }
+        int index = layout.getFactIndex(identifier);
+        Object fact = index >= 0 ? factValues[index] : null;
+        return fact != null ? (T) fact : defaultValue;
+    }
+
+    /**
+     * Creates copy of this context, which can be retained, as it doesn't share fact tuple with this context.
+     *
+     * @return copy of context
+     */
+    public PredicateContext copy() {
+        return new PredicateContext(layout, result, facts, factValues.clone(), engineController)
+                .bind(ruleId, attributes, attributeValues)
+                .trackPendingActions(pendingActions);
     }
 
     public PredicateContext copy(String ruleId) {
-        return new PredicateContext(ruleId, result, facts, attributes, engineController);
+        return copy().bind(ruleId, attributes, attributeValues);
     }
 }
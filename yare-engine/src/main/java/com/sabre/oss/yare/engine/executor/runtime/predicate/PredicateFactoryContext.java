@@ -31,6 +31,7 @@ import com.sabre.oss.yare.engine.executor.RuntimeRulesBuilder;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * {@link PredicateFactoryContext} using for storing current creation state.
@@ -39,10 +40,30 @@ public class PredicateFactoryContext {
     private final Rule rule;
     private final Deque<Expression> stack = new ArrayDeque<>(32);
     private final RuntimeRulesBuilder factoryFacade;
+    private final ContextLayout layout;
+    private final RuleComponents components;
 
     public PredicateFactoryContext(Rule rule, RuntimeRulesBuilder factoryFacade) {
+        this(rule, factoryFacade, ContextLayout.EMPTY);
+    }
+
+    public PredicateFactoryContext(Rule rule, RuntimeRulesBuilder factoryFacade, ContextLayout layout) {
+        this(rule, factoryFacade, layout, null);
+    }
+
+    /**
+     * Creates context memoizing components created of rule's expressions in {@code components}.
+     *
+     * @param rule          rule
+     * @param factoryFacade factory facade
+     * @param layout        context layout
+     * @param components    components of the rule, or {@code null} if components shouldn't be memoized
+     */
+    public PredicateFactoryContext(Rule rule, RuntimeRulesBuilder factoryFacade, ContextLayout layout, RuleComponents components) {
         this.rule = Objects.requireNonNull(rule);
         this.factoryFacade = factoryFacade;
+        this.layout = Objects.requireNonNull(layout);
+        this.components = components;
     }
 
     public Rule getRule() {
@@ -56,4 +77,22 @@ public class PredicateFactoryContext {
     public RuntimeRulesBuilder getFactoryFacade() {
         return factoryFacade;
     }
+
+    public ContextLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns component of {@code type} created of {@code expression} with {@code factory}, memoized
+     * if context has {@link RuleComponents}.
+     *
+     * @param type       type of component
+     * @param expression expression
+     * @param factory    factory of component
+     * @param <T>        type of component
+     * @return component
+     */
+    public <T> T getComponent(Class<T> type, Expression expression, Supplier<T> factory) {
+        return components != null ? components.get(type, expression, factory) : factory.get();
+    }
 }
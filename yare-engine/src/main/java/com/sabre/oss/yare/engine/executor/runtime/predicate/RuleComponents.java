@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.predicate;
+
+import com.sabre.oss.yare.core.model.Expression;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Memo table of components (predicates, value providers) created of expressions of a single rule.
+ * <p>
+ * Components are keyed by their type and expressions compared with {@link Object#equals(Object)}, so they can be
+ * shared by builds of equal rules, as long as layouts of these builds keep slots of the layout components
+ * were created for (see {@link ContextLayout#keepsSlotsOf(ContextLayout)}).
+ */
+public final class RuleComponents {
+    private final Map<Pair<Class<?>, Expression>, Object> components = new ConcurrentHashMap<>();
+
+    /**
+     * Returns component of {@code type} created of {@code expression}, creating it with {@code factory}
+     * when it is requested for the first time.
+     *
+     * @param type       type of component
+     * @param expression expression
+     * @param factory    factory of component
+     * @param <T>        type of component
+     * @return component
+     */
+    <T> T get(Class<T> type, Expression expression, Supplier<T> factory) {
+        Pair<Class<?>, Expression> key = Pair.of(type, expression);
+        Object component = components.get(key);
+        if (component == null) {
+            // not computed atomically, since factory may request components of nested expressions
+            component = factory.get();
+            Object previous = components.putIfAbsent(key, component);
+            if (previous != null) {
+                component = previous;
+            }
+        }
+        return type.cast(component);
+    }
+}
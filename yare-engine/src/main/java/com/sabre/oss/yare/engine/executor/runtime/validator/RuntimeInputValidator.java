@@ -25,9 +25,11 @@
 package com.sabre.oss.yare.engine.executor.runtime.validator;
 
 import com.sabre.oss.yare.core.model.Fact;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -41,18 +43,61 @@ public final class RuntimeInputValidator extends Predicate {
 
     private final Predicate delegate;
     private final Set<String> requiredFactIdentifiers;
+    private final int[] requiredFactSlots;
 
-    private RuntimeInputValidator(Predicate delegate, List<Fact> requiredFacts) {
+    private RuntimeInputValidator(Predicate delegate, List<Fact> requiredFacts, ContextLayout layout) {
         this.delegate = Objects.requireNonNull(delegate);
         this.requiredFactIdentifiers = requiredFacts.stream().map(Fact::getIdentifier).collect(Collectors.toSet());
+        int[] slots = requiredFactIdentifiers.stream().mapToInt(layout::getFactSlot).toArray();
+        this.requiredFactSlots = Arrays.stream(slots).allMatch(slot -> slot != ContextLayout.UNRESOLVED) ? slots : null;
+    }
+
+    private RuntimeInputValidator(Predicate delegate, Set<String> requiredFactIdentifiers, int[] requiredFactSlots) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.requiredFactIdentifiers = requiredFactIdentifiers;
+        this.requiredFactSlots = requiredFactSlots;
     }
 
     public static Predicate of(List<Fact> requiredFacts, Predicate delegate) {
-        return new RuntimeInputValidator(delegate, requiredFacts);
+        return of(requiredFacts, delegate, ContextLayout.EMPTY);
+    }
+
+    /**
+     * Creates validator checking facts' presence by slots assigned by {@code layout}, if all of them are known.
+     *
+     * @param requiredFacts facts required by rule
+     * @param delegate      validated predicate
+     * @param layout        layout of evaluated contexts
+     * @return validating predicate
+     */
+    public static Predicate of(List<Fact> requiredFacts, Predicate delegate, ContextLayout layout) {
+        return new RuntimeInputValidator(delegate, requiredFacts, layout);
+    }
+
+    public Predicate getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Creates validator requiring the same facts, but delegating to {@code delegate}.
+     *
+     * @param delegate validated predicate
+     * @return validating predicate
+     */
+    public RuntimeInputValidator withDelegate(Predicate delegate) {
+        return new RuntimeInputValidator(delegate, requiredFactIdentifiers, requiredFactSlots);
     }
 
     @Override
     public Boolean evaluate(PredicateContext context) {
+        if (requiredFactSlots != null) {
+            for (int slot : requiredFactSlots) {
+                if (context.get(slot) == null) {
+                    return Boolean.FALSE;
+                }
+            }
+            return delegate.evaluate(context);
+        }
         for (String identifier : requiredFactIdentifiers) {
             if (NOT_DEFINED.equals(context.resolve(identifier, NOT_DEFINED))) {
                 return Boolean.FALSE;
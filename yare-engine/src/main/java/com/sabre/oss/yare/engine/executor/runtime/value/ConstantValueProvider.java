@@ -42,6 +42,10 @@ public final class ConstantValueProvider extends ValueProvider {
         return value;
     }
 
+    public Object getValue() {
+        return value;
+    }
+
     @Override
     public Type getType() {
         return type;
@@ -24,35 +24,82 @@
 
 package com.sabre.oss.yare.engine.executor.runtime.value;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
 import javassist.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 import static com.sabre.oss.yare.engine.executor.runtime.value.TypeUtils.getRawType;
 import static com.sabre.oss.yare.engine.executor.runtime.value.TypeUtils.isCollection;
 
+/**
+ * Generates {@link ValueProvider}s referring to paths of properties of given types.
+ * <p>
+ * Providers are cached as long as they are in use (i.e. referred by loaded rules). Lookups don't lock, while each
+ * missing provider is generated once. Provider classes are defined in a class loader of their own shared by classes
+ * generated for types of the same class loader, until {@link #releaseUnused()} is called, so they can be unloaded once
+ * their rules are evicted - unless they refer to non-public types, which makes them defined along with the referred
+ * type in its class loader.
+ */
 public abstract class FieldReferringClassFactory {
     private static final Logger log = LoggerFactory.getLogger(FieldReferringClassFactory.class);
-    private static final Map<String, ValueProvider> valueProviders = new HashMap<>();
+    private static final Cache<ProviderKey, ValueProvider> valueProviders = CacheBuilder.newBuilder().weakValues().build();
     private static final ClassPool classPool = createClassPool();
+    // guarded by classPool
+    private static final Map<ClassLoader, GeneratedClassLoader> generatedClassLoaders = new HashMap<>();
 
     private FieldReferringClassFactory() {
     }
 
-    public static synchronized ValueProvider create(Class<?> targetClass, String identifier, String propertyName) {
-        String key = nameForType(targetClass, propertyName) + '$' + identifier;
-        return valueProviders.computeIfAbsent(key, k -> createFieldReferringInstance(targetClass, identifier, propertyName));
+    public static ValueProvider create(Class<?> targetClass, String identifier, String propertyName) {
+        return create(targetClass, identifier, ContextLayout.UNRESOLVED, propertyName);
+    }
+
+    public static ValueProvider create(Class<?> targetClass, String identifier, int slot, String propertyName) {
+        ProviderKey key = new ProviderKey(targetClass, propertyName, identifier, slot);
+        ValueProvider valueProvider = valueProviders.getIfPresent(key);
+        if (valueProvider != null) {
+            return valueProvider;
+        }
+        try {
+            return valueProviders.get(key, () -> createFieldReferringInstance(targetClass, identifier, slot, propertyName));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Drops cached providers which are no longer in use, and makes classes of providers generated from now on defined
+     * in new class loaders, so class loaders of classes generated so far can be unloaded along with the last provider
+     * referring to them.
+     */
+    public static void releaseUnused() {
+        synchronized (classPool) {
+            generatedClassLoaders.clear();
+        }
+        valueProviders.cleanUp();
     }
 
-    private static ValueProvider createFieldReferringInstance(Class<?> targetClass, String identifier, String propertyName) {
+    private static ValueProvider createFieldReferringInstance(Class<?> targetClass, String identifier, int slot, String propertyName) {
         String className = nameForType(targetClass, propertyName);
         Class<?> fieldReferringClass = createClass(targetClass, className, propertyName);
-        return createInstance(fieldReferringClass, identifier);
+        return createInstance(fieldReferringClass, identifier, slot);
     }
 
     private static String nameForType(Class<?> clazz, String propertyName) {
@@ -60,17 +107,84 @@ public abstract class FieldReferringClassFactory {
     }
 
     private static Class<?> createClass(Class<?> targetClass, String className, String path) {
-        Class<?> fieldReferringClass;
-        try {
-            fieldReferringClass = Class.forName(className);
-        } catch (ClassNotFoundException e) {
+        List<ReferMetadata> referMetadata = resolveReferMetadata(targetClass, path.replaceAll("!", ""));
+        boolean unloadable = isUnloadable(targetClass, referMetadata);
+        // class pool isn't thread safe, and a class can be defined in a class loader once only
+        synchronized (classPool) {
+            ClassLoader classLoader = unloadable
+                    ? generatedClassLoaders.computeIfAbsent(targetClass.getClassLoader(), GeneratedClassLoader::new)
+                    : getTargetClassLoader(targetClass);
+            Class<?> fieldReferringClass = findClass(classLoader, className);
+            if (fieldReferringClass != null) {
+                return fieldReferringClass;
+            }
             CtClass ctClass = classPool.makeClass(className);
             setSuperClass(ctClass);
-            createMethods(targetClass, path.replaceAll("!", ""), ctClass);
-            fieldReferringClass = getFieldReferringClass(ctClass);
+            createMethods(targetClass, referMetadata, ctClass);
+            fieldReferringClass = unloadable
+                    ? defineUnloadableClass((GeneratedClassLoader) classLoader, ctClass)
+                    : defineClass(targetClass, classLoader, ctClass);
             log.debug("Created ValueProvider implementation: {}\n", className);
+            return fieldReferringClass;
+        }
+    }
+
+    private static ClassLoader getTargetClassLoader(Class<?> targetClass) {
+        ClassLoader classLoader = targetClass.getClassLoader();
+        return classLoader != null ? classLoader : Thread.currentThread().getContextClassLoader();
+    }
+
+    private static Class<?> findClass(ClassLoader classLoader, String className) {
+        if (classLoader instanceof GeneratedClassLoader) {
+            return ((GeneratedClassLoader) classLoader).findGenerated(className);
+        }
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether generated class can be defined in its own class loader, which requires all the types it refers
+     * to be public (as it's in a different runtime package than them).
+     */
+    private static boolean isUnloadable(Class<?> targetClass, List<ReferMetadata> referMetadata) {
+        if (targetClass.getName().startsWith("java.") || !isPublic(targetClass)) {
+            return false;
+        }
+        for (ReferMetadata metadata : referMetadata) {
+            if (!isPublic(metadata.getRefType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Type type) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            return clazz.isArray() ? isPublic(clazz.getComponentType()) : clazz.isPrimitive() || Modifier.isPublic(clazz.getModifiers());
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            return isPublic(parameterizedType.getRawType()) && Arrays.stream(parameterizedType.getActualTypeArguments()).allMatch(FieldReferringClassFactory::isPublic);
+        }
+        if (type instanceof GenericArrayType) {
+            return isPublic(((GenericArrayType) type).getGenericComponentType());
+        }
+        return false;
+    }
+
+    private static Class<?> defineUnloadableClass(GeneratedClassLoader classLoader, CtClass ctClass) {
+        try {
+            byte[] bytecode = ctClass.toBytecode();
+            return classLoader.define(ctClass.getName(), bytecode);
+        } catch (CannotCompileException | IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            ctClass.detach();
         }
-        return fieldReferringClass;
     }
 
     private static void setSuperClass(CtClass fieldReferringClass) {
@@ -81,8 +195,7 @@ public abstract class FieldReferringClassFactory {
         }
     }
 
-    private static void createMethods(Class<?> targetClass, String path, CtClass ctClass) {
-        List<ReferMetadata> referMetadata = resolveReferMetadata(targetClass, path);
+    private static void createMethods(Class<?> targetClass, List<ReferMetadata> referMetadata, CtClass ctClass) {
         try {
             String getValueMethodBody = createGetValueMethodBody(targetClass, referMetadata);
             CtMethod getValueMethod = CtMethod.make(getValueMethodBody, ctClass);
@@ -110,18 +223,21 @@ public abstract class FieldReferringClassFactory {
     }
 
     private static String createGetValueMethodBody(Class<?> targetClass, List<ReferMetadata> referMetadata) {
+        boolean collecting = referMetadata.isEmpty() || isAnyReferTypeCollection(referMetadata.subList(0, referMetadata.size() - 1));
         return String.format(
                 "public Object get(%s ctx) { \n" +
-                        "%s v0 = (%s) ctx.resolve(identifier); \n" +
+                        "%s v0 = (%s) resolve(ctx); \n" +
                         "if (v0 == null) return null; \n" +
-                        "java.util.List result = new java.util.LinkedList(); \n" +
                         "%s \n" +
-                        "return result; \n" +
+                        "%s \n" +
+                        "%s \n" +
                         "} \n",
                 PredicateContext.class.getCanonicalName(),
                 targetClass.getCanonicalName(),
                 targetClass.getCanonicalName(),
-                createChainingStatements(referMetadata, 0, new ReferringCodeGenerator()));
+                collecting ? "java.util.List result = new java.util.LinkedList();" : "",
+                createChainingStatements(referMetadata, 0, new ReferringCodeGenerator()),
+                collecting ? "return result;" : "return null;");
     }
 
     private static String createGetTypeMethodBody(Class<?> targetClass, List<ReferMetadata> referMetadata) {
@@ -165,20 +281,19 @@ public abstract class FieldReferringClassFactory {
         return false;
     }
 
-    private static Class<?> getFieldReferringClass(CtClass ctClass) {
-        Class<?> fieldReferringClass;
+    private static Class<?> defineClass(Class<?> targetClass, ClassLoader classLoader, CtClass ctClass) {
         try {
-            fieldReferringClass = ctClass.toClass();
+            return ctClass.toClass(classLoader, targetClass.getProtectionDomain());
         } catch (CannotCompileException e) {
             throw new RuntimeException(e);
+        } finally {
+            ctClass.detach();
         }
-        ctClass.detach();
-        return fieldReferringClass;
     }
 
-    private static ValueProvider createInstance(Class<?> fieldReferringClass, String identifier) {
+    private static ValueProvider createInstance(Class<?> fieldReferringClass, String identifier, int slot) {
         try {
-            return (ValueProvider) fieldReferringClass.getConstructor(String.class).newInstance(identifier);
+            return (ValueProvider) fieldReferringClass.getConstructor(String.class, int.class).newInstance(identifier, slot);
         } catch (InstantiationException | InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
@@ -194,12 +309,99 @@ public abstract class FieldReferringClassFactory {
         return index == list.size() - 1;
     }
 
+    /**
+     * Loads classes generated for types of a single class loader, resolving other classes with the class loader
+     * of the referred types first, so same-named types of different class loaders aren't mixed up, and then with
+     * the one of this factory.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+        private final ClassLoader targetClassLoader;
+
+        GeneratedClassLoader(ClassLoader targetClassLoader) {
+            super(FieldReferringClassFactory.class.getClassLoader());
+            this.targetClassLoader = targetClassLoader;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null && targetClassLoader != null) {
+                    try {
+                        loadedClass = targetClassLoader.loadClass(name);
+                    } catch (ClassNotFoundException e) {
+                        // resolved by the class loader of this factory below
+                    }
+                }
+                if (loadedClass == null) {
+                    loadedClass = getParent().loadClass(name);
+                }
+                if (resolve) {
+                    resolveClass(loadedClass);
+                }
+                return loadedClass;
+            }
+        }
+
+        Class<?> findGenerated(String name) {
+            return findLoadedClass(name);
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+
+    private static final class ProviderKey {
+        private final Class<?> targetClass;
+        private final String propertyName;
+        private final String identifier;
+        private final int slot;
+
+        private ProviderKey(Class<?> targetClass, String propertyName, String identifier, int slot) {
+            this.targetClass = targetClass;
+            this.propertyName = propertyName;
+            this.identifier = identifier;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ProviderKey that = (ProviderKey) o;
+            return slot == that.slot &&
+                    targetClass == that.targetClass &&
+                    Objects.equals(propertyName, that.propertyName) &&
+                    Objects.equals(identifier, that.identifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(targetClass, propertyName, identifier, slot);
+        }
+    }
+
     public abstract static class AbstractFieldReferringValueProvider extends ValueProvider {
 
         protected final String identifier;
+        protected final int slot;
 
         public AbstractFieldReferringValueProvider(String identifier) {
+            this(identifier, ContextLayout.UNRESOLVED);
+        }
+
+        public AbstractFieldReferringValueProvider(String identifier, int slot) {
             this.identifier = identifier;
+            this.slot = slot;
+        }
+
+        protected final Object resolve(PredicateContext ctx) {
+            return slot != ContextLayout.UNRESOLVED ? ctx.get(slot) : ctx.resolve(identifier);
         }
     }
 }
@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.value;
+
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.sabre.oss.yare.engine.executor.runtime.value.TypeUtils.getCollectionGeneric;
+import static com.sabre.oss.yare.engine.executor.runtime.value.TypeUtils.getRawType;
+import static com.sabre.oss.yare.engine.executor.runtime.value.TypeUtils.isCollection;
+
+/**
+ * Creates {@link ValueProvider}s walking paths of properties with {@link MethodHandle}s, getters of public types being
+ * bound to functions with {@link LambdaMetafactory}. Properties are resolved as by {@link FieldReferringClassFactory}
+ * (with {@link ReferMetadataProvider}) and providers behave the same way, but no class is compiled,
+ * so providers are cheap to create. Accessors are shared by providers and kept as long as the type they refer to.
+ */
+public final class MethodHandleAccessorFactory {
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType FUNCTION_FACTORY_TYPE = MethodType.methodType(Function.class);
+    private static final ClassValue<Map<String, Function<Object, Object>>> accessorsByType = new ClassValue<Map<String, Function<Object, Object>>>() {
+        @Override
+        protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private MethodHandleAccessorFactory() {
+    }
+
+    public static ValueProvider create(Class<?> targetClass, String identifier, int slot, String path) {
+        List<ReferMetadata> referMetadata = new ArrayList<>();
+        ReferMetadataProvider provider = new ReferMetadataProvider();
+        Type currentType = targetClass;
+        for (String pathPart : path.replaceAll("!", "").split("\\.")) {
+            ReferMetadata metadata = provider.createReferMetadata(currentType, pathPart);
+            referMetadata.add(metadata);
+            currentType = metadata.getRefType();
+        }
+        int steps = referMetadata.size();
+        @SuppressWarnings("unchecked")
+        Function<Object, Object>[] accessors = (Function<Object, Object>[]) new Function<?, ?>[steps];
+        boolean[] collections = new boolean[steps];
+        Type ownerType = targetClass;
+        for (int i = 0; i < steps; i++) {
+            ReferMetadata metadata = referMetadata.get(i);
+            Class<?> owner = getRawType(isCollection(ownerType) ? getCollectionGeneric(ownerType) : ownerType);
+            accessors[i] = accessorsByType.get(owner).computeIfAbsent(metadata.getRef(), ref -> createAccessor(owner, metadata));
+            collections[i] = isCollection(metadata.getRefType());
+            ownerType = metadata.getRefType();
+        }
+        int firstCollection = -1;
+        for (int i = 0; i < steps - 1 && firstCollection < 0; i++) {
+            firstCollection = collections[i] ? i : -1;
+        }
+        boolean flattenLast = collections[steps - 1] && referMetadata.get(steps - 1).getPathPart().contains("[*]");
+        Type type = firstCollection >= 0 ? List.class : getRawType(referMetadata.get(steps - 1).getRefType());
+        return new MethodHandleValueProvider(identifier, slot, accessors, collections, firstCollection, flattenLast, type);
+    }
+
+    private static Function<Object, Object> createAccessor(Class<?> owner, ReferMetadata metadata) {
+        String ref = metadata.getRef();
+        if (Map.class.isAssignableFrom(owner)) {
+            String key = ref.substring("get(\"".length(), ref.length() - "\")".length());
+            return map -> ((Map<?, ?>) map).get(key);
+        }
+        try {
+            if (ref.endsWith("()")) {
+                Method getter = owner.getMethod(ref.substring(0, ref.length() - "()".length()));
+                return isLinkable(owner) && isLinkable(getter.getDeclaringClass())
+                        ? createGetterFunction(owner, getter)
+                        : invoking(MethodHandles.lookup().unreflect(accessible(getter)));
+            }
+            Field field = owner.getField(ref);
+            return invoking(MethodHandles.lookup().unreflectGetter(accessible(field)));
+        } catch (NoSuchMethodException | NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalArgumentException(String.format("Unable to refer to %s of %s", ref, owner), e);
+        }
+    }
+
+    /**
+     * Spins {@link Function} calling {@code getter} directly with {@link LambdaMetafactory}, so getter can be inlined
+     * like in generated classes.
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetterFunction(Class<?> owner, Method getter) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getterHandle = lookup.unreflect(getter);
+        MethodType getterType = MethodType.methodType(getterHandle.type().wrap().returnType(), owner);
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", FUNCTION_FACTORY_TYPE, ACCESSOR_TYPE, getterHandle, getterType);
+            return (Function<Object, Object>) callSite.getTarget().invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(String.format("Unable to create accessor of %s", getter), e);
+        }
+    }
+
+    private static Function<Object, Object> invoking(MethodHandle handle) {
+        MethodHandle accessor = handle.asType(ACCESSOR_TYPE);
+        return owner -> {
+            try {
+                return accessor.invokeExact(owner);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * Lambdas are defined by the class loader of this factory, hence they can call public methods of public types
+     * visible to that class loader only.
+     */
+    private static boolean isLinkable(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, MethodHandleAccessorFactory.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Public members of non-public types are accessible from generated classes of the same package,
+     * hence they are made accessible for method handles too.
+     */
+    private static <T extends AccessibleObject> T accessible(T member) {
+        member.setAccessible(true);
+        return member;
+    }
+
+    private static final class MethodHandleValueProvider extends FieldReferringClassFactory.AbstractFieldReferringValueProvider {
+        private final Function<Object, Object>[] accessors;
+        private final boolean[] collections;
+        private final int firstCollection;
+        private final boolean flattenLast;
+        private final Type type;
+
+        MethodHandleValueProvider(String identifier, int slot, Function<Object, Object>[] accessors, boolean[] collections,
+                                  int firstCollection, boolean flattenLast, Type type) {
+            super(identifier, slot);
+            this.accessors = accessors;
+            this.collections = collections;
+            this.firstCollection = firstCollection;
+            this.flattenLast = flattenLast;
+            this.type = type;
+        }
+
+        @Override
+        public Object get(PredicateContext context) {
+            Object value = resolve(context);
+            int chained = firstCollection < 0 ? accessors.length : firstCollection + 1;
+            for (int i = 0; i < chained && value != null; i++) {
+                value = accessors[i].apply(value);
+            }
+            if (firstCollection < 0 || value == null) {
+                return value;
+            }
+            List<Object> result = new ArrayList<>();
+            collectElements((Collection<?>) value, firstCollection + 1, result);
+            return result;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Collects values of properties of non-null {@code elements} at {@code step} and subsequent ones,
+         * skipping elements with {@code null} properties on the way.
+         */
+        private void collectElements(Collection<?> elements, int step, List<Object> result) {
+            for (Object element : elements) {
+                if (element != null) {
+                    collect(element, step, result);
+                }
+            }
+        }
+
+        private void collect(Object owner, int step, List<Object> result) {
+            Object value = accessors[step].apply(owner);
+            if (step == accessors.length - 1) {
+                if (flattenLast) {
+                    if (value != null) {
+                        result.addAll((Collection<?>) value);
+                    }
+                } else {
+                    result.add(value);
+                }
+            } else if (value != null) {
+                if (collections[step]) {
+                    collectElements((Collection<?>) value, step + 1, result);
+                } else {
+                    collect(value, step + 1, result);
+                }
+            }
+        }
+    }
+}
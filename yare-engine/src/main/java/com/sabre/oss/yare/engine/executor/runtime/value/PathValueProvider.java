@@ -28,50 +28,50 @@ import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import static java.util.Arrays.stream;
 import static org.apache.commons.lang3.Validate.notEmpty;
 
 public class PathValueProvider extends ValueProvider {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
     private final Pattern splitPattern = Pattern.compile("\\.");
 
     private final String reference;
     private final String path;
-    private final MethodHandle[] handles;
+    private final MethodHandle getter;
 
     public PathValueProvider(Class<?> type, String reference, String path) {
         this.reference = notEmpty(reference);
         this.path = notEmpty(path);
-        this.handles = resolveMethodHandles(type, path);
+        this.getter = resolveGetter(type, path);
     }
 
     @Override
     public Object get(PredicateContext context) {
         Object result = context.resolve(reference);
         try {
-            for (MethodHandle handle : handles) {
-                result = handle.bindTo(result).invoke();
-            }
+            return getter.invokeExact(result);
         } catch (Throwable throwable) {
             throw new IllegalStateException(String.format("Can't evaluate path '%s.%s'", reference, path), throwable);
         }
-        return result;
     }
 
-    private MethodHandle[] resolveMethodHandles(Class<?> type, String path) {
-        String[] parts = splitPattern.split(path);
-        List<MethodHandle> handles = new ArrayList<>(parts.length);
+    /**
+     * Composes getters of subsequent path parts into single {@code (Object)Object} handle.
+     */
+    private MethodHandle resolveGetter(Class<?> type, String path) {
+        MethodHandle getter = MethodHandles.identity(Object.class);
         Type currType = type;
-        for (String part : parts) {
-            handles.add(resolveMethod(currType, part));
+        for (String part : splitPattern.split(path)) {
+            getter = MethodHandles.filterReturnValue(getter, resolveMethod(currType, part).asType(GETTER_TYPE));
             currType = resolveType(currType, part);
         }
-        return handles.toArray(new MethodHandle[handles.size()]);
+        return getter;
     }
 
     private MethodHandle resolveMethod(Type type, String part) {
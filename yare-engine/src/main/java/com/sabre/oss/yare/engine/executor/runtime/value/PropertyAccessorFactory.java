@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.value;
+
+/**
+ * {@link PropertyAccessorFactory} creates {@link ValueProvider}s referring to paths of properties
+ * (public fields, getters and map entries, with {@code [*]} flattening collections) of facts and other references.
+ * <p>
+ * Value returned by provider is {@code null} when any of properties on the path is {@code null}, apart from
+ * properties of collection elements, which are skipped then.
+ */
+@FunctionalInterface
+public interface PropertyAccessorFactory {
+    /**
+     * Generates provider classes with Javassist, see {@link FieldReferringClassFactory}.
+     */
+    PropertyAccessorFactory JAVASSIST = FieldReferringClassFactory::create;
+
+    /**
+     * Composes providers of method handles, which doesn't involve class generation, see {@link MethodHandleAccessorFactory}.
+     */
+    PropertyAccessorFactory METHOD_HANDLES = MethodHandleAccessorFactory::create;
+
+    /**
+     * Creates provider of property referred by {@code path} of {@code identifier} value.
+     *
+     * @param targetClass type of {@code identifier} value
+     * @param identifier  identifier of referred value
+     * @param slot        slot of referred value assigned by {@link com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout}
+     * @param path        dot separated path of property
+     * @return value provider
+     */
+    ValueProvider create(Class<?> targetClass, String identifier, int slot, String path);
+}
@@ -24,18 +24,33 @@
 
 package com.sabre.oss.yare.engine.executor.runtime.value;
 
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
 
 public final class ReferenceValueProvider extends ValueProvider {
 
     private final String reference;
+    private final int slot;
 
     public ReferenceValueProvider(String reference) {
+        this(reference, ContextLayout.UNRESOLVED);
+    }
+
+    public ReferenceValueProvider(String reference, int slot) {
         this.reference = reference;
+        this.slot = slot;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public int getSlot() {
+        return slot;
     }
 
     @Override
     public Object get(PredicateContext context) {
-        return context.resolve(reference);
+        return slot != ContextLayout.UNRESOLVED ? context.get(slot) : context.resolve(reference);
     }
 }
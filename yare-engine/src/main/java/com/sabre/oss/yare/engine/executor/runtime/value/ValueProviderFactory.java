@@ -26,6 +26,7 @@ package com.sabre.oss.yare.engine.executor.runtime.value;
 
 import com.sabre.oss.yare.core.call.ProcessingContext;
 import com.sabre.oss.yare.core.invocation.Invocation;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
 
 import java.lang.reflect.Type;
 import java.util.List;
@@ -52,7 +53,16 @@ public final class ValueProviderFactory {
     }
 
     public static ValueProvider createFromPath(Class<?> referenceType, String reference, Class<?> type, String path) {
-        return path == null ? new ReferenceValueProvider(reference) : FieldReferringClassFactory.create(referenceType, reference, path);
+        return createFromPath(referenceType, reference, ContextLayout.UNRESOLVED, type, path);
+    }
+
+    public static ValueProvider createFromPath(Class<?> referenceType, String reference, int slot, Class<?> type, String path) {
+        return createFromPath(referenceType, reference, slot, type, path, PropertyAccessorFactory.JAVASSIST);
+    }
+
+    public static ValueProvider createFromPath(Class<?> referenceType, String reference, int slot, Class<?> type, String path,
+                                               PropertyAccessorFactory propertyAccessorFactory) {
+        return path == null ? new ReferenceValueProvider(reference, slot) : propertyAccessorFactory.create(referenceType, reference, slot, path);
     }
 
     public static ValueProvider createFromMapKey(String reference, String key) {
@@ -30,5 +30,12 @@ public enum DefaultEngineFeature implements Feature {
     /**
      * Feature disabling cache for functions' results.
      */
-    DISABLE_CACHE_FUNCTION_RESULT
+    DISABLE_CACHE_FUNCTION_RESULT,
+
+    /**
+     * Feature enabling memoization of function's results within evaluation of a single fact tuple. Function is invoked
+     * once per tuple for the same instances of arguments, whichever rules call it, so it has to be deterministic.
+     * In sequential mode results are forgotten after each fired action, as actions may modify facts.
+     */
+    MEMOIZE_FUNCTION_RESULT
 }
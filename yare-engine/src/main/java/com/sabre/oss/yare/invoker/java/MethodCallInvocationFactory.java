@@ -30,6 +30,7 @@ import org.apache.commons.lang3.ClassUtils;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -93,14 +94,23 @@ public class MethodCallInvocationFactory implements InvocationFactory {
         return Stream.of(parameterTypes).map(Class::getTypeName).collect(Collectors.joining(", "));
     }
 
+    /**
+     * Invokes method with handle adapted once to take spread arguments array and return {@link Object},
+     * so calls are exact and don't adapt (nor allocate) handles.
+     */
     static final class MethodBasedInvocation<R> extends ProcessingInvocation<R> {
+        private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
         private final MethodHandle methodHandle;
 
         private MethodBasedInvocation(Argument.Invocation invocation, ArgumentValueResolver argumentValueResolver, Object target, Method method) {
             super(invocation, argumentValueResolver);
             try {
-                MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
-                this.methodHandle = target != null ? methodHandle.bindTo(target) : methodHandle;
+                MethodHandle methodHandle = MethodHandles.lookup().unreflect(method).asFixedArity();
+                MethodHandle boundHandle = target != null ? methodHandle.bindTo(target) : methodHandle;
+                this.methodHandle = boundHandle
+                        .asSpreader(Object[].class, boundHandle.type().parameterCount())
+                        .asType(INVOKER_TYPE);
             } catch (RuntimeException | Error e) {
                 throw e;
             } catch (Exception e) {
@@ -112,7 +122,7 @@ public class MethodCallInvocationFactory implements InvocationFactory {
         @SuppressWarnings("unchecked")
         public R call(ProcessingContext processingContext, Object[] args) {
             try {
-                return (R) methodHandle.invokeWithArguments(args);
+                return (R) methodHandle.invokeExact(args);
             } catch (RuntimeException | Error e) {
                 throw e;
             } catch (Throwable e) {
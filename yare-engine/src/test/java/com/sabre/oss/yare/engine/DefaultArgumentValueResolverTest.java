@@ -28,8 +28,11 @@ import com.sabre.oss.yare.core.call.Argument;
 import com.sabre.oss.yare.core.call.Argument.Reference;
 import com.sabre.oss.yare.core.call.Argument.Value;
 import com.sabre.oss.yare.core.call.Argument.Values;
+import com.sabre.oss.yare.core.call.ArgumentValueResolver;
+import com.sabre.oss.yare.core.call.ProcessingContext;
 import com.sabre.oss.yare.core.call.ProcessingInvocationFactory;
 import com.sabre.oss.yare.core.call.VariableResolver;
+import com.sabre.oss.yare.core.invocation.Invocation;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -41,8 +44,7 @@ import java.util.List;
 
 import static com.sabre.oss.yare.core.call.Argument.UNKNOWN;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class DefaultArgumentValueResolverTest {
     private ProcessingInvocationFactory<Object> functionProcessingInvocationFactory;
@@ -92,6 +94,44 @@ public class DefaultArgumentValueResolverTest {
         assertThat(resultValueBRef).isEqualTo("valueB");
     }
 
+    @Test
+    void shouldResolvePreparedReferenceArgument() {
+        // given
+        Reference reference = Argument.referenceOf("myProperty", MyProperty.class, UNKNOWN, "myProperty.nested.value");
+        VariableResolver first = mock(PredicateContext.class);
+        when(first.resolve("myProperty")).thenReturn(new MyProperty("directValue", new MyProperty("firstValue")));
+        VariableResolver second = mock(PredicateContext.class);
+        when(second.resolve("myProperty")).thenReturn(new MyProperty("directValue", new MyProperty("secondValue")));
+
+        // when
+        ArgumentValueResolver.PreparedArgument preparedArgument = defaultArgumentValueResolver.prepare(reference);
+
+        // then
+        assertThat(preparedArgument.resolve(first)).isEqualTo("firstValue");
+        assertThat(preparedArgument.resolve(second)).isEqualTo("secondValue");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreateInvocationOfPreparedInvocationArgumentOnce() {
+        // given
+        Argument.Invocation invocation = Argument.invocationOf("myFunction", String.class, "myFunction", Collections.emptyList());
+        Invocation<ProcessingContext, Object> function = mock(Invocation.class);
+        when(functionProcessingInvocationFactory.create(invocation)).thenReturn(function);
+        PredicateContext context = mock(PredicateContext.class);
+        when(function.proceed(context)).thenReturn("result");
+
+        // when
+        ArgumentValueResolver.PreparedArgument preparedArgument = defaultArgumentValueResolver.prepare(invocation);
+        Object firstResult = preparedArgument.resolve(context);
+        Object secondResult = preparedArgument.resolve(context);
+
+        // then
+        assertThat(firstResult).isEqualTo("result");
+        assertThat(secondResult).isEqualTo("result");
+        verify(functionProcessingInvocationFactory, times(1)).create(invocation);
+    }
+
     @Nested
     class ValuesResolving {
 
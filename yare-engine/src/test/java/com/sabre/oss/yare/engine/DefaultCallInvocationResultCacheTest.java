@@ -24,11 +24,15 @@
 
 package com.sabre.oss.yare.engine;
 
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.sabre.oss.yare.engine.executor.ExecutorConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.function.Function;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class DefaultCallInvocationResultCacheTest {
     private DefaultCallInvocationResultCache defaultFunctionResultCache;
@@ -98,6 +102,105 @@ class DefaultCallInvocationResultCacheTest {
         assertThat(result).isEqualTo(6);
     }
 
+    @Test
+    void shouldAdmitResultToBoundedCacheWhenRequestedRepeatedly() {
+        //given
+        DefaultCallInvocationResultCache boundedCache = new DefaultCallInvocationResultCache(ExecutorConfiguration.builder()
+                .withFunctionCacheMaximumSize("testFunction", 10)
+                .build());
+        Object[] arguments = {1, 2, 3};
+
+        //when
+        boundedCache.get("testFunction", arguments, this::testFunction);
+        boundedCache.get("testFunction", arguments, this::testFunction);
+        int result = boundedCache.get("testFunction", arguments, this::testFunction);
+
+        //then
+        assertThat(howManyExecutions).isEqualTo(2);
+        assertThat(result).isEqualTo(6);
+        assertThat(boundedCache.getStats().get("testFunction"))
+                .extracting(FunctionCacheStats::getHitCount, FunctionCacheStats::getMissCount)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldWrapFailureOfFunctionWhetherResultIsAdmittedOrNot() {
+        //given
+        DefaultCallInvocationResultCache boundedCache = new DefaultCallInvocationResultCache(ExecutorConfiguration.builder()
+                .withFunctionCacheMaximumSize("failingFunction", 10)
+                .build());
+        Object[] arguments = {1, 2, 3};
+        IllegalStateException failure = new IllegalStateException("failure");
+        Function<Object[], Object> failingFunction = args -> {
+            throw failure;
+        };
+
+        //when / then
+        assertThatThrownBy(() -> boundedCache.get("failingFunction", arguments, failingFunction))
+                .isExactlyInstanceOf(UncheckedExecutionException.class)
+                .hasCause(failure);
+        assertThatThrownBy(() -> boundedCache.get("failingFunction", arguments, failingFunction))
+                .isExactlyInstanceOf(UncheckedExecutionException.class)
+                .hasCause(failure);
+    }
+
+    @Test
+    void shouldEvictResultsExceedingMaximumSize() {
+        //given
+        DefaultCallInvocationResultCache boundedCache = new DefaultCallInvocationResultCache(ExecutorConfiguration.builder()
+                .withFunctionCacheMaximumSize("testFunction", 1)
+                .build());
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            boundedCache.get("testFunction", new Object[]{i, 0, 0}, this::testFunction);
+            boundedCache.get("testFunction", new Object[]{i, 0, 0}, this::testFunction);
+        }
+
+        //then
+        assertThat(boundedCache.getStats().get("testFunction").getEvictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictResultsExceedingMaximumWeight() {
+        //given
+        DefaultCallInvocationResultCache boundedCache = new DefaultCallInvocationResultCache(ExecutorConfiguration.builder()
+                .withFunctionCacheMaximumWeight("testFunction", 10, (arguments, result) -> (Integer) result)
+                .build());
+        Object[] light = {1, 1, 1};
+        Object[] heavy = {4, 4, 4};
+
+        //when
+        boundedCache.get("testFunction", light, this::testFunction);
+        boundedCache.get("testFunction", light, this::testFunction);
+        boundedCache.get("testFunction", heavy, this::testFunction);
+        boundedCache.get("testFunction", heavy, this::testFunction);
+        boundedCache.get("testFunction", light, this::testFunction);
+
+        //then
+        assertThat(howManyExecutions).isEqualTo(4);
+        assertThat(boundedCache.getStats().get("testFunction"))
+                .extracting(FunctionCacheStats::getHitCount, FunctionCacheStats::getEvictionCount)
+                .containsExactly(1L, 1L);
+    }
+
+    @Test
+    void shouldRecordStatsOfUnboundedCache() {
+        //given
+        Object[] arguments = {1, 2, 3};
+
+        //when
+        defaultFunctionResultCache.get("testFunction", arguments, this::testFunction);
+        defaultFunctionResultCache.get("testFunction", arguments, this::testFunction);
+        defaultFunctionResultCache.get("testFunction", arguments, this::testFunction);
+
+        //then
+        FunctionCacheStats stats = defaultFunctionResultCache.getStats().get("testFunction");
+        assertThat(stats.getHitCount()).isEqualTo(2);
+        assertThat(stats.getMissCount()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(2.0 / 3);
+    }
+
     private Integer testFunction(Object[] args) {
         howManyExecutions++;
         return (Integer) args[0] + (Integer) args[1] + (Integer) args[2];
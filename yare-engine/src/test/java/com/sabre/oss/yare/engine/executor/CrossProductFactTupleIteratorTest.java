@@ -38,9 +38,9 @@ class CrossProductFactTupleIteratorTest {
     @Test
     void shouldProperlyBehaveForNoData() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
+        List<List<Object>> facts = new ArrayList<>();
 
-        DefaultRulesExecutor.CrossProductFactTupleIterator iterator = new DefaultRulesExecutor.CrossProductFactTupleIterator(facts);
+        DefaultRulesExecutor.CrossProductFactTupleIterator iterator = new DefaultRulesExecutor.CrossProductFactTupleIterator(facts, new Object[facts.size()]);
 
         // when
         assertThat(iterator.hasNext()).isFalse();
@@ -49,28 +49,28 @@ class CrossProductFactTupleIteratorTest {
     @Test
     void shouldProperlyBehaveForEmptyGroup() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", Collections.emptyList());
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(Collections.emptyList());
 
         // when / then
-        assertThatThrownBy(() -> new DefaultRulesExecutor.CrossProductFactTupleIterator(facts))
+        assertThatThrownBy(() -> new DefaultRulesExecutor.CrossProductFactTupleIterator(facts, new Object[facts.size()]))
                 .isExactlyInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
     void shouldProperlyIterateThroughSingleFact() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
 
-        DefaultRulesExecutor.CrossProductFactTupleIterator iterator = new DefaultRulesExecutor.CrossProductFactTupleIterator(facts);
+        DefaultRulesExecutor.CrossProductFactTupleIterator iterator = new DefaultRulesExecutor.CrossProductFactTupleIterator(facts, new Object[facts.size()]);
 
         List<String> result = new ArrayList<>();
 
         // when
         while (iterator.hasNext()) {
-            Map<String, Object> item = iterator.next();
-            result.add(format("%s", item.get("a")));
+            Object[] item = iterator.next();
+            result.add(format("%s", item[0]));
         }
 
         // then
@@ -84,20 +84,20 @@ class CrossProductFactTupleIteratorTest {
     @Test
     void shouldProperlyIterateThroughGroupOfFacts() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
-        facts.put("b", asList(new MyFact("B1"), new MyFact("B2")));
-        facts.put("c", asList(new MyFact("C1")));
-        facts.put("d", asList(new MyFact("D1"), new MyFact("D2")));
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
+        facts.add(asList(new MyFact("B1"), new MyFact("B2")));
+        facts.add(asList(new MyFact("C1")));
+        facts.add(asList(new MyFact("D1"), new MyFact("D2")));
 
-        DefaultRulesExecutor.CrossProductFactTupleIterator iterator = new DefaultRulesExecutor.CrossProductFactTupleIterator(facts);
+        DefaultRulesExecutor.CrossProductFactTupleIterator iterator = new DefaultRulesExecutor.CrossProductFactTupleIterator(facts, new Object[facts.size()]);
 
         List<String> result = new ArrayList<>();
 
         // when
         while (iterator.hasNext()) {
-            Map<String, Object> item = iterator.next();
-            result.add(format("%s:%s:%s:%s", item.get("a"), item.get("b"), item.get("c"), item.get("d")));
+            Object[] item = iterator.next();
+            result.add(format("%s:%s:%s:%s", item[0], item[1], item[2], item[3]));
         }
 
         // then
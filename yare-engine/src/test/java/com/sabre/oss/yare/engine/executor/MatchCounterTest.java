@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchCounterTest {
+
+    @Test
+    void shouldStopOnceLimitsOfAllGroupsAreReached() {
+        // given
+        RuntimeRules runtimeRules = createRuntimeRules("fee", "discount", "fee", "discount");
+        MatchCounter matches = MatchCounter.create(MatchLimit.firstMatch().perGroup("group"), runtimeRules);
+
+        // when
+        boolean stoppedAfterFirstGroup = matches.countMatch(0);
+        boolean stoppedAfterSecondGroup = matches.countMatch(1);
+
+        // then
+        assertThat(stoppedAfterFirstGroup).isFalse();
+        assertThat(stoppedAfterSecondGroup).isTrue();
+        assertThat(matches.isExhausted(2)).isTrue();
+        assertThat(matches.isExhausted(3)).isTrue();
+    }
+
+    @Test
+    void shouldNotStopBeforeRulesWithoutGroup() {
+        // given
+        RuntimeRules runtimeRules = createRuntimeRules("fee", "discount", null, "fee");
+        MatchCounter matches = MatchCounter.create(MatchLimit.firstMatch().perGroup("group"), runtimeRules);
+
+        // when
+        matches.countMatch(0);
+        boolean stoppedBeforeUngroupedRule = matches.countMatch(1);
+        boolean stoppedAfterUngroupedRule = matches.countMatch(2);
+
+        // then
+        assertThat(stoppedBeforeUngroupedRule).isFalse();
+        assertThat(stoppedAfterUngroupedRule).isTrue();
+        assertThat(matches.isExhausted(3)).isTrue();
+    }
+
+    @Test
+    void shouldNotStopWhileSomeGroupIsOpen() {
+        // given
+        RuntimeRules runtimeRules = createRuntimeRules("fee", "fee", "discount");
+        MatchCounter matches = MatchCounter.create(MatchLimit.topN(2).perGroup("group"), runtimeRules);
+
+        // when
+        matches.countMatch(0);
+        boolean stoppedAfterFirstGroup = matches.countMatch(1);
+        boolean stoppedAfterOneMatchOfSecondGroup = matches.countMatch(2);
+
+        // then
+        assertThat(stoppedAfterFirstGroup).isFalse();
+        assertThat(stoppedAfterOneMatchOfSecondGroup).isFalse();
+    }
+
+    private static RuntimeRules createRuntimeRules(String... groups) {
+        List<RuntimeRules.ExecutableRule> executableRules = Arrays.stream(groups)
+                .map(group -> {
+                    Map<String, Object> attributes = new HashMap<>();
+                    if (group != null) {
+                        attributes.put("group", group);
+                    }
+                    return RuntimeRules.ExecutableRule.of("rule", attributes, null, null, 0L);
+                })
+                .collect(Collectors.toList());
+        return new RuntimeRules(executableRules, Collections.emptyMap());
+    }
+}
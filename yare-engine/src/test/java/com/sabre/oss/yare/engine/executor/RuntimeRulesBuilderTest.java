@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor;
+
+import com.sabre.oss.yare.core.call.ConsequenceFactory;
+import com.sabre.oss.yare.core.call.FunctionFactory;
+import com.sabre.oss.yare.core.call.ProcessingInvocationFactory;
+import com.sabre.oss.yare.core.model.Expression;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactory;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateFactoryContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RuntimeRulesBuilderTest {
+    private RuntimeRulesBuilder runtimeRulesBuilder;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        runtimeRulesBuilder = new RuntimeRulesBuilder(new DefaultPredicateFactory(),
+                new FunctionFactory(mock(ProcessingInvocationFactory.class)),
+                new ConsequenceFactory(mock(ProcessingInvocationFactory.class)));
+    }
+
+    @Test
+    void shouldReuseRulesUnchangedSincePreviousBuild() {
+        // given
+        RuntimeRules previous = runtimeRulesBuilder.build(Arrays.asList(
+                createRule("unchanged").predicate(value(true)).build(),
+                createRule("modified").predicate(value(true)).build()));
+        List<Rule> rules = Arrays.asList(
+                createRule("unchanged").predicate(value(true)).build(),
+                createRule("modified").predicate(value(false)).build(),
+                createRule("added").predicate(value(true)).build());
+
+        // when
+        RuntimeRules runtimeRules = runtimeRulesBuilder.build(rules, previous);
+
+        // then
+        List<RuntimeRules.ExecutableRule> executableRules = runtimeRules.getExecutableRules();
+        assertThat(executableRules).extracting(RuntimeRules.ExecutableRule::getRuleId)
+                .containsExactly("unchanged", "modified", "added");
+        assertThat(executableRules.get(0)).isSameAs(previous.getExecutableRules().get(0));
+        assertThat(executableRules.get(1)).isNotSameAs(previous.getExecutableRules().get(1));
+        assertThat(runtimeRules.getBuiltRules()).hasSize(3);
+    }
+
+    @Test
+    void shouldReuseRulesWhenContextLayoutIsExtended() {
+        // given
+        Rule rule = createRule("unchanged").predicate(value(true)).build();
+        RuntimeRules previous = runtimeRulesBuilder.build(Collections.singletonList(rule));
+        List<Rule> rules = Arrays.asList(rule, createRule("added")
+                .attribute("group", "fee")
+                .fact("airline", Airline.class)
+                .predicate(value(true))
+                .build());
+
+        // when
+        RuntimeRules runtimeRules = runtimeRulesBuilder.build(rules, previous);
+
+        // then
+        assertThat(runtimeRules.getContextLayout()).isNotEqualTo(previous.getContextLayout());
+        assertThat(runtimeRules.getContextLayout().keepsSlotsOf(previous.getContextLayout())).isTrue();
+        assertThat(runtimeRules.getExecutableRules().get(0)).isSameAs(previous.getExecutableRules().get(0));
+    }
+
+    @Test
+    void shouldRebuildAllRulesWhenContextLayoutIsCompacted() {
+        // given
+        Rule rule = createRule("unchanged").predicate(value(true)).build();
+        RuntimeRules previous = runtimeRulesBuilder.build(Arrays.asList(rule, createRule("removed")
+                .attribute("group", "fee")
+                .attribute("type", "economy")
+                .fact("airline", Airline.class)
+                .predicate(value(true))
+                .build()));
+
+        // when
+        RuntimeRules runtimeRules = runtimeRulesBuilder.build(Collections.singletonList(rule), previous);
+
+        // then
+        assertThat(runtimeRules.getContextLayout().keepsSlotsOf(previous.getContextLayout())).isFalse();
+        assertThat(runtimeRules.getExecutableRules().get(0)).isNotSameAs(previous.getExecutableRules().get(0));
+    }
+
+    @Test
+    void shouldReuseIndexComponentsOfUnchangedRules() {
+        // given
+        Set<Rule> rebuiltRules = new HashSet<>();
+        PredicateFactory predicateFactory = new DefaultPredicateFactory();
+        RuntimeRulesBuilder recordingBuilder = new RuntimeRulesBuilder((context, expression) -> {
+            rebuiltRules.add(context.getRule());
+            return predicateFactory.create(context, expression);
+        }, new FunctionFactory(mock(ProcessingInvocationFactory.class)), new ConsequenceFactory(mock(ProcessingInvocationFactory.class)));
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rules.add(createIndexedRule("rule-" + i, "F" + i));
+        }
+        RuntimeRules previous = recordingBuilder.build(rules);
+        Rule modifiedRule = createIndexedRule("rule-500", "modified");
+        rules.set(500, modifiedRule);
+        rebuiltRules.clear();
+
+        // when
+        RuntimeRules runtimeRules = recordingBuilder.build(rules, previous);
+
+        // then
+        assertThat(rebuiltRules).containsExactly(modifiedRule);
+        Rule unchangedRule = rules.get(0);
+        Expression.Operator conjunction = (Expression.Operator) unchangedRule.getPredicate();
+        Expression equality = conjunction.getArguments().get(0);
+        Expression join = conjunction.getArguments().get(1);
+        Expression reference = ((Expression.Operator) equality).getArguments().get(0);
+        PredicateFactoryContext previousContext = new PredicateFactoryContext(unchangedRule, recordingBuilder,
+                previous.getContextLayout(), previous.getIndexComponents().get(unchangedRule));
+        PredicateFactoryContext context = new PredicateFactoryContext(unchangedRule, recordingBuilder,
+                runtimeRules.getContextLayout(), runtimeRules.getIndexComponents().get(unchangedRule));
+        assertThat(recordingBuilder.createPredicate(context, equality)).isSameAs(recordingBuilder.createPredicate(previousContext, equality));
+        assertThat(recordingBuilder.createPredicate(context, join)).isSameAs(recordingBuilder.createPredicate(previousContext, join));
+        assertThat(recordingBuilder.createValueProvider(context, reference)).isSameAs(recordingBuilder.createValueProvider(previousContext, reference));
+    }
+
+    private static Rule createIndexedRule(String name, String number) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .fact("flight", Flight.class)
+                .fact("airline", Airline.class)
+                .predicate(and(
+                        equal(value("${flight.number}"), value(number)),
+                        equal(value("${flight.airline}"), value("${airline.code}"))))
+                .action("collect", param("context", value("${ctx}")))
+                .build();
+    }
+
+    private static RuleDsl.RuleBuilder createRule(String name) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .fact("flight", Object.class)
+                .action("collect", param("context", value("${ctx}")));
+    }
+
+    public static class Flight {
+        private String number;
+        private String airline;
+
+        public String getNumber() {
+            return number;
+        }
+
+        public String getAirline() {
+            return airline;
+        }
+    }
+
+    public static class Airline {
+        private String code;
+
+        public String getCode() {
+            return code;
+        }
+    }
+}
@@ -38,9 +38,9 @@ class SingleInstanceFactTupleIteratorTest {
     @Test
     void shouldProperlyBehaveForNoData() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
+        List<List<Object>> facts = new ArrayList<>();
 
-        DefaultRulesExecutor.SingleInstanceFactTupleIterator iterator = new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts);
+        DefaultRulesExecutor.SingleInstanceFactTupleIterator iterator = new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts, new Object[facts.size()]);
 
         // when
         assertThat(iterator.hasNext()).isFalse();
@@ -49,28 +49,28 @@ class SingleInstanceFactTupleIteratorTest {
     @Test
     void shouldProperlyBehaveForEmptyGroup() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", Collections.emptyList());
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(Collections.emptyList());
 
         // when / then
-        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts))
+        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts, new Object[facts.size()]))
                 .isExactlyInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
     void shouldProperlyIterateThroughSingleFact() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
 
-        DefaultRulesExecutor.SingleInstanceFactTupleIterator iterator = new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts);
+        DefaultRulesExecutor.SingleInstanceFactTupleIterator iterator = new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts, new Object[facts.size()]);
 
         List<String> result = new ArrayList<>();
 
         // when
         while (iterator.hasNext()) {
-            Map<String, Object> item = iterator.next();
-            result.add(format("%s", item.get("a")));
+            Object[] item = iterator.next();
+            result.add(format("%s", item[0]));
         }
 
         // then
@@ -82,20 +82,20 @@ class SingleInstanceFactTupleIteratorTest {
     @Test
     void shouldProperlyIterateThroughGroupOfFacts() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
-        facts.put("b", asList(new MyFact("B1"), new MyFact("B2")));
-        facts.put("c", Collections.singletonList(new MyFact("C1")));
-        facts.put("d", asList(new MyFact("D1"), new MyFact("D2")));
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
+        facts.add(asList(new MyFact("B1"), new MyFact("B2")));
+        facts.add(Collections.singletonList(new MyFact("C1")));
+        facts.add(asList(new MyFact("D1"), new MyFact("D2")));
 
-        DefaultRulesExecutor.SingleInstanceFactTupleIterator iterator = new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts);
+        DefaultRulesExecutor.SingleInstanceFactTupleIterator iterator = new DefaultRulesExecutor.SingleInstanceFactTupleIterator(facts, new Object[facts.size()]);
 
         List<String> result = new ArrayList<>();
 
         // when
         while (iterator.hasNext()) {
-            Map<String, Object> item = iterator.next();
-            result.add(format("%s:%s:%s:%s", item.get("a"), item.get("b"), item.get("c"), item.get("d")));
+            Object[] item = iterator.next();
+            result.add(format("%s:%s:%s:%s", item[0], item[1], item[2], item[3]));
         }
 
         // then
@@ -38,38 +38,38 @@ class SingleTypeFactTupleIteratorTest {
     @Test
     void shouldProperlyBehaveForNoData() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
+        List<List<Object>> facts = new ArrayList<>();
 
         //when /then
-        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts))
+        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts, new Object[facts.size()]))
                 .isExactlyInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
     void shouldProperlyBehaveForEmptyGroup() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", Collections.emptyList());
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(Collections.emptyList());
 
         // when / then
-        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts))
+        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts, new Object[facts.size()]))
                 .isExactlyInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
     void shouldProperlyIterateThroughSingleFact() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
 
-        DefaultRulesExecutor.SingleTypeFactTupleIterator iterator = new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts);
+        DefaultRulesExecutor.SingleTypeFactTupleIterator iterator = new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts, new Object[facts.size()]);
 
         List<String> result = new ArrayList<>();
 
         // when
         while (iterator.hasNext()) {
-            Map<String, Object> item = iterator.next();
-            result.add(format("%s", item.get("a")));
+            Object[] item = iterator.next();
+            result.add(format("%s", item[0]));
         }
 
         // then
@@ -83,14 +83,14 @@ class SingleTypeFactTupleIteratorTest {
     @Test
     void shouldProperlyIterateThroughGroupOfFacts() {
         // given
-        Map<String, List<Object>> facts = new HashMap<>();
-        facts.put("a", asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
-        facts.put("b", asList(new MyFact("B1"), new MyFact("B2")));
-        facts.put("c", asList(new MyFact("C1")));
-        facts.put("d", asList(new MyFact("D1"), new MyFact("D2")));
+        List<List<Object>> facts = new ArrayList<>();
+        facts.add(asList(new MyFact("A1"), new MyFact("A2"), new MyFact("A3")));
+        facts.add(asList(new MyFact("B1"), new MyFact("B2")));
+        facts.add(asList(new MyFact("C1")));
+        facts.add(asList(new MyFact("D1"), new MyFact("D2")));
 
         //when /then
-        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts))
+        assertThatThrownBy(() -> new DefaultRulesExecutor.SingleTypeFactTupleIterator(facts, new Object[facts.size()]))
                 .isExactlyInstanceOf(IllegalArgumentException.class);
     }
 
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldApproximateQuantilesWithUpperBoundsOfBuckets() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        // when
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // then
+        assertThat(snapshot.getCount()).isEqualTo(100);
+        assertThat(snapshot.getTotalTime()).isEqualTo(99 * 100 + 5000);
+        assertThat(snapshot.getMean()).isEqualTo(149.0);
+        assertThat(snapshot.getValueAtQuantile(0.5)).isEqualTo(127);
+        assertThat(snapshot.getValueAtQuantile(0.99)).isEqualTo(127);
+        assertThat(snapshot.getValueAtQuantile(1.0)).isEqualTo(8191);
+    }
+
+    @Test
+    void shouldReturnZeroWhenNothingRecorded() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // then
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getMean()).isZero();
+        assertThat(snapshot.getValueAtQuantile(0.99)).isZero();
+    }
+
+    @Test
+    void shouldPutExtremeLatenciesIntoBoundaryBuckets() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        // then
+        assertThat(histogram.snapshot().getValueAtQuantile(0.5)).isZero();
+        assertThat(histogram.snapshot().getValueAtQuantile(1.0)).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> histogram.snapshot().getValueAtQuantile(1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.compiler;
+
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.And;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.Not;
+import com.sabre.oss.yare.engine.executor.runtime.operator.logical.Or;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.EqObject;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.GeZonedDateTime;
+import com.sabre.oss.yare.engine.executor.runtime.operator.relation.LtComparable;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.Predicate;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+import com.sabre.oss.yare.engine.executor.runtime.value.ConstantValueProvider;
+import com.sabre.oss.yare.engine.executor.runtime.value.ReferenceValueProvider;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredicateCompilerTest {
+    private ContextLayout layout;
+    private PredicateCompiler compiler;
+
+    @BeforeEach
+    void setUp() {
+        layout = new ContextLayout(Arrays.asList("left", "right"), Collections.emptyList());
+        compiler = new PredicateCompiler();
+    }
+
+    @Test
+    void shouldPreserveThreeValuedLogicOfLogicalOperators() {
+        // given
+        Predicate predicate = new Or(Arrays.asList(
+                new And(Arrays.asList(reference("left"), new Not(reference("right")))),
+                new Not(new Or(Arrays.asList(reference("left"), reference("right"))))));
+        Boolean[] values = {Boolean.TRUE, Boolean.FALSE, null};
+
+        // when
+        Predicate compiled = compiler.compile(predicate);
+
+        // then
+        assertThat(compiled.getClass().getSimpleName()).startsWith("CompiledPredicate$");
+        for (Boolean left : values) {
+            for (Boolean right : values) {
+                PredicateContext context = context(left, right);
+                assertThat(compiled.evaluate(context)).isEqualTo(predicate.evaluate(context));
+            }
+        }
+    }
+
+    @Test
+    void shouldCompareLikeInterpretedOperators() {
+        // given
+        ZonedDateTime now = ZonedDateTime.now();
+        Predicate predicate = new And(Arrays.asList(
+                new LtComparable(reference("left"), new ConstantValueProvider(10L)),
+                new GeZonedDateTime(new ConstantValueProvider(now), reference("right"))));
+        Object[][] operands = {{5L, now}, {10L, now}, {5L, now.plusSeconds(1)}, {5L, now.minusSeconds(1)}, {null, now}, {5L, null}};
+
+        // when
+        Predicate compiled = compiler.compile(predicate);
+
+        // then
+        for (Object[] operand : operands) {
+            PredicateContext context = context(operand[0], operand[1]);
+            assertThat(compiled.evaluate(context)).isEqualTo(predicate.evaluate(context));
+        }
+    }
+
+    @Test
+    void shouldDelegateToUnknownPredicates() {
+        // given
+        Predicate unknown = new Predicate() {
+            @Override
+            public Boolean evaluate(PredicateContext context) {
+                return "a".equals(context.resolve("left"));
+            }
+        };
+        Predicate predicate = new Or(Arrays.asList(unknown, new EqObject(reference("right"), new ConstantValueProvider("b"))));
+
+        // when
+        Predicate compiled = compiler.compile(predicate);
+
+        // then
+        assertThat(compiled.evaluate(context("a", "c"))).isTrue();
+        assertThat(compiled.evaluate(context("c", "b"))).isTrue();
+        assertThat(compiled.evaluate(context("c", "c"))).isFalse();
+    }
+
+    @Test
+    void shouldDefineCompiledPredicatesInClassLoaderOfCompiler() {
+        // given
+        Predicate predicate = new Not(reference("left"));
+        PredicateCompiler otherCompiler = compiler.withNewClassLoader();
+
+        // when
+        Predicate compiled = compiler.compile(predicate);
+        Predicate compiledByOther = otherCompiler.compile(predicate);
+
+        // then
+        ClassLoader classLoader = compiled.getClass().getClassLoader();
+        assertThat(classLoader).isNotSameAs(PredicateCompiler.class.getClassLoader());
+        assertThat(classLoader.getParent()).isSameAs(PredicateCompiler.class.getClassLoader());
+        assertThat(compiler.compile(predicate).getClass().getClassLoader()).isSameAs(classLoader);
+        assertThat(compiledByOther.getClass().getClassLoader()).isNotSameAs(classLoader);
+        assertThat(compiledByOther.evaluate(context(Boolean.TRUE, null))).isFalse();
+    }
+
+    @Test
+    void shouldReusePreviouslyCompiledPredicates() {
+        // given
+        Predicate reused = new Not(reference("left"));
+        Predicate changed = new Not(reference("right"));
+        Map<Predicate, Predicate> previouslyCompiled = new IdentityHashMap<>();
+        Predicate previous = compiler.compile(reused, Collections.emptyMap(), previouslyCompiled);
+        Map<Predicate, Predicate> compiled = new IdentityHashMap<>();
+
+        // when
+        Predicate compiledReused = compiler.withNewClassLoader().compile(reused, previouslyCompiled, compiled);
+        Predicate compiledChanged = compiler.withNewClassLoader().compile(changed, previouslyCompiled, compiled);
+
+        // then
+        assertThat(compiledReused).isSameAs(previous);
+        assertThat(compiledChanged.getClass().getSimpleName()).startsWith("CompiledPredicate$");
+        assertThat(compiled).containsOnlyKeys(reused, changed);
+        assertThat(compiled.get(changed)).isSameAs(compiledChanged);
+    }
+
+    @Test
+    void shouldCompileConcurrently() {
+        // given
+        Predicate predicate = new And(Arrays.asList(reference("left"), new Not(reference("right"))));
+
+        // when
+        List<Predicate> compiled = IntStream.range(0, 32).parallel()
+                .mapToObj(i -> compiler.compile(predicate))
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(compiled).allSatisfy(p -> {
+            assertThat(p.getClass().getSimpleName()).startsWith("CompiledPredicate$");
+            assertThat(p.evaluate(context(Boolean.TRUE, Boolean.FALSE))).isTrue();
+        });
+    }
+
+    private ValueProvider reference(String identifier) {
+        return new ReferenceValueProvider(identifier, layout.getFactSlot(identifier));
+    }
+
+    private PredicateContext context(Object left, Object right) {
+        Map<String, Object> facts = new HashMap<>();
+        facts.put("left", left);
+        facts.put("right", right);
+        return new PredicateContext(layout, null, facts, null)
+                .bind("rule", Collections.emptyMap(), layout.layOutAttributes(Collections.emptyMap()));
+    }
+}
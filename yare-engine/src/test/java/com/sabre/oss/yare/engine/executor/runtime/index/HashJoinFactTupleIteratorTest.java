@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.index;
+
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.value.ReferenceValueProvider;
+import com.sabre.oss.yare.engine.executor.runtime.value.ValueProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashJoinFactTupleIteratorTest {
+    private final ContextLayout layout = new ContextLayout(asList("a", "b", "c"), emptyList());
+
+    @Test
+    void shouldGenerateJoinedTuplesInCrossProductOrder() {
+        // given
+        List<List<Object>> groupedFacts = asList(
+                asList("x", "y", "x", "z", null),
+                asList(1, 2, 3),
+                asList("y", "x", "w", null));
+        EquiJoins.Join join = new EquiJoins.Join(index("c"), reference("c"), index("a"), reference("a"));
+
+        // when
+        List<List<Object>> tuples = collect(new HashJoinFactTupleIterator(groupedFacts, new Object[3], singletonList(join), layout, null, null));
+
+        // then
+        List<List<Object>> expected = new ArrayList<>();
+        for (Object c : groupedFacts.get(index("c"))) {
+            for (Object b : groupedFacts.get(index("b"))) {
+                for (Object a : groupedFacts.get(index("a"))) {
+                    if (a != null && a.equals(c)) {
+                        expected.add(asList(a, b, c));
+                    }
+                }
+            }
+        }
+        assertThat(tuples).hasSize(9);
+        assertThat(tuples).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldGenerateNoTuplesWhenNothingJoins() {
+        // given
+        List<List<Object>> groupedFacts = asList(
+                asList("x", "y"),
+                null,
+                asList("z", null));
+        EquiJoins.Join join = new EquiJoins.Join(index("a"), reference("a"), index("c"), reference("c"));
+
+        // when
+        HashJoinFactTupleIterator iterator = new HashJoinFactTupleIterator(groupedFacts, new Object[3], singletonList(join), layout, null, null);
+
+        // then
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    private ValueProvider reference(String identifier) {
+        return new ReferenceValueProvider(identifier, layout.getFactSlot(identifier));
+    }
+
+    private int index(String identifier) {
+        return layout.getFactIndex(identifier);
+    }
+
+    private static List<List<Object>> collect(Iterator<Object[]> iterator) {
+        List<List<Object>> tuples = new ArrayList<>();
+        while (iterator.hasNext()) {
+            tuples.add(asList(iterator.next().clone()));
+        }
+        return tuples;
+    }
+}
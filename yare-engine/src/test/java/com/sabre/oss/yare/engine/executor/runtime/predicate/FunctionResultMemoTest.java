@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.predicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FunctionResultMemoTest {
+
+    @Test
+    void shouldComputeResultOncePerCallAndArgumentInstances() {
+        // given
+        FunctionResultMemo memo = new FunctionResultMemo();
+        AtomicInteger computations = new AtomicInteger();
+        Object[] arguments = new Object[100];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = new Object();
+        }
+
+        // when
+        for (int repetition = 0; repetition < 2; repetition++) {
+            for (Object argument : arguments) {
+                memo.get("first", new Object[]{argument}, args -> computations.incrementAndGet());
+                memo.get("second", new Object[]{argument}, args -> computations.incrementAndGet());
+            }
+        }
+
+        // then
+        assertThat(computations.get()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldDistinguishEqualArgumentInstancesAndMemoizeNull() {
+        // given
+        FunctionResultMemo memo = new FunctionResultMemo();
+        AtomicInteger computations = new AtomicInteger();
+        String argument = new String("value");
+        String equalArgument = new String("value");
+
+        // when
+        Object first = memo.get("call", new Object[]{argument}, args -> {
+            computations.incrementAndGet();
+            return null;
+        });
+        Object second = memo.get("call", new Object[]{argument}, args -> computations.incrementAndGet());
+        memo.get("call", new Object[]{equalArgument}, args -> computations.incrementAndGet());
+
+        // then
+        assertThat(first).isNull();
+        assertThat(second).isNull();
+        assertThat(computations.get()).isEqualTo(2);
+    }
+}
@@ -27,10 +27,14 @@ package com.sabre.oss.yare.engine.executor.runtime.predicate;
 import com.google.common.collect.ImmutableMap;
 import com.sabre.oss.yare.core.EngineController;
 import com.sabre.oss.yare.core.internal.DefaultEngineController;
+import com.sabre.oss.yare.core.model.Attribute;
+import com.sabre.oss.yare.core.model.Fact;
+import com.sabre.oss.yare.core.model.Rule;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 
@@ -144,4 +148,64 @@ class PredicateContextTest {
         assertThat(resolved).isEqualTo(expectedValue);
     }
 
+    @Test
+    void shouldResolveSlotsAssignedByLayout() {
+        // given
+        Rule rule = new Rule(
+                Collections.singleton(new Attribute("key", String.class, "attributeValue")),
+                Collections.singletonList(new Fact("fact", String.class)),
+                null,
+                Collections.emptyList());
+        Map<String, Object> attributes = Collections.singletonMap("key", "attributeValue");
+        ContextLayout layout = new ContextLayout(Collections.singletonList("fact"), Arrays.asList("other", "key"));
+        EngineController engineController = new DefaultEngineController(Collections.emptyMap());
+        PredicateContext predicateContext = new PredicateContext(layout, "result", Collections.singletonMap("fact", "factValue"), engineController)
+                .bind("ruleId", attributes, layout.layOutAttributes(attributes));
+
+        // when / then
+        assertThat(predicateContext.get(layout.getSlot(rule, PredicateContext.CTX))).isEqualTo("result");
+        assertThat(predicateContext.get(layout.getSlot(rule, PredicateContext.RULE_NAME))).isEqualTo("ruleId");
+        assertThat(predicateContext.get(layout.getSlot(rule, PredicateContext.ENGINE_CONTROLLER))).isEqualTo(engineController);
+        assertThat(predicateContext.get(layout.getSlot(rule, "fact"))).isEqualTo("factValue");
+        assertThat(predicateContext.get(layout.getSlot(rule, "key"))).isEqualTo("attributeValue");
+        assertThat(layout.getSlot(rule, "unknownIdentifier")).isEqualTo(ContextLayout.UNRESOLVED);
+    }
+
+    @Test
+    void shouldKeepBindingOfCopyWhenRebound() {
+        // given
+        Map<String, Object> attributes = Collections.singletonMap("key", "attributeValue");
+        ContextLayout layout = new ContextLayout(Collections.singletonList("fact"), Collections.singletonList("key"));
+        PredicateContext predicateContext = new PredicateContext(layout, "result", Collections.singletonMap("fact", "factValue"), null)
+                .bind("firstRule", attributes, layout.layOutAttributes(attributes));
+
+        // when
+        PredicateContext copy = predicateContext.copy();
+        predicateContext.bind("secondRule", Collections.emptyMap(), layout.layOutAttributes(Collections.emptyMap()));
+
+        // then
+        assertThat(copy.getRuleId()).isEqualTo("firstRule");
+        assertThat(copy.resolve("key")).isEqualTo("attributeValue");
+        assertThat(copy.resolve("fact")).isEqualTo("factValue");
+        assertThat(predicateContext.getRuleId()).isEqualTo("secondRule");
+        assertThat(predicateContext.resolve("key")).isNull();
+    }
+
+    @Test
+    void shouldViewRefilledFactTupleAndKeepCopyIsolated() {
+        // given
+        ContextLayout layout = new ContextLayout(Arrays.asList("first", "second"), Collections.emptyList());
+        Object[] tuple = new Object[2];
+        PredicateContext predicateContext = new PredicateContext(layout, "result", tuple, null);
+        tuple[layout.getFactIndex("first")] = "firstValue";
+
+        // when
+        PredicateContext copy = predicateContext.copy();
+        tuple[layout.getFactIndex("first")] = "refilledValue";
+
+        // then
+        assertThat(predicateContext.resolve("first")).isEqualTo("refilledValue");
+        assertThat(predicateContext.resolve("second", "defaultValue")).isEqualTo("defaultValue");
+        assertThat(copy.resolve("first")).isEqualTo("firstValue");
+    }
 }
@@ -28,6 +28,10 @@ import com.google.common.collect.ImmutableMap;
 import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -104,6 +108,93 @@ class FieldReferringClassFactoryTest {
         assertThat(booleanWrapperBothBooleanGettersClass.booleanFieldGetterExecutionCounter).isEqualTo(0);
     }
 
+    @Test
+    void shouldDefineProviderOfPublicTypeInOwnClassLoader() {
+        // given
+        PublicClass publicClass = new PublicClass("value");
+
+        // when
+        ValueProvider valueProvider = FieldReferringClassFactory.create(PublicClass.class, "publicClass", "value");
+        ValueProvider cachedValueProvider = FieldReferringClassFactory.create(PublicClass.class, "publicClass", "value");
+
+        // then
+        assertThat(cachedValueProvider).isSameAs(valueProvider);
+        assertThat(valueProvider.getClass().getClassLoader())
+                .isNotSameAs(PublicClass.class.getClassLoader())
+                .isNotSameAs(FieldReferringClassFactory.class.getClassLoader());
+        assertThat(valueProvider.get(new PredicateContext("any", new Object(), ImmutableMap.of("publicClass", publicClass), emptyMap(), null)))
+                .isEqualTo("value");
+    }
+
+    @Test
+    void shouldDefineProviderOfNonPublicTypeInClassLoaderOfType() {
+        // given
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        NonPublicClass nonPublicClass = new NonPublicClass("value");
+
+        // when
+        ValueProvider valueProvider;
+        ValueProvider otherValueProvider;
+        thread.setContextClassLoader(new URLClassLoader(new URL[0], null));
+        try {
+            valueProvider = FieldReferringClassFactory.create(NonPublicClass.class, "nonPublicClass", "value");
+            otherValueProvider = FieldReferringClassFactory.create(NonPublicClass.class, "otherNonPublicClass", "value");
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+
+        // then
+        assertThat(valueProvider.getClass().getClassLoader()).isSameAs(NonPublicClass.class.getClassLoader());
+        assertThat(otherValueProvider.getClass()).isSameAs(valueProvider.getClass());
+        assertThat(otherValueProvider.get(new PredicateContext("any", new Object(), ImmutableMap.of("otherNonPublicClass", nonPublicClass), emptyMap(), null)))
+                .isEqualTo("value");
+    }
+
+    @Test
+    void shouldDistinguishSameNamedTypesOfDifferentClassLoaders() throws Exception {
+        // given
+        URL location = PublicClass.class.getProtectionDomain().getCodeSource().getLocation();
+        Class<?> otherPublicClass = new URLClassLoader(new URL[]{location}, null).loadClass(PublicClass.class.getName());
+        Constructor<?> constructor = otherPublicClass.getDeclaredConstructor(String.class);
+        constructor.setAccessible(true);
+        Object other = constructor.newInstance("other");
+
+        // when
+        ValueProvider valueProvider = FieldReferringClassFactory.create(PublicClass.class, "publicClass", "value");
+        ValueProvider otherValueProvider = FieldReferringClassFactory.create(otherPublicClass, "publicClass", "value");
+
+        // then
+        assertThat(otherPublicClass).isNotSameAs(PublicClass.class);
+        assertThat(otherValueProvider).isNotSameAs(valueProvider);
+        assertThat(otherValueProvider.get(new PredicateContext("any", new Object(), ImmutableMap.of("publicClass", other), emptyMap(), null)))
+                .isEqualTo("other");
+    }
+
+    public static class PublicClass {
+        private final String value;
+
+        PublicClass(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private static class NonPublicClass {
+        private final String value;
+
+        NonPublicClass(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
     private static class TestClass {
         public final String aString;
 
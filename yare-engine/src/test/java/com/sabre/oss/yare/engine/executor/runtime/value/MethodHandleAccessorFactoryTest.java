@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.executor.runtime.value;
+
+import com.google.common.collect.ImmutableMap;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.ContextLayout;
+import com.sabre.oss.yare.engine.executor.runtime.predicate.PredicateContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodHandleAccessorFactoryTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "name",
+            "active",
+            "flights",
+            "flights.number",
+            "flights.tags",
+            "flights.tags[*]",
+            "flights.leg.code",
+            "attributes.alliance",
+            "attributes.missing",
+            "leader.number",
+            "leader.tags[*]",
+            "!leader.leg.code"
+    })
+    void shouldReferToPathAsGeneratedValueProvider(String path) {
+        // given
+        Airline airline = new Airline();
+        PredicateContext context = new PredicateContext("any", new Object(), ImmutableMap.of("airline", airline), emptyMap(), null);
+        ValueProvider generated = FieldReferringClassFactory.create(Airline.class, "airline", path);
+
+        // when
+        ValueProvider valueProvider = MethodHandleAccessorFactory.create(Airline.class, "airline", ContextLayout.UNRESOLVED, path);
+
+        // then
+        assertThat(valueProvider.get(context)).isEqualTo(generated.get(context));
+        assertThat(valueProvider.getType()).isEqualTo(generated.getType());
+    }
+
+    @Test
+    void shouldSkipNullElementsAndPropertiesOfCollectionElements() {
+        // given
+        Airline airline = new Airline();
+        PredicateContext context = new PredicateContext("any", new Object(), ImmutableMap.of("airline", airline), emptyMap(), null);
+
+        // when
+        Object numbers = MethodHandleAccessorFactory.create(Airline.class, "airline", ContextLayout.UNRESOLVED, "flights.number").get(context);
+        Object tags = MethodHandleAccessorFactory.create(Airline.class, "airline", ContextLayout.UNRESOLVED, "flights.tags[*]").get(context);
+        Object codes = MethodHandleAccessorFactory.create(Airline.class, "airline", ContextLayout.UNRESOLVED, "flights.leg.code").get(context);
+
+        // then
+        assertThat(numbers).isEqualTo(Arrays.asList(1, null));
+        assertThat(tags).isEqualTo(Arrays.asList("direct", null));
+        assertThat(codes).isEqualTo(Collections.singletonList("KRK"));
+    }
+
+    @Test
+    void shouldReturnNullWhenReferredValueIsNull() {
+        // given
+        PredicateContext context = new PredicateContext("any", new Object(), Collections.singletonMap("airline", null), emptyMap(), null);
+
+        // when
+        Object result = MethodHandleAccessorFactory.create(Airline.class, "airline", ContextLayout.UNRESOLVED, "flights.number").get(context);
+
+        // then
+        assertThat(result).isNull();
+    }
+
+    public static class Airline {
+        public String name = "Sabre";
+        private final List<Flight> flights = Arrays.asList(new Flight(1, Arrays.asList("direct", null), new Leg("KRK")), null, new Flight(null, null, null));
+        private final Map<String, Object> attributes = Collections.singletonMap("alliance", "none");
+
+        public boolean getActive() {
+            return true;
+        }
+
+        public List<Flight> getFlights() {
+            return flights;
+        }
+
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        public Flight getLeader() {
+            return null;
+        }
+    }
+
+    public static class Flight {
+        public List<String> tags;
+        private final Integer number;
+        private final Leg leg;
+
+        Flight(Integer number, List<String> tags, Leg leg) {
+            this.number = number;
+            this.tags = tags;
+            this.leg = leg;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        public Leg getLeg() {
+            return leg;
+        }
+    }
+
+    public static class Leg {
+        public final String code;
+
+        Leg(String code) {
+            this.code = code;
+        }
+    }
+}
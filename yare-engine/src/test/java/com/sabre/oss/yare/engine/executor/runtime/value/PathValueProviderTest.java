@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class PathValueProviderTest {
 
@@ -48,6 +49,35 @@ public class PathValueProviderTest {
         assertThat(result).isEqualTo(expectedValue);
     }
 
+    @Test
+    void shouldProperlyCreateProviderOfChainedProperties() {
+        // given
+        String reference = "any";
+        ValueProvider argumentProvider = new PathValueProvider(MyClass.class, reference, "nested.value");
+        PredicateContext predicateContext = Mockito.mock(PredicateContext.class);
+        Mockito.when(predicateContext.resolve(reference)).thenReturn(new MyClass(new MyClass("expectedValue")));
+
+        // when
+        Object result = argumentProvider.get(predicateContext);
+
+        // then
+        assertThat(result).isEqualTo("expectedValue");
+    }
+
+    @Test
+    void shouldFailWhenChainedPropertyIsNull() {
+        // given
+        String reference = "any";
+        ValueProvider argumentProvider = new PathValueProvider(MyClass.class, reference, "nested.value");
+        PredicateContext predicateContext = Mockito.mock(PredicateContext.class);
+        Mockito.when(predicateContext.resolve(reference)).thenReturn(new MyClass(null));
+
+        // when / then
+        assertThatThrownBy(() -> argumentProvider.get(predicateContext))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("Can't evaluate path 'any.nested.value'");
+    }
+
     public static class MyClass {
         private final Object value;
 
@@ -58,5 +88,9 @@ public class PathValueProviderTest {
         public Object getValue() {
             return value;
         }
+
+        public MyClass getNested() {
+            return (MyClass) value;
+        }
     }
 }
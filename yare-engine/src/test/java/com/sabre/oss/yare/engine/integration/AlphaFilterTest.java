@@ -0,0 +1,247 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import com.sabre.oss.yare.engine.feature.DefaultEngineFeature;
+import com.sabre.oss.yare.engine.integration.BaseRulesUtils.InvocationCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlphaFilterTest {
+    private final InvocationCounter counter = new InvocationCounter();
+
+    private RulesEngine createRuleEngine(List<Rule> rules, boolean sequentialMode) {
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> rules)
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null, null, null)))
+                .withActionMapping("divert", method(new TestAction(), (a) -> a.divert(null, null)))
+                .withFunctionMapping("count", method(counter, (c) -> c.count(null, null)), DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT)
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withCrossProductMode(true)
+                        .withSequentialMode(sequentialMode))
+                .build();
+    }
+
+    @Test
+    void shouldEvaluateRulesOnlyAgainstFactsSatisfyingSingleFactConditions() {
+        // given
+        RulesEngine rulesEngine = createRuleEngine(singletonList(createKrakowRule()), false);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), createFacts());
+
+        // then
+        assertThat(result).containsExactly("krakow:KRK/KRK/1", "krakow:KRK/KRK/1");
+        assertThat(counter.getInvocations()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvaluateRulesAgainstFactsSatisfyingTheirOwnSingleFactConditions() {
+        // given
+        Rule warsawRule = createRule("warsaw", 10L, and(
+                countTuple(),
+                equal(value("${flight.origin}"), value("WAW")),
+                equal(value("${airport.code}"), value("GDN"))));
+        RulesEngine rulesEngine = createRuleEngine(asList(createKrakowRule(), warsawRule), false);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), createFacts());
+
+        // then
+        assertThat(result).containsExactlyInAnyOrder("krakow:KRK/KRK/1", "krakow:KRK/KRK/1", "warsaw:WAW/GDN/1", "warsaw:WAW/GDN/5");
+        assertThat(counter.getInvocations()).isEqualTo(2 + 2);
+    }
+
+    @Test
+    void shouldEvaluateRulesWithoutSingleFactConditionsAgainstAllFacts() {
+        // given
+        Rule anyRule = createRule("any", 10L, countTuple());
+        RulesEngine rulesEngine = createRuleEngine(asList(createKrakowRule(), anyRule), false);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), createFacts());
+
+        // then
+        assertThat(result).hasSize(2 + 3 * 2 * 2);
+        assertThat(result.stream().filter(r -> r.startsWith("krakow:"))).containsExactly("krakow:KRK/KRK/1", "krakow:KRK/KRK/1");
+        assertThat(result.stream().filter(r -> r.startsWith("any:"))).hasSize(3 * 2 * 2);
+        assertThat(result.get(result.indexOf("krakow:KRK/KRK/1") + 1)).isEqualTo("any:KRK/KRK/1");
+        assertThat(result.get(result.lastIndexOf("krakow:KRK/KRK/1") + 1)).isEqualTo("any:KRK/KRK/1");
+        assertThat(counter.getInvocations()).isEqualTo(2 + 3 * 2 * 2);
+    }
+
+    @Test
+    void shouldNotFireRulesWhenNoFactSatisfiesSingleFactConditions() {
+        // given
+        RulesEngine rulesEngine = createRuleEngine(singletonList(createKrakowRule()), false);
+        List<Object> facts = asList(new Flight("KRK"), new Airport("KRK"), new Carrier(5));
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), facts);
+
+        // then
+        assertThat(result).isEmpty();
+        assertThat(counter.getInvocations()).isZero();
+    }
+
+    @Test
+    void shouldNotFilterFactsInSequentialMode() {
+        // given
+        Rule divertRule = RuleDsl.ruleBuilder()
+                .name("divert")
+                .attribute("priority", 20L)
+                .fact("flight", Flight.class)
+                .fact("airport", Airport.class)
+                .fact("carrier", Carrier.class)
+                .predicate(and(
+                        equal(value("${flight.origin}"), value("WAW")),
+                        equal(value("${airport.code}"), value("WAW"))))
+                .action("divert",
+                        param("flight", value("${flight}")),
+                        param("code", value("KRK")))
+                .build();
+        Rule krakowRule = createRule("krakow", 10L, and(
+                equal(value("${flight.origin}"), value("WAW")),
+                equal(value("${airport.code}"), value("KRK"))));
+        RulesEngine rulesEngine = createRuleEngine(asList(divertRule, krakowRule), true);
+        Airport destination = new Airport("GDN");
+        List<Object> facts = asList(new Flight("WAW", destination), new Airport("WAW"), destination, new Carrier(1));
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), facts);
+
+        // then
+        assertThat(result).containsExactly("krakow:WAW/KRK/1");
+    }
+
+    private Rule createKrakowRule() {
+        return createRule("krakow", 20L, and(
+                countTuple(),
+                equal(value("${flight.origin}"), value("KRK")),
+                equal(value("${airport.code}"), value("KRK")),
+                less(value("${carrier.rank}"), value(2))));
+    }
+
+    private static com.sabre.oss.yare.dsl.ExpressionOperand<Boolean> countTuple() {
+        return function("count", Boolean.class, param("first", value("${flight}")), param("second", value("${airport}")));
+    }
+
+    private Rule createRule(String name, long priority, com.sabre.oss.yare.dsl.Expression<Boolean> predicate) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class)
+                .fact("airport", Airport.class)
+                .fact("carrier", Carrier.class)
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")),
+                        param("airport", value("${airport}")),
+                        param("carrier", value("${carrier}")))
+                .build();
+    }
+
+    private static List<Object> createFacts() {
+        return asList(
+                new Flight("KRK"), new Flight("WAW"), new Flight("KRK"),
+                new Airport("KRK"), new Airport("GDN"),
+                new Carrier(1), new Carrier(5));
+    }
+
+    public static final class Flight {
+        private final String origin;
+        private final Airport destination;
+
+        Flight(String origin) {
+            this(origin, null);
+        }
+
+        Flight(String origin, Airport destination) {
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        public String getOrigin() {
+            return origin;
+        }
+
+        public Airport getDestination() {
+            return destination;
+        }
+    }
+
+    public static final class Airport {
+        private String code;
+
+        Airport(String code) {
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        void setCode(String code) {
+            this.code = code;
+        }
+    }
+
+    public static final class Carrier {
+        private final Integer rank;
+
+        Carrier(Integer rank) {
+            this.rank = rank;
+        }
+
+        public Integer getRank() {
+            return rank;
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight, Airport airport, Carrier carrier) {
+            results.add(ruleName + ":" + flight.getOrigin() + "/" + airport.getCode() + "/" + carrier.getRank());
+        }
+
+        public void divert(Flight flight, String code) {
+            flight.getDestination().setCode(code);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
+import com.sabre.oss.yare.core.listener.SessionFinishedContext;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncExecutionTest {
+
+    @Test
+    void shouldExecuteOnConfiguredExecutor() {
+        // given
+        AtomicInteger submissions = new AtomicInteger();
+        RuleSession session = createRuleEngine("collect", command -> {
+            submissions.incrementAndGet();
+            command.run();
+        }).createSession("test");
+
+        // when
+        CompletableFuture<List<String>> future = session.executeAsync(new ArrayList<>(), Collections.singletonList(new Flight("LH")));
+
+        // then
+        assertThat(submissions.get()).isEqualTo(1);
+        assertThat(future.join()).containsExactly("collect:LH");
+    }
+
+    @Test
+    void shouldCompleteOnceAsynchronousActionsComplete() {
+        // given
+        TestAction action = new TestAction();
+        RuleSession session = createRuleEngine(action, Runnable::run).createSession("test");
+
+        // when
+        CompletableFuture<List<String>> future = session.executeAsync(new ArrayList<>(), Collections.singletonList(new Flight("LH")));
+        boolean doneBeforeActionCompleted = future.isDone();
+        action.pending.complete(null);
+
+        // then
+        assertThat(doneBeforeActionCompleted).isFalse();
+        assertThat(future.join()).containsExactly("collectAsync:LH");
+    }
+
+    @Test
+    void shouldFailWhenAsynchronousActionFails() {
+        // given
+        TestAction action = new TestAction();
+        RuleSession session = createRuleEngine(action, Runnable::run).createSession("test");
+
+        // when
+        CompletableFuture<List<String>> future = session.executeAsync(new ArrayList<>(), Collections.singletonList(new Flight("LH")));
+        action.pending.completeExceptionally(new IllegalStateException("Action failed"));
+
+        // then
+        assertThatThrownBy(future::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldResumeEvaluationOnceAsynchronousFunctionCompletes() {
+        // given
+        Functions functions = new Functions();
+        RuleSession session = createFunctionRuleEngine(functions).createSession("test");
+
+        // when
+        CompletableFuture<List<String>> future = session.executeAsync(new ArrayList<>(), Arrays.asList(new Flight("LH"), new Flight("LO")));
+        boolean doneBeforeFunctionCompleted = future.isDone();
+        List<String> calledBeforeFunctionCompleted = new ArrayList<>(functions.calls);
+        functions.results.get("LH").complete(true);
+        List<String> calledBeforeSecondFunctionCompleted = new ArrayList<>(functions.calls);
+        functions.results.get("LO").complete(true);
+
+        // then
+        assertThat(doneBeforeFunctionCompleted).isFalse();
+        assertThat(calledBeforeFunctionCompleted).containsExactly("LH");
+        assertThat(calledBeforeSecondFunctionCompleted).containsExactly("LH", "LO");
+        assertThat(future.join()).containsExactly("delayed:LH", "delayed:LO");
+        assertThat(functions.calls).containsExactly("LH", "LO");
+    }
+
+    @Test
+    void shouldFailWhenAsynchronousFunctionFails() {
+        // given
+        Functions functions = new Functions();
+        RuleSession session = createFunctionRuleEngine(functions).createSession("test");
+
+        // when
+        CompletableFuture<List<String>> future = session.executeAsync(new ArrayList<>(), Collections.singletonList(new Flight("LH")));
+        functions.results.get("LH").completeExceptionally(new IllegalStateException("Function failed"));
+
+        // then
+        assertThatThrownBy(future::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldNotifyListenerOfSessionFinishedOnceSuspendedEvaluationFails() {
+        // given
+        Functions functions = new Functions();
+        AtomicInteger finishedSessions = new AtomicInteger();
+        RuleSession session = createFunctionRuleEngine(functions, new DefaultRulesExecutorBuilder()
+                .withRuleLifecycleListener(new RuleLifecycleListener() {
+                    @Override
+                    public void sessionFinished(SessionFinishedContext context) {
+                        finishedSessions.incrementAndGet();
+                    }
+                })).createSession("test");
+
+        // when
+        CompletableFuture<List<String>> future = session.executeAsync(new ArrayList<>(), Collections.singletonList(new Flight("LH")));
+        int finishedBeforeFunctionCompleted = finishedSessions.get();
+        functions.results.get("LH").completeExceptionally(new IllegalStateException("Function failed"));
+
+        // then
+        assertThatThrownBy(future::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(finishedBeforeFunctionCompleted).isZero();
+        assertThat(finishedSessions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAwaitAsynchronousFunctionInSynchronousExecution() {
+        // given
+        Functions functions = new Functions();
+        functions.results.put("LH", CompletableFuture.completedFuture(true));
+        functions.results.put("LO", CompletableFuture.completedFuture(false));
+        RuleSession session = createFunctionRuleEngine(functions).createSession("test");
+
+        // when
+        List<String> result = session.execute(new ArrayList<>(), Arrays.asList(new Flight("LH"), new Flight("LO")));
+
+        // then
+        assertThat(result).containsExactly("delayed:LH");
+    }
+
+    private RulesEngine createFunctionRuleEngine(Functions functions) {
+        return createFunctionRuleEngine(functions, new DefaultRulesExecutorBuilder());
+    }
+
+    private RulesEngine createFunctionRuleEngine(Functions functions, DefaultRulesExecutorBuilder rulesExecutorBuilder) {
+        Rule rule = RuleDsl.ruleBuilder()
+                .name("delayed")
+                .fact("flight", Flight.class)
+                .predicate(function("isDelayed", Boolean.class, param("flight", value("${flight}"))))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> Collections.singletonList(rule))
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null)))
+                .withFunctionMapping("isDelayed", method(functions, (f) -> f.isDelayed(null)))
+                .withRulesExecutorBuilder(rulesExecutorBuilder)
+                .withAsyncExecutor(Runnable::run)
+                .build();
+    }
+
+    private RulesEngine createRuleEngine(String actionName, Executor executor) {
+        return createRuleEngine(new TestAction(), actionName, executor);
+    }
+
+    private RulesEngine createRuleEngine(TestAction action, Executor executor) {
+        return createRuleEngine(action, "collectAsync", executor);
+    }
+
+    private RulesEngine createRuleEngine(TestAction action, String actionName, Executor executor) {
+        Rule rule = RuleDsl.ruleBuilder()
+                .name(actionName)
+                .fact("flight", Flight.class)
+                .predicate(equal(value("${flight.carrier}"), value("LH")))
+                .action(actionName,
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> Collections.singletonList(rule))
+                .withActionMapping("collect", method(action, (a) -> a.collect(null, null, null)))
+                .withActionMapping("collectAsync", method(action, (a) -> a.collectAsync(null, null, null)))
+                .withAsyncExecutor(executor)
+                .build();
+    }
+
+    public static final class Flight {
+        private final String carrier;
+
+        Flight(String carrier) {
+            this.carrier = carrier;
+        }
+
+        public String getCarrier() {
+            return carrier;
+        }
+
+        @Override
+        public String toString() {
+            return carrier;
+        }
+    }
+
+    public static class Functions {
+        private final Map<String, CompletableFuture<Boolean>> results = new ConcurrentHashMap<>();
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        public CompletableFuture<Boolean> isDelayed(Flight flight) {
+            calls.add(flight.getCarrier());
+            return results.computeIfAbsent(flight.getCarrier(), k -> new CompletableFuture<>());
+        }
+    }
+
+    public static class TestAction {
+        private final CompletableFuture<Void> pending = new CompletableFuture<>();
+
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+
+        public CompletableFuture<Void> collectAsync(List<String> results, String ruleName, Flight flight) {
+            return pending.thenRun(() -> results.add(ruleName + ":" + flight));
+        }
+    }
+}
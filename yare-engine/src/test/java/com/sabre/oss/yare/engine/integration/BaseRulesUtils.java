@@ -33,6 +33,7 @@ import java.beans.Introspector;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.sabre.oss.yare.dsl.RuleDsl.value;
@@ -256,6 +257,22 @@ public abstract class BaseRulesUtils {
 
     }
 
+    /**
+     * Function counting its invocations, i.e. fact tuples rules calling it with two of their facts are evaluated against.
+     */
+    public static class InvocationCounter {
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        public Boolean count(Object first, Object second) {
+            invocations.incrementAndGet();
+            return Boolean.TRUE;
+        }
+
+        int getInvocations() {
+            return invocations.get();
+        }
+    }
+
     public static class Actions {
         public void collect(Map<Object, Object> ctx, String ruleName, Object factOne, Object factTwo) {
             ctx.put(ruleName, asList(factOne, factTwo));
@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RuleSession.Request;
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BatchExecutionTest {
+
+    @Test
+    void shouldReturnResultsInRequestOrder() {
+        // given
+        RuleSession session = createRuleEngine().createSession("test");
+        List<Request<List<String>>> requests = createRequests(10);
+
+        // when
+        List<List<String>> results = session.executeAll(requests);
+
+        // then
+        assertThat(results).isEqualTo(expectedResults(10));
+    }
+
+    @Test
+    void shouldReturnResultsInRequestOrderWhenFannedOut() {
+        // given
+        RuleSession session = createRuleEngine().createSession("test");
+        List<Request<List<String>>> requests = createRequests(100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        List<List<String>> results;
+        try {
+            results = session.executeAll(requests, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(results).isEqualTo(expectedResults(100));
+    }
+
+    @Test
+    void shouldSubmitEachFannedOutRequestToExecutor() {
+        // given
+        RuleSession session = createRuleEngine().createSession("test");
+        List<Request<List<String>>> requests = createRequests(10);
+        AtomicInteger submitted = new AtomicInteger();
+
+        // when
+        List<List<String>> results = session.executeAll(requests, command -> {
+            submitted.incrementAndGet();
+            command.run();
+        });
+
+        // then
+        assertThat(results).isEqualTo(expectedResults(10));
+        assertThat(submitted.get()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRethrowFailureOfFannedOutRequest() {
+        // given
+        RuleSession session = createRuleEngine().createSession("test");
+        List<Request<List<String>>> requests = new ArrayList<>(createRequests(20));
+        requests.set(8, Request.of(null, Collections.singletonList(new Flight(8))));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when / then
+        try {
+            assertThatThrownBy(() -> session.executeAll(requests, executor))
+                    .isInstanceOf(RuntimeException.class);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Request<List<String>>> createRequests(int count) {
+        List<Request<List<String>>> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(Request.of(new ArrayList<>(), Collections.singletonList(new Flight(i))));
+        }
+        return requests;
+    }
+
+    private static List<List<String>> expectedResults(int count) {
+        List<List<String>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(i % 2 == 0 ? Collections.singletonList("even:" + i) : Collections.emptyList());
+        }
+        return results;
+    }
+
+    private RulesEngine createRuleEngine() {
+        Rule rule = RuleDsl.ruleBuilder()
+                .name("even")
+                .fact("flight", Flight.class)
+                .predicate(equal(value("${flight.even}"), value(true)))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> Collections.singletonList(rule))
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null)))
+                .build();
+    }
+
+    public static final class Flight {
+        private final int number;
+
+        Flight(int number) {
+            this.number = number;
+        }
+
+        public Boolean getEven() {
+            return number % 2 == 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(number);
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+    }
+}
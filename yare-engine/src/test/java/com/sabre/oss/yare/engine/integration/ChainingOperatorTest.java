@@ -57,11 +57,15 @@ public class ChainingOperatorTest {
                 .withFunctionMapping(IS_NULL, method(testFunction, f -> f.isNull(null)))
                 .withFunctionMapping(CONTAINS_EXACTLY, method(testFunction, f -> f.containsExactly(null, null)))
                 .withFunctionMapping(FLATTEN_AND_CONTAINS, method(testFunction, f -> f.flattenAndContains(null, null)))
-                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                .withRulesExecutorBuilder(createRulesExecutorBuilder()
                         .withSequentialMode(config.isSequenceMode()))
                 .build();
     }
 
+    protected DefaultRulesExecutorBuilder createRulesExecutorBuilder() {
+        return new DefaultRulesExecutorBuilder();
+    }
+
     @Test
     void shouldCollectWhenCollectionsInChainEndingWithInstance() {
         // given
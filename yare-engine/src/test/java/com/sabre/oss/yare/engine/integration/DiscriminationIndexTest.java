@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DiscriminationIndexTest {
+
+    private RulesEngine createRuleEngine(List<Rule> rules, boolean sequentialMode) {
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> rules)
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null)))
+                .withActionMapping("rebook", method(new TestAction(), (a) -> a.rebook(null, null)))
+                .withActionMapping("renumber", method(new TestAction(), (a) -> a.renumber(null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withSequentialMode(sequentialMode))
+                .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"true", "false"})
+    void shouldEvaluateOnlyRulesMatchingEqualityConstraints(boolean sequentialMode) {
+        // given
+        List<Rule> rules = asList(
+                createRule("carrierAA", 50L, equal(value("${flight.carrier}"), value("AA"))),
+                createRule("carrierLH", 40L, and(
+                        equal(value("${flight.carrier}"), value("LH")),
+                        less(value("${flight.number}"), value(500)))),
+                createRule("numberFirst", 30L, equal(value(100), value("${flight.number}"))),
+                createRule("carrierLHHighNumber", 20L, and(
+                        equal(value("${flight.carrier}"), value("LH")),
+                        greater(value("${flight.number}"), value(500)))),
+                createRule("notIndexed", 10L, not(equal(value("${flight.carrier}"), value("XX")))));
+        RulesEngine rulesEngine = createRuleEngine(rules, sequentialMode);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), asList(
+                new Flight("LH", 100),
+                new Flight("AA", 700),
+                new Flight(null, 800)));
+
+        // then
+        assertThat(result).containsExactly(
+                "carrierLH:LH100",
+                "numberFirst:LH100",
+                "notIndexed:LH100",
+                "carrierAA:AA700",
+                "notIndexed:AA700"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"true", "false"})
+    void shouldEvaluateOnlyRulesMatchingRangeConstraints(boolean sequentialMode) {
+        // given
+        List<Rule> rules = asList(
+                createRule("lowNumbers", 50L, less(value("${flight.number}"), value(100))),
+                createRule("midNumbers", 40L, and(
+                        greaterOrEqual(value("${flight.number}"), value(100)),
+                        less(value("${flight.number}"), value(500)))),
+                createRule("reversedBound", 30L, lessOrEqual(value(500), value("${flight.number}"))),
+                createRule("narrowed", 20L, and(
+                        greater(value("${flight.number}"), value(100)),
+                        lessOrEqual(value("${flight.number}"), value(700)),
+                        greater(value("${flight.number}"), value(400)))),
+                createRule("notIndexed", 10L, not(equal(value("${flight.carrier}"), value("XX")))),
+                createRule("contradicting", 5L, and(
+                        less(value("${flight.number}"), value(100)),
+                        greater(value("${flight.number}"), value(200)))));
+        RulesEngine rulesEngine = createRuleEngine(rules, sequentialMode);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), asList(
+                new Flight("LH", 50),
+                new Flight("LH", 100),
+                new Flight("AA", 500),
+                new Flight("AA", 700),
+                new Flight("BA", 800),
+                new Flight("LO", null)));
+
+        // then
+        assertThat(result).containsExactly(
+                "lowNumbers:LH50",
+                "notIndexed:LH50",
+                "midNumbers:LH100",
+                "notIndexed:LH100",
+                "reversedBound:AA500",
+                "narrowed:AA500",
+                "notIndexed:AA500",
+                "reversedBound:AA700",
+                "narrowed:AA700",
+                "notIndexed:AA700",
+                "reversedBound:BA800",
+                "notIndexed:BA800",
+                "notIndexed:LOnull"
+        );
+    }
+
+    @Test
+    void shouldEvaluateRuleMatchingEqualityConstraintsAfterActionOfPreviousRuleInSequentialMode() {
+        // given
+        List<Rule> rules = asList(
+                createRebookingRule("rebookLH", 50L, equal(value("${flight.carrier}"), value("LH")), "AA"),
+                createRule("carrierAA", 40L, equal(value("${flight.carrier}"), value("AA"))),
+                createRule("carrierLH", 30L, equal(value("${flight.carrier}"), value("LH"))));
+        RulesEngine rulesEngine = createRuleEngine(rules, true);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), asList(
+                new Flight("LH", 100)));
+
+        // then
+        assertThat(result).containsExactly("carrierAA:AA100");
+    }
+
+    @Test
+    void shouldEvaluateRuleMatchingRangeConstraintsAfterActionOfPreviousRuleInSequentialMode() {
+        // given
+        List<Rule> rules = asList(
+                createRenumberingRule("renumberLowNumbers", 50L, less(value("${flight.number}"), value(100)), 600),
+                createRule("highNumbers", 40L, greater(value("${flight.number}"), value(500))),
+                createRule("lowNumbers", 30L, less(value("${flight.number}"), value(100))));
+        RulesEngine rulesEngine = createRuleEngine(rules, true);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), asList(
+                new Flight("LH", 50)));
+
+        // then
+        assertThat(result).containsExactly("highNumbers:LH600");
+    }
+
+    private Rule createRenumberingRule(String name, long priority, com.sabre.oss.yare.dsl.Expression<Boolean> predicate, Integer number) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class)
+                .predicate(predicate)
+                .action("renumber",
+                        param("flight", value("${flight}")),
+                        param("number", value(number)))
+                .build();
+    }
+
+    private Rule createRebookingRule(String name, long priority, com.sabre.oss.yare.dsl.Expression<Boolean> predicate, String carrier) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class)
+                .predicate(predicate)
+                .action("rebook",
+                        param("flight", value("${flight}")),
+                        param("carrier", value(carrier)))
+                .build();
+    }
+
+    private Rule createRule(String name, long priority, com.sabre.oss.yare.dsl.Expression<Boolean> predicate) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class)
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+    }
+
+    public static final class Flight {
+        private String carrier;
+        private Integer number;
+
+        Flight(String carrier, Integer number) {
+            this.carrier = carrier;
+            this.number = number;
+        }
+
+        public String getCarrier() {
+            return carrier;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        @Override
+        public String toString() {
+            return carrier + number;
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+
+        public void rebook(Flight flight, String carrier) {
+            flight.carrier = carrier;
+        }
+
+        public void renumber(Flight flight, Integer number) {
+            flight.number = number;
+        }
+    }
+}
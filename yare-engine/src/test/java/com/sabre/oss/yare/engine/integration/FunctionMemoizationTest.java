@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.feature.Feature;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import com.sabre.oss.yare.engine.feature.DefaultEngineFeature;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FunctionMemoizationTest {
+    private static final int NUMBER_OF_RULES = 3;
+
+    private final HolidayFunction holidayFunction = new HolidayFunction();
+
+    @Test
+    void shouldInvokeMemoizedFunctionOncePerArgumentAcrossRules() {
+        // given
+        RuleSession session = createRuleSession(DefaultEngineFeature.MEMOIZE_FUNCTION_RESULT, DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT);
+        List<Object> flights = createFlights(4);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), flights);
+
+        // then
+        assertThat(holidayFunction.calls.get()).isEqualTo(4);
+        assertThat(results).containsExactlyInAnyOrder("rule0:0", "rule1:0", "rule2:0", "rule0:2", "rule1:2", "rule2:2");
+    }
+
+    @Test
+    void shouldInvokeFunctionByEachRuleWhenNotMemoized() {
+        // given
+        RuleSession session = createRuleSession(DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT);
+        List<Object> flights = createFlights(4);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), flights);
+
+        // then
+        assertThat(holidayFunction.calls.get()).isEqualTo(4 * NUMBER_OF_RULES);
+        assertThat(results).hasSize(6);
+    }
+
+    @Test
+    void shouldNotMemoizeResultsAcrossExecutions() {
+        // given
+        RuleSession session = createRuleSession(DefaultEngineFeature.MEMOIZE_FUNCTION_RESULT, DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT);
+        List<Object> flights = createFlights(4);
+
+        // when
+        session.execute(new ArrayList<>(), flights);
+        session.execute(new ArrayList<>(), flights);
+
+        // then
+        assertThat(holidayFunction.calls.get()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldNotMemoizeResultsAcrossFactTuples() {
+        // given
+        Rule rule = RuleDsl.ruleBuilder()
+                .name("rule")
+                .fact("flight", Flight.class)
+                .fact("airport", Airport.class)
+                .predicate(equal(function("isHoliday", Boolean.class, param("flight", value("${flight}"))), value(true)))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${airport.code}")),
+                        param("flight", value("${flight}")))
+                .build();
+        RuleSession session = createRuleSession(Collections.singletonList(rule), new DefaultRulesExecutorBuilder().withCrossProductMode(true),
+                DefaultEngineFeature.MEMOIZE_FUNCTION_RESULT, DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT);
+        List<Object> facts = Arrays.asList(new Flight(0), new Airport("WAW"), new Airport("KRK"));
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), facts);
+
+        // then
+        assertThat(holidayFunction.calls.get()).isEqualTo(2);
+        assertThat(results).containsExactlyInAnyOrder("WAW:0", "KRK:0");
+    }
+
+    @Test
+    void shouldForgetResultsOnceActionIsFiredInSequentialMode() {
+        // given
+        Rule delayRule = RuleDsl.ruleBuilder()
+                .name("delay")
+                .attribute("priority", 20L)
+                .fact("flight", Flight.class)
+                .predicate(equal(function("isHoliday", Boolean.class, param("flight", value("${flight}"))), value(false)))
+                .action("delay",
+                        param("flight", value("${flight}")))
+                .build();
+        Rule collectRule = RuleDsl.ruleBuilder()
+                .name("collect")
+                .attribute("priority", 10L)
+                .fact("flight", Flight.class)
+                .predicate(equal(function("isHoliday", Boolean.class, param("flight", value("${flight}"))), value(true)))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+        RuleSession session = createRuleSession(Arrays.asList(delayRule, collectRule), new DefaultRulesExecutorBuilder().withSequentialMode(true),
+                DefaultEngineFeature.MEMOIZE_FUNCTION_RESULT, DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), Collections.singletonList(new Flight(1)));
+
+        // then
+        assertThat(results).containsExactly("collect:2");
+    }
+
+    private RuleSession createRuleSession(Feature... features) {
+        List<Rule> rules = IntStream.range(0, NUMBER_OF_RULES)
+                .mapToObj(i -> RuleDsl.ruleBuilder()
+                        .name("rule" + i)
+                        .fact("flight", Flight.class)
+                        .predicate(equal(function("isHoliday", Boolean.class, param("flight", value("${flight}"))), value(true)))
+                        .action("collect",
+                                param("context", value("${ctx}")),
+                                param("ruleName", value("${ruleName}")),
+                                param("flight", value("${flight}")))
+                        .build())
+                .collect(Collectors.toList());
+        return createRuleSession(rules, new DefaultRulesExecutorBuilder(), features);
+    }
+
+    private RuleSession createRuleSession(List<Rule> rules, DefaultRulesExecutorBuilder rulesExecutorBuilder, Feature... features) {
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> rules)
+                .withRulesExecutorBuilder(rulesExecutorBuilder)
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null)))
+                .withActionMapping("delay", method(new TestAction(), (a) -> a.delay(null)))
+                .withFunctionMapping("isHoliday", method(holidayFunction, f -> f.isHoliday(null)), features)
+                .build()
+                .createSession("test");
+    }
+
+    private static List<Object> createFlights(int count) {
+        return Arrays.asList(IntStream.range(0, count).mapToObj(Flight::new).toArray());
+    }
+
+    public static final class Flight {
+        private int number;
+
+        Flight(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(number);
+        }
+    }
+
+    public static final class Airport {
+        private final String code;
+
+        Airport(String code) {
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+    }
+
+    public static class HolidayFunction {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        public Boolean isHoliday(Flight flight) {
+            calls.incrementAndGet();
+            return flight.number % 2 == 0;
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+
+        public void delay(Flight flight) {
+            flight.number++;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import com.sabre.oss.yare.engine.feature.DefaultEngineFeature;
+import com.sabre.oss.yare.engine.integration.BaseRulesUtils.InvocationCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashJoinTest {
+    private final InvocationCounter counter = new InvocationCounter();
+
+    private RulesEngine createRuleEngine(List<Rule> rules, boolean sequentialMode) {
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> rules)
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null, null)))
+                .withActionMapping("rename", method(new TestAction(), (a) -> a.rename(null, null)))
+                .withFunctionMapping("count", method(counter, (c) -> c.count(null, null)), DefaultEngineFeature.DISABLE_CACHE_FUNCTION_RESULT)
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withCrossProductMode(true)
+                        .withSequentialMode(sequentialMode))
+                .build();
+    }
+
+    @Test
+    void shouldGenerateOnlyTuplesSatisfyingJoinCondition() {
+        // given
+        RulesEngine rulesEngine = createRuleEngine(singletonList(createRule("carrierFlight", 10L, and(
+                countTuple(),
+                equal(value("${flight.carrier}"), value("${airline.code}"))))), false);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), createFacts());
+
+        // then
+        assertThat(result).containsExactlyInAnyOrder("carrierFlight:LO#1/LO", "carrierFlight:LH#2/LH", "carrierFlight:LO#4/LO");
+        assertThat(counter.getInvocations()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldGenerateCrossProductOnlyForRulesWithoutJoinCondition() {
+        // given
+        Rule polishRule = createRule("polish", 10L, and(
+                countTuple(),
+                equal(value("${airline.code}"), value("LO"))));
+        Rule carrierFlightRule = createRule("carrierFlight", 20L, and(
+                countTuple(),
+                equal(value("${flight.carrier}"), value("${airline.code}"))));
+        RulesEngine rulesEngine = createRuleEngine(asList(carrierFlightRule, polishRule), false);
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), createFacts());
+
+        // then
+        assertThat(result).containsExactlyInAnyOrder(
+                "carrierFlight:LO#1/LO", "carrierFlight:LH#2/LH", "carrierFlight:LO#4/LO",
+                "polish:LO#1/LO", "polish:LH#2/LO", "polish:BA#3/LO", "polish:LO#4/LO");
+        assertThat(result.get(result.indexOf("carrierFlight:LO#1/LO") + 1)).isEqualTo("polish:LO#1/LO");
+        assertThat(result.get(result.indexOf("carrierFlight:LO#4/LO") + 1)).isEqualTo("polish:LO#4/LO");
+        assertThat(counter.getInvocations()).isEqualTo(3 + 4);
+    }
+
+    @Test
+    void shouldFireRulesInCrossProductOrder() {
+        // given
+        RulesEngine rulesEngine = createRuleEngine(asList(
+                createRule("polish", 20L, and(
+                        equal(value("${airline.code}"), value("${flight.carrier}")),
+                        equal(value("${airline.code}"), value("LO")))),
+                createRule("any", 10L, equal(value("${flight.carrier}"), value("${airline.code}")))), false);
+        List<Object> facts = asList(new Flight("LO", 1), new Airline("LH"), new Flight("LH", 2), new Airline("LO"), new Flight("LO", 3));
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), facts);
+
+        // then
+        assertThat(result).containsExactlyInAnyOrder("polish:LO#1/LO", "any:LO#1/LO", "any:LH#2/LH", "polish:LO#3/LO", "any:LO#3/LO");
+        assertThat(result.indexOf("polish:LO#1/LO")).isEqualTo(result.indexOf("any:LO#1/LO") - 1);
+        assertThat(result.indexOf("polish:LO#3/LO")).isEqualTo(result.indexOf("any:LO#3/LO") - 1);
+    }
+
+    @Test
+    void shouldJoinFactsModifiedByActionsInSequentialMode() {
+        // given
+        Rule renameRule = RuleDsl.ruleBuilder()
+                .name("rename")
+                .attribute("priority", 20L)
+                .fact("flight", Flight.class)
+                .fact("airline", Airline.class)
+                .predicate(and(
+                        equal(value("${flight.carrier}"), value("${airline.code}")),
+                        equal(value("${airline.code}"), value("LH"))))
+                .action("rename",
+                        param("airline", value("${airline}")),
+                        param("code", value("LO")))
+                .build();
+        Rule anyRule = createRule("any", 10L, equal(value("${flight.carrier}"), value("${airline.code}")));
+        RulesEngine rulesEngine = createRuleEngine(asList(renameRule, anyRule), true);
+        List<Object> facts = asList(new Flight("LH", 1), new Flight("LO", 2), new Airline("LH"));
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), facts);
+
+        // then
+        assertThat(result).containsExactly("any:LO#2/LO");
+    }
+
+    private static com.sabre.oss.yare.dsl.ExpressionOperand<Boolean> countTuple() {
+        return function("count", Boolean.class, param("first", value("${flight}")), param("second", value("${airline}")));
+    }
+
+    private Rule createRule(String name, long priority, com.sabre.oss.yare.dsl.Expression<Boolean> predicate) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class)
+                .fact("airline", Airline.class)
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")),
+                        param("airline", value("${airline}")))
+                .build();
+    }
+
+    private static List<Object> createFacts() {
+        return asList(
+                new Flight("LO", 1), new Flight("LH", 2), new Flight("BA", 3), new Flight("LO", 4),
+                new Airline("LO"), new Airline("LH"), new Airline("AF"));
+    }
+
+    public static final class Flight {
+        private final String carrier;
+        private final Integer number;
+
+        Flight(String carrier, Integer number) {
+            this.carrier = carrier;
+            this.number = number;
+        }
+
+        public String getCarrier() {
+            return carrier;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+    }
+
+    public static final class Airline {
+        private String code;
+
+        Airline(String code) {
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        void setCode(String code) {
+            this.code = code;
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight, Airline airline) {
+            results.add(ruleName + ":" + flight.getCarrier() + "#" + flight.getNumber() + "/" + airline.getCode());
+        }
+
+        public void rename(Airline airline, String code) {
+            airline.setCode(code);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import com.sabre.oss.yare.engine.executor.MatchLimit;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MatchLimitTest {
+    private static final List<Object> FLIGHTS = Arrays.asList(new Flight(100), new Flight(200));
+
+    @ParameterizedTest
+    @ValueSource(strings = {"false", "true"})
+    void shouldFireAllMatchingRulesWhenUnlimited(boolean sequentialMode) {
+        // given
+        RuleSession session = createRuleSession(MatchLimit.NONE, sequentialMode);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), FLIGHTS);
+
+        // then
+        assertThat(results).containsExactly(
+                "high:100", "medium:100", "low:100", "other:100",
+                "high:200", "medium:200", "low:200", "other:200");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"false", "true"})
+    void shouldFireHighestPriorityMatchingRulePerTuple(boolean sequentialMode) {
+        // given
+        RuleSession session = createRuleSession(MatchLimit.firstMatch(), sequentialMode);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), FLIGHTS);
+
+        // then
+        assertThat(results).containsExactly("high:100", "high:200");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"false", "true"})
+    void shouldFireTopNMatchingRulesPerTuple(boolean sequentialMode) {
+        // given
+        RuleSession session = createRuleSession(MatchLimit.topN(2), sequentialMode);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), FLIGHTS);
+
+        // then
+        assertThat(results).containsExactly("high:100", "medium:100", "high:200", "medium:200");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"false", "true"})
+    void shouldLimitMatchesPerGroup(boolean sequentialMode) {
+        // given
+        RuleSession session = createRuleSession(MatchLimit.firstMatch().perGroup("group"), sequentialMode);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), FLIGHTS);
+
+        // then
+        assertThat(results).containsExactly(
+                "high:100", "low:100", "other:100",
+                "high:200", "low:200", "other:200");
+    }
+
+    private static RuleSession createRuleSession(MatchLimit matchLimit, boolean sequentialMode) {
+        List<Rule> rules = Arrays.asList(
+                createRule("low", 1).attribute("group", "discount").build(),
+                createRule("high", 3).attribute("group", "fee").build(),
+                createRule("other", 0).build(),
+                createRule("medium", 2).attribute("group", "fee").build());
+        return new RulesEngineBuilder()
+                .withRulesRepository(uri -> rules)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withSequentialMode(sequentialMode)
+                        .withMatchLimit(matchLimit))
+                .build()
+                .createSession("test");
+    }
+
+    private static RuleDsl.RuleBuilder createRule(String name, long priority) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .priority(priority)
+                .fact("flight", Flight.class)
+                .predicate(value(true))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")));
+    }
+
+    public static final class Flight {
+        private final int number;
+
+        Flight(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(number);
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+    }
+}
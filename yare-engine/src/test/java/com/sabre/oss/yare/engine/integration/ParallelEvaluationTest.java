@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParallelEvaluationTest {
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"true", "false"})
+    void shouldFireConsequencesInTheSameOrderAsWithoutParallelism(boolean crossProductMode) {
+        // given
+        List<Object> facts = new ArrayList<>(createFlights(1000));
+        if (crossProductMode) {
+            facts.addAll(asList(new Airport("KRK"), new Airport("WAW")));
+        }
+        RulesEngine parallelEngine = createRuleEngine(crossProductMode, new DefaultRulesExecutorBuilder()
+                .withCrossProductMode(crossProductMode)
+                .withParallelExecutor(pool)
+                .withParallelBatchSize(7));
+        RulesEngine serialEngine = createRuleEngine(crossProductMode, new DefaultRulesExecutorBuilder()
+                .withCrossProductMode(crossProductMode));
+
+        // when
+        List<String> parallelResult = parallelEngine.createSession("test").execute(new ArrayList<>(), facts);
+        List<String> serialResult = serialEngine.createSession("test").execute(new ArrayList<>(), facts);
+
+        // then
+        assertThat(parallelResult).isNotEmpty();
+        assertThat(parallelResult).isEqualTo(serialResult);
+    }
+
+    @Test
+    void shouldEvaluateSingleBatchOnCallingThread() {
+        // given
+        RulesEngine rulesEngine = createRuleEngine(false, new DefaultRulesExecutorBuilder()
+                .withParallelExecutor(command -> {
+                    throw new IllegalStateException("Executor should not be used");
+                }));
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(new ArrayList<>(), createFlights(3));
+
+        // then
+        assertThat(result).containsExactly("evenNumber:WAW0", "lowNumber:WAW0", "lowNumber:KRK1", "evenNumber:KRK2", "lowNumber:KRK2");
+    }
+
+    @Test
+    void shouldBoundNumberOfPendingBatches() {
+        // given
+        AtomicInteger submittedBatches = new AtomicInteger();
+        RulesEngine rulesEngine = createRuleEngine(false, new DefaultRulesExecutorBuilder()
+                .withParallelExecutor(command -> {
+                    submittedBatches.incrementAndGet();
+                    pool.execute(command);
+                })
+                .withParallelBatchSize(1)
+                .withParallelMaxPendingBatches(2));
+        List<Integer> submittedBatchesWhenFired = new ArrayList<>();
+        List<String> results = new ArrayList<String>() {
+            @Override
+            public boolean add(String result) {
+                submittedBatchesWhenFired.add(submittedBatches.get());
+                return super.add(result);
+            }
+        };
+
+        // when
+        List<String> result = rulesEngine.createSession("test").execute(results, createFlights(50));
+
+        // then
+        assertThat(result).hasSize(75);
+        assertThat(submittedBatchesWhenFired.get(0)).isLessThanOrEqualTo(2);
+        assertThat(submittedBatches.get()).isEqualTo(49);
+    }
+
+    @Test
+    void shouldRejectParallelSequentialMode() {
+        // given
+        DefaultRulesExecutorBuilder builder = new DefaultRulesExecutorBuilder()
+                .withSequentialMode(true)
+                .withParallelExecutor(pool);
+
+        // when / then
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Parallel evaluation is not supported in sequential mode");
+    }
+
+    private RulesEngine createRuleEngine(boolean withAirport, DefaultRulesExecutorBuilder executorBuilder) {
+        List<Rule> rules = asList(
+                createRule("evenNumber", 20L, withAirport, equal(value("${flight.even}"), value(true))),
+                createRule("lowNumber", 10L, withAirport, less(value("${flight.number}"), value(500))));
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> rules)
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null)))
+                .withRulesExecutorBuilder(executorBuilder)
+                .build();
+    }
+
+    private Rule createRule(String name, long priority, boolean withAirport, com.sabre.oss.yare.dsl.Expression<Boolean> predicate) {
+        RuleDsl.RuleBuilder builder = RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class);
+        if (withAirport) {
+            builder.fact("airport", Airport.class);
+        }
+        return builder
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+    }
+
+    private static List<Flight> createFlights(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Flight(i % 3 == 0 ? "WAW" : "KRK", i))
+                .collect(Collectors.toList());
+    }
+
+    public static final class Flight {
+        private final String origin;
+        private final Integer number;
+
+        Flight(String origin, Integer number) {
+            this.origin = origin;
+            this.number = number;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        public Boolean getEven() {
+            return number % 2 == 0;
+        }
+
+        @Override
+        public String toString() {
+            return origin + number;
+        }
+    }
+
+    public static final class Airport {
+        private final String code;
+
+        Airport(String code) {
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+    }
+}
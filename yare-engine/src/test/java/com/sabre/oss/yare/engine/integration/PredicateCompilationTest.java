@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PredicateCompilationTest {
+    private static final ZonedDateTime NOW = ZonedDateTime.parse("2018-03-01T10:00:00+01:00");
+
+    @Test
+    void shouldMatchTheSameRulesAsInterpretedPredicates() {
+        // given
+        List<Flight> flights = createFlights(100);
+        RulesEngine compilingEngine = createRuleEngine(new DefaultRulesExecutorBuilder().withPredicateCompilation(true));
+        RulesEngine interpretingEngine = createRuleEngine(new DefaultRulesExecutorBuilder());
+
+        // when
+        List<String> compiledResult = compilingEngine.createSession("test").execute(new ArrayList<>(), flights);
+        List<String> interpretedResult = interpretingEngine.createSession("test").execute(new ArrayList<>(), flights);
+
+        // then
+        assertThat(compiledResult).isNotEmpty();
+        assertThat(compiledResult).isEqualTo(interpretedResult);
+    }
+
+    private RulesEngine createRuleEngine(DefaultRulesExecutorBuilder executorBuilder) {
+        List<Rule> rules = asList(
+                createRule("lowNumberWithOrigin", 40L, and(
+                        less(value("${flight.number}"), value(50)),
+                        not(isNull(value("${flight.origin}"))))),
+                createRule("lateOrEven", 30L, or(
+                        greater(value("${flight.departure}"), value(NOW.plusHours(50))),
+                        isTrue(value("${flight.even}")))),
+                createRule("oddNotFromWarsaw", 20L, and(
+                        not(equal(value("${flight.origin}"), value("WAW"))),
+                        isFalse(value("${flight.even}")))),
+                createRule("krakowOrFirst", 10L, or(
+                        match(value("${flight.origin}"), value("K.*")),
+                        lessOrEqual(value("${flight.number}"), value(3)))));
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> rules)
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null)))
+                .withRulesExecutorBuilder(executorBuilder)
+                .build();
+    }
+
+    private Rule createRule(String name, long priority, com.sabre.oss.yare.dsl.Expression<Boolean> predicate) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class)
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+    }
+
+    private static List<Flight> createFlights(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Flight(
+                        i % 7 == 0 ? null : i % 3 == 0 ? "WAW" : "KRK",
+                        i % 5 == 0 ? null : i,
+                        NOW.plusHours(i)))
+                .collect(Collectors.toList());
+    }
+
+    public static final class Flight {
+        private final String origin;
+        private final Integer number;
+        private final ZonedDateTime departure;
+
+        Flight(String origin, Integer number, ZonedDateTime departure) {
+            this.origin = origin;
+            this.number = number;
+            this.departure = departure;
+        }
+
+        public String getOrigin() {
+            return origin;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        public ZonedDateTime getDeparture() {
+            return departure;
+        }
+
+        public Boolean getEven() {
+            return number != null ? number % 2 == 0 : null;
+        }
+
+        @Override
+        public String toString() {
+            return origin + number;
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+    }
+}
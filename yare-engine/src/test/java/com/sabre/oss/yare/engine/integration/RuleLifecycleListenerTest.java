@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.Deadline;
+import com.sabre.oss.yare.core.ExecutionTimeoutException;
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.call.ProcessingContext;
+import com.sabre.oss.yare.core.listener.RuleLifecycleListener;
+import com.sabre.oss.yare.core.listener.SessionFinishedContext;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.Expression;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RuleLifecycleListenerTest {
+
+    @Test
+    void shouldNotifyListenerOfRuleLifecycle() {
+        // given
+        RecordingListener listener = new RecordingListener();
+        RuleSession session = createRuleSession(new DefaultRulesExecutorBuilder()
+                .withSequentialMode(true)
+                .withRuleLifecycleListener(listener));
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), Collections.singletonList(new Flight(100)));
+
+        // then
+        assertThat(results).containsExactly("cheapFlights:100");
+        assertThat(listener.events).containsExactly(
+                "beforeRuleEvaluated:cheapFlights",
+                "ruleMatched:cheapFlights",
+                "actionExecuted:cheapFlights",
+                "beforeRuleEvaluated:expensiveFlights",
+                "sessionFinished:test:[cheapFlights:100]");
+    }
+
+    @Test
+    void shouldNotifyListenerOfCompiledRules() {
+        // given
+        RecordingListener listener = new RecordingListener();
+        RuleSession session = createRuleSession(new DefaultRulesExecutorBuilder()
+                .withSequentialMode(true)
+                .withCompilationThreshold(1)
+                .withCompilationExecutor(Runnable::run)
+                .withRuleLifecycleListener(listener));
+
+        // when
+        session.execute(new ArrayList<>(), Collections.singletonList(new Flight(100)));
+        listener.events.clear();
+        session.execute(new ArrayList<>(), Collections.singletonList(new Flight(200)));
+
+        // then
+        assertThat(listener.events).containsExactly(
+                "beforeRuleEvaluated:cheapFlights",
+                "beforeRuleEvaluated:expensiveFlights",
+                "ruleMatched:expensiveFlights",
+                "actionExecuted:expensiveFlights",
+                "sessionFinished:test:[expensiveFlights:200]");
+    }
+
+    @Test
+    void shouldNotifyListenerOfSessionFinishedWhenEvaluationFails() {
+        // given
+        RecordingListener listener = new RecordingListener();
+        RuleSession session = createRuleSession(new DefaultRulesExecutorBuilder()
+                .withRuleLifecycleListener(listener));
+
+        // when / then
+        assertThatThrownBy(() -> session.execute(null, Collections.singletonList(new Flight(100))))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(listener.events).endsWith("sessionFinished:test:null");
+    }
+
+    @Test
+    void shouldNotifyListenerOfSessionFinishedWhenExecutionTimesOut() {
+        // given
+        RecordingListener listener = new RecordingListener();
+        RuleSession session = createRuleSession(new DefaultRulesExecutorBuilder()
+                .withRuleLifecycleListener(listener));
+
+        // when / then
+        assertThatThrownBy(() -> session.execute(new ArrayList<>(), Collections.singletonList(new Flight(100)), Deadline.after(Duration.ZERO)))
+                .isInstanceOf(ExecutionTimeoutException.class);
+        assertThat(listener.events).containsExactly("sessionFinished:test:[]");
+    }
+
+    private static RuleSession createRuleSession(DefaultRulesExecutorBuilder rulesExecutorBuilder) {
+        List<Rule> rules = Arrays.asList(
+                createRule("cheapFlights", 2, less(value("${flight.price}"), value("${flight.budget}"))),
+                createRule("expensiveFlights", 1, greaterOrEqual(value("${flight.price}"), value("${flight.budget}"))));
+        return new RulesEngineBuilder()
+                .withRulesRepository(uri -> rules)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null, null)))
+                .withRulesExecutorBuilder(rulesExecutorBuilder)
+                .build()
+                .createSession("test");
+    }
+
+    private static Rule createRule(String name, long priority, Expression<Boolean> predicate) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .priority(priority)
+                .fact("flight", Flight.class)
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+    }
+
+    private static final class RecordingListener implements RuleLifecycleListener {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void beforeRuleEvaluated(ProcessingContext context) {
+            events.add("beforeRuleEvaluated:" + context.getRuleId());
+        }
+
+        @Override
+        public void ruleMatched(ProcessingContext context) {
+            events.add("ruleMatched:" + context.getRuleId());
+        }
+
+        @Override
+        public void actionExecuted(ProcessingContext context) {
+            events.add("actionExecuted:" + context.getRuleId());
+        }
+
+        @Override
+        public void sessionFinished(SessionFinishedContext context) {
+            events.add("sessionFinished:" + context.getUri() + ":" + context.getResult());
+        }
+    }
+
+    public static final class Flight {
+        public final int price;
+        public final int budget = 150;
+
+        Flight(int price) {
+            this.price = price;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(price);
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.RulesExecutor;
+import com.sabre.oss.yare.core.management.EvictableCache;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.Expression;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetrics;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RuleMetricsTest {
+
+    @Test
+    void shouldRecordEvaluationsAndMatchesPerRule() {
+        // given
+        RuleMetricsRegistry registry = new RuleMetricsRegistry();
+        RuleSession session = createRuleSession(registry, false);
+
+        // when
+        session.execute(new ArrayList<>(), Arrays.asList(new Flight(100), new Flight(200), new Flight(300)));
+
+        // then
+        RuleMetrics cheapFlights = registry.get("test", "cheapFlights");
+        assertThat(cheapFlights.getEvaluationCount()).isEqualTo(3);
+        assertThat(cheapFlights.getMatchCount()).isEqualTo(1);
+        assertThat(cheapFlights.getConsequenceCount()).isEqualTo(1);
+        assertThat(cheapFlights.getPredicateTimeTotal()).isPositive();
+        RuleMetrics expensiveFlights = registry.get("test", "expensiveFlights");
+        assertThat(expensiveFlights.getEvaluationCount()).isEqualTo(3);
+        assertThat(expensiveFlights.getMatchCount()).isEqualTo(2);
+        assertThat(expensiveFlights.getConsequenceCount()).isEqualTo(2);
+        assertThat(registry.getAll()).hasSize(2);
+    }
+
+    @Test
+    void shouldRecordEvaluationsOfCompiledRules() {
+        // given
+        RuleMetricsRegistry registry = new RuleMetricsRegistry();
+        RuleSession session = createRuleSession(registry, true);
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), Arrays.asList(new Flight(100), new Flight(200)));
+
+        // then
+        assertThat(results).containsExactlyInAnyOrder("cheapFlights:100", "expensiveFlights:200");
+        assertThat(registry.get("test", "cheapFlights").getEvaluationCount()).isEqualTo(2);
+        assertThat(registry.get("test", "cheapFlights").getMatchCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldExposeRuleMetricsAsMXBeans() throws Exception {
+        // given
+        MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+        RuleMetricsRegistry registry = new RuleMetricsRegistry(mBeanServer);
+        RuleSession session = createRuleSession(registry, false);
+
+        // when
+        session.execute(new ArrayList<>(), Arrays.asList(new Flight(100), new Flight(200)));
+
+        // then
+        ObjectName name = RuleMetricsRegistry.createObjectName("test", "expensiveFlights");
+        assertThat(mBeanServer.getAttribute(name, "EvaluationCount")).isEqualTo(2L);
+        assertThat(mBeanServer.getAttribute(name, "MatchCount")).isEqualTo(1L);
+
+        // when
+        registry.clear();
+
+        // then
+        assertThat(mBeanServer.isRegistered(name)).isFalse();
+        assertThat(registry.getAll()).isEmpty();
+    }
+
+    @Test
+    void shouldUnregisterMetricsOfEvictedRules() throws Exception {
+        // given
+        MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+        RuleMetricsRegistry registry = new RuleMetricsRegistry(mBeanServer);
+        AtomicReference<RulesExecutor> executor = new AtomicReference<>();
+        RulesEngine rulesEngine = createRuleEngine(createCapturingRulesExecutorBuilder(executor)
+                .withRuleMetricsRegistry(registry));
+        rulesEngine.createSession("test").execute(new ArrayList<>(), Arrays.asList(new Flight(100), new Flight(200)));
+        rulesEngine.createSession("other").execute(new ArrayList<>(), Arrays.asList(new Flight(100), new Flight(200)));
+
+        // when
+        ((EvictableCache) executor.get()).evict("test");
+
+        // then
+        assertThat(mBeanServer.isRegistered(RuleMetricsRegistry.createObjectName("test", "expensiveFlights"))).isFalse();
+        assertThat(registry.getAll()).extracting(RuleMetrics::getUri).containsOnly("other");
+
+        // when
+        ((EvictableCache) executor.get()).clear();
+
+        // then
+        assertThat(mBeanServer.isRegistered(RuleMetricsRegistry.createObjectName("other", "expensiveFlights"))).isFalse();
+        assertThat(registry.getAll()).isEmpty();
+    }
+
+    private static RuleSession createRuleSession(RuleMetricsRegistry registry, boolean compiled) {
+        return createRuleEngine(new DefaultRulesExecutorBuilder()
+                .withPredicateCompilation(compiled)
+                .withRuleMetricsRegistry(registry))
+                .createSession("test");
+    }
+
+    private static RulesEngine createRuleEngine(DefaultRulesExecutorBuilder rulesExecutorBuilder) {
+        List<Rule> rules = Arrays.asList(
+                createRule("cheapFlights", less(value("${flight.price}"), value("${flight.budget}"))),
+                createRule("expensiveFlights", greaterOrEqual(value("${flight.price}"), value("${flight.budget}"))));
+        return new RulesEngineBuilder()
+                .withRulesRepository(uri -> rules)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null, null)))
+                .withRulesExecutorBuilder(rulesExecutorBuilder)
+                .build();
+    }
+
+    private static DefaultRulesExecutorBuilder createCapturingRulesExecutorBuilder(AtomicReference<RulesExecutor> executor) {
+        return new DefaultRulesExecutorBuilder() {
+            @Override
+            public RulesExecutor build() {
+                executor.set(super.build());
+                return executor.get();
+            }
+        };
+    }
+
+    private static Rule createRule(String name, Expression<Boolean> predicate) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .fact("flight", Flight.class)
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+    }
+
+    public static final class Flight {
+        public final int price;
+        public final int budget = 150;
+
+        Flight(int price) {
+            this.price = price;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(price);
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RulesReloadTest {
+    private static final Duration REFRESH_TIME = Duration.ofMillis(10);
+
+    private final ConcurrentLinkedQueue<Runnable> reloads = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Collection<Rule>> rules = new AtomicReference<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private RulesEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        rules.set(Collections.singletonList(createRule("first")));
+        engine = new RulesEngineBuilder()
+                .withRulesRepository(uri -> {
+                    loads.incrementAndGet();
+                    Collection<Rule> current = rules.get();
+                    if (current == null) {
+                        throw new IllegalStateException("Repository unavailable");
+                    }
+                    return current;
+                })
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withRulesCacheRefreshTime(REFRESH_TIME)
+                        .withRulesReloadExecutor(reloads::add))
+                .build();
+    }
+
+    @Test
+    void shouldReloadRulesInBackgroundAndPublishThemToLongLivedSessions() {
+        // given
+        RuleSession session = engine.createSession("test");
+        List<String> before = execute(session);
+        rules.set(Arrays.asList(createRule("first"), createRule("second")));
+        sleep(REFRESH_TIME.multipliedBy(2));
+
+        // when
+        List<String> duringReload = execute(engine.createSession("test"));
+        reloads.forEach(Runnable::run);
+        List<String> afterReload = execute(session);
+
+        // then
+        assertThat(before).containsExactly("first");
+        assertThat(duringReload).containsExactly("first");
+        assertThat(afterReload).containsExactlyInAnyOrder("first", "second");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepCurrentRulesWhenReloadFails() {
+        // given
+        RuleSession session = engine.createSession("test");
+        execute(session);
+        rules.set(null);
+        sleep(REFRESH_TIME.multipliedBy(2));
+
+        // when
+        execute(engine.createSession("test"));
+        reloads.forEach(Runnable::run);
+        List<String> results = execute(session);
+
+        // then
+        assertThat(results).containsExactly("first");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static List<String> execute(RuleSession session) {
+        return session.execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Rule createRule(String name) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .fact("flight", Flight.class)
+                .predicate(value(true))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")))
+                .build();
+    }
+
+    public static class Flight {
+    }
+
+    public static class TestAction {
+
+        public TestAction() {
+        }
+
+        public void collect(List<String> results, String ruleName) {
+            results.add(ruleName);
+        }
+    }
+}
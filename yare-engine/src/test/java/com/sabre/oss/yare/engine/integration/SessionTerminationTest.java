@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.Deadline;
+import com.sabre.oss.yare.core.EngineController;
+import com.sabre.oss.yare.core.ExecutionTimeoutException;
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SessionTerminationTest {
+    private static final List<Object> FLIGHTS = Arrays.asList(new Flight(1), new Flight(2), new Flight(3));
+
+    @Test
+    void shouldTerminateOnlyExecutionWhichClosedSession() {
+        // given
+        RuleSession session = createRuleSession(new TestAction(1, 0));
+
+        // when
+        List<String> first = session.execute(new ArrayList<>(), FLIGHTS);
+        List<String> second = session.execute(new ArrayList<>(), Collections.singletonList(new Flight(4)));
+
+        // then
+        assertThat(first).containsExactly("1");
+        assertThat(second).containsExactly("4");
+    }
+
+    @Test
+    void shouldThrowWhenDeadlinePassed() {
+        // given
+        RuleSession session = createRuleSession(new TestAction(Integer.MAX_VALUE, 0));
+        Deadline deadline = Deadline.after(Duration.ZERO);
+
+        // when / then
+        assertThatThrownBy(() -> session.execute(new ArrayList<>(), FLIGHTS, deadline))
+                .isInstanceOf(ExecutionTimeoutException.class)
+                .hasMessage("Execution of rules 'test' exceeded timeout of PT0S");
+    }
+
+    @Test
+    void shouldReturnPartialResultWhenDeadlinePassed() {
+        // given
+        RuleSession session = createRuleSession(new TestAction(Integer.MAX_VALUE, 100));
+        Deadline deadline = Deadline.after(Duration.ofMillis(50)).returningPartialResult();
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), FLIGHTS, deadline);
+
+        // then
+        assertThat(results).containsExactly("1");
+    }
+
+    @Test
+    void shouldNotTerminateExecutionWithinDeadline() {
+        // given
+        RuleSession session = createRuleSession(new TestAction(Integer.MAX_VALUE, 0));
+
+        // when
+        List<String> results = session.execute(new ArrayList<>(), FLIGHTS, Deadline.after(Duration.ofMinutes(1)));
+
+        // then
+        assertThat(results).containsExactly("1", "2", "3");
+    }
+
+    private static RuleSession createRuleSession(TestAction action) {
+        List<Rule> rules = Collections.singletonList(RuleDsl.ruleBuilder()
+                .name("allFlights")
+                .fact("flight", Flight.class)
+                .predicate(value(true))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("flight", value("${flight}")),
+                        param("engineController", value("${engineController}")))
+                .build());
+        return new RulesEngineBuilder()
+                .withRulesRepository(uri -> rules)
+                .withActionMapping("collect", method(action, a -> a.collect(null, null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withSequentialMode(true))
+                .build()
+                .createSession("test");
+    }
+
+    public static final class Flight {
+        private final int number;
+
+        Flight(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(number);
+        }
+    }
+
+    public static class TestAction {
+        private int maxResults;
+        private long sleepMillis;
+
+        public TestAction() {
+        }
+
+        TestAction(int maxResults, long sleepMillis) {
+            this.maxResults = maxResults;
+            this.sleepMillis = sleepMillis;
+        }
+
+        public void collect(List<String> results, Flight flight, EngineController engineController) {
+            results.add(flight.toString());
+            sleep();
+            if (results.size() == maxResults) {
+                engineController.closeSession();
+            }
+        }
+
+        private void sleep() {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
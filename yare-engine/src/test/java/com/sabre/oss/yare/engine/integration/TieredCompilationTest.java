@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TieredCompilationTest {
+
+    @Test
+    void shouldCompileRulesOnceThresholdIsReached() {
+        // given
+        AtomicInteger compilations = new AtomicInteger();
+        RulesEngine rulesEngine = createRuleEngine(new DefaultRulesExecutorBuilder()
+                .withCompilationThreshold(2)
+                .withCompilationExecutor(command -> {
+                    compilations.incrementAndGet();
+                    command.run();
+                }));
+        RuleSession session = rulesEngine.createSession("test");
+        List<Flight> facts = asList(new Flight(1), new Flight(600), new Flight(null));
+
+        // when
+        List<String> interpretedResult = session.execute(new ArrayList<>(), facts);
+        int compilationsBeforeThreshold = compilations.get();
+        List<String> thresholdResult = session.execute(new ArrayList<>(), facts);
+        List<String> compiledResult = session.execute(new ArrayList<>(), facts);
+        List<String> newSessionResult = rulesEngine.createSession("test").execute(new ArrayList<>(), facts);
+
+        // then
+        assertThat(compilationsBeforeThreshold).isZero();
+        assertThat(compilations.get()).isEqualTo(1);
+        assertThat(interpretedResult).containsExactly("lowNumber:1", "unknownNumber:null");
+        assertThat(thresholdResult).isEqualTo(interpretedResult);
+        assertThat(compiledResult).isEqualTo(interpretedResult);
+        assertThat(newSessionResult).isEqualTo(interpretedResult);
+    }
+
+    @Test
+    void shouldKeepInterpretedRulesWhenCompilationFails() {
+        // given
+        RulesEngine rulesEngine = createRuleEngine(new DefaultRulesExecutorBuilder()
+                .withCompilationThreshold(1)
+                .withCompilationExecutor(command -> {
+                    throw new IllegalStateException("Executor is shut down");
+                }));
+        RuleSession session = rulesEngine.createSession("test");
+
+        // when
+        List<String> result = session.execute(new ArrayList<>(), Collections.singletonList(new Flight(2)));
+
+        // then
+        assertThat(result).containsExactly("lowNumber:2");
+    }
+
+    @Test
+    void shouldRejectTieredCompilationOfEagerlyCompiledPredicates() {
+        // given
+        DefaultRulesExecutorBuilder builder = new DefaultRulesExecutorBuilder()
+                .withPredicateCompilation(true)
+                .withCompilationThreshold(10);
+
+        // when / then
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Tiered compilation is not supported when predicates are compiled eagerly");
+    }
+
+    private RulesEngine createRuleEngine(DefaultRulesExecutorBuilder executorBuilder) {
+        List<Rule> rules = asList(
+                createRule("lowNumber", 20L, less(value("${flight.number}"), value(500))),
+                createRule("unknownNumber", 10L, isNull(value("${flight.number}"))));
+        return new RulesEngineBuilder()
+                .withRulesRepository(i -> rules)
+                .withActionMapping("collect", method(new TestAction(), (a) -> a.collect(null, null, null)))
+                .withRulesExecutorBuilder(executorBuilder)
+                .build();
+    }
+
+    private Rule createRule(String name, long priority, com.sabre.oss.yare.dsl.Expression<Boolean> predicate) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .attribute("priority", priority)
+                .fact("flight", Flight.class)
+                .predicate(predicate)
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")),
+                        param("flight", value("${flight}")))
+                .build();
+    }
+
+    public static final class Flight {
+        private final Integer number;
+
+        Flight(Integer number) {
+            this.number = number;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(number);
+        }
+    }
+
+    public static class TestAction {
+        public void collect(List<String> results, String ruleName, Flight flight) {
+            results.add(ruleName + ":" + flight);
+        }
+    }
+}
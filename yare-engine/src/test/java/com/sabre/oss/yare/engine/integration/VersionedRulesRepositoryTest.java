@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.engine.integration;
+
+import com.sabre.oss.yare.core.RulesEngine;
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.RuleSession;
+import com.sabre.oss.yare.core.RulesExecutor;
+import com.sabre.oss.yare.core.VersionedRules;
+import com.sabre.oss.yare.core.VersionedRulesRepository;
+import com.sabre.oss.yare.core.management.EvictableCache;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetrics;
+import com.sabre.oss.yare.engine.executor.metrics.RuleMetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VersionedRulesRepositoryTest {
+    private TestRepository repository;
+    private RulesEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        repository = new TestRepository(Collections.singletonList(createRule("first")));
+        engine = new RulesEngineBuilder()
+                .withRulesRepository(repository)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withRulesReloadExecutor(Runnable::run))
+                .build();
+    }
+
+    @Test
+    void shouldReloadRulesImmediatelyWhenChanged() {
+        // given
+        List<String> before = engine.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // when
+        repository.update(Arrays.asList(createRule("first"), createRule("second")));
+        List<String> after = engine.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // then
+        assertThat(before).containsExactly("first");
+        assertThat(after).containsExactlyInAnyOrder("first", "second");
+        assertThat(repository.fetches.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotFetchRulesWhenVersionIsUnchanged() {
+        // given
+        engine.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // when
+        repository.notifyChanged("test");
+        List<String> results = engine.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // then
+        assertThat(results).containsExactly("first");
+        assertThat(repository.checks.get()).isEqualTo(2);
+        assertThat(repository.fetches.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRemoveMetricsOfRulesRemovedByReload() {
+        // given
+        RuleMetricsRegistry registry = new RuleMetricsRegistry();
+        RulesEngine engineWithMetrics = new RulesEngineBuilder()
+                .withRulesRepository(repository)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withRulesReloadExecutor(Runnable::run)
+                        .withRuleMetricsRegistry(registry))
+                .build();
+        engineWithMetrics.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // when
+        repository.update(Collections.singletonList(createRule("second")));
+        engineWithMetrics.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // then
+        assertThat(registry.getAll()).extracting(RuleMetrics::getRuleId).containsExactly("second");
+    }
+
+    @Test
+    void shouldReloadChangedRulesWithReloadExecutor() {
+        // given
+        List<Runnable> reloads = new ArrayList<>();
+        RulesEngine engineWithReloadExecutor = new RulesEngineBuilder()
+                .withRulesRepository(repository)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withRulesReloadExecutor(reloads::add))
+                .build();
+        engineWithReloadExecutor.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // when
+        repository.update(Arrays.asList(createRule("first"), createRule("second")));
+        List<String> beforeReload = engineWithReloadExecutor.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+        reloads.forEach(Runnable::run);
+        List<String> afterReload = engineWithReloadExecutor.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // then
+        assertThat(reloads).hasSize(1);
+        assertThat(beforeReload).containsExactly("first");
+        assertThat(afterReload).containsExactlyInAnyOrder("first", "second");
+    }
+
+    @Test
+    void shouldReloadRulesImmediatelyWhenChangedAfterCacheIsCleared() {
+        // given
+        AtomicReference<RulesExecutor> executor = new AtomicReference<>();
+        RulesEngine clearedEngine = new RulesEngineBuilder()
+                .withRulesRepository(repository)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder() {
+                    @Override
+                    public RulesExecutor build() {
+                        executor.set(super.build());
+                        return executor.get();
+                    }
+                }.withRulesReloadExecutor(Runnable::run))
+                .build();
+        clearedEngine.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+        ((EvictableCache) executor.get()).clear();
+        clearedEngine.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // when
+        repository.update(Arrays.asList(createRule("first"), createRule("second")));
+        List<String> results = clearedEngine.createSession("test").execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // then
+        assertThat(results).containsExactlyInAnyOrder("first", "second");
+        assertThat(repository.fetches.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldResolveRulesOncePerBatch() {
+        // given
+        Rule updatingRule = RuleDsl.ruleBuilder()
+                .name("updating")
+                .fact("flight", Flight.class)
+                .predicate(value(true))
+                .action("update",
+                        param("context", value("${ctx}")))
+                .build();
+        repository.update(Arrays.asList(createRule("first"), updatingRule));
+        UpdateAction updateAction = new UpdateAction();
+        updateAction.update = () -> repository.update(Collections.singletonList(createRule("second")));
+        RulesEngine updatingEngine = new RulesEngineBuilder()
+                .withRulesRepository(repository)
+                .withActionMapping("collect", method(new TestAction(), a -> a.collect(null, null)))
+                .withActionMapping("update", method(updateAction, a -> a.update(null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withRulesReloadExecutor(Runnable::run))
+                .build();
+        RuleSession session = updatingEngine.createSession("test");
+
+        // when
+        List<List<String>> batchResults = session.executeAll(Arrays.asList(
+                RuleSession.Request.of(new ArrayList<>(), Collections.singletonList(new Flight())),
+                RuleSession.Request.of(new ArrayList<>(), Collections.singletonList(new Flight()))));
+        List<String> afterBatch = session.execute(new ArrayList<>(), Collections.singletonList(new Flight()));
+
+        // then
+        assertThat(batchResults).containsExactly(Collections.singletonList("first"), Collections.singletonList("first"));
+        assertThat(afterBatch).containsExactly("second");
+    }
+
+    private static Rule createRule(String name) {
+        return RuleDsl.ruleBuilder()
+                .name(name)
+                .fact("flight", Flight.class)
+                .predicate(value(true))
+                .action("collect",
+                        param("context", value("${ctx}")),
+                        param("ruleName", value("${ruleName}")))
+                .build();
+    }
+
+    private static class TestRepository implements VersionedRulesRepository {
+        private final AtomicInteger checks = new AtomicInteger();
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+        private volatile Collection<Rule> rules;
+        private volatile int version;
+
+        TestRepository(Collection<Rule> rules) {
+            this.rules = rules;
+        }
+
+        void update(Collection<Rule> rules) {
+            this.rules = rules;
+            version++;
+            notifyChanged("test");
+        }
+
+        void notifyChanged(String uri) {
+            listeners.forEach(listener -> listener.rulesChanged(uri));
+        }
+
+        @Override
+        public String getVersion(String uri) {
+            return String.valueOf(version);
+        }
+
+        @Override
+        public Optional<VersionedRules> getIfChanged(String uri, String sinceVersion) {
+            checks.incrementAndGet();
+            String currentVersion = getVersion(uri);
+            if (Objects.equals(currentVersion, sinceVersion)) {
+                return Optional.empty();
+            }
+            fetches.incrementAndGet();
+            return Optional.of(VersionedRules.of(currentVersion, rules));
+        }
+
+        @Override
+        public void addChangeListener(ChangeListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeChangeListener(ChangeListener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    public static class Flight {
+    }
+
+    public static class TestAction {
+
+        public TestAction() {
+        }
+
+        public void collect(List<String> results, String ruleName) {
+            results.add(ruleName);
+        }
+    }
+
+    public static class UpdateAction {
+        private Runnable update;
+
+        public UpdateAction() {
+        }
+
+        public void update(List<String> results) {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.invoker.java;
+
+import com.sabre.oss.yare.core.call.Argument;
+import com.sabre.oss.yare.core.call.ArgumentValueResolver;
+import com.sabre.oss.yare.core.invocation.Invocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MethodCallInvocationFactoryTest {
+    private final ArgumentValueResolver resolver = (variableResolver, argument) -> ((Argument.Value) argument).getValue();
+
+    @Test
+    void shouldInvokeMethodWithPrimitiveArgumentsAndResult() {
+        // given
+        MethodCallInvocationFactory factory = new MethodCallInvocationFactory(method(new Calculator(), c -> c.add(0, 0)));
+        Invocation<?, Object> invocation = factory.create(() -> resolver, Argument.invocationOf("add", Integer.class, "add",
+                Argument.valueOf("a", int.class, 2), Argument.valueOf("b", int.class, 3)));
+
+        // when
+        Object result = invocation.proceed(null);
+
+        // then
+        assertThat(result).isEqualTo(5);
+    }
+
+    @Test
+    void shouldInvokeVoidMethodRepeatedly() {
+        // given
+        Calculator calculator = new Calculator();
+        MethodCallInvocationFactory factory = new MethodCallInvocationFactory(method(calculator, c -> c.record(null)));
+        Invocation<?, Object> invocation = factory.create(() -> resolver, Argument.invocationOf("record", Void.class, "record",
+                Argument.valueOf("value", "first")));
+
+        // when
+        Object first = invocation.proceed(null);
+        Object second = invocation.proceed(null);
+
+        // then
+        assertThat(first).isNull();
+        assertThat(second).isNull();
+        assertThat(calculator.recorded).containsExactly("first", "first");
+    }
+
+    @Test
+    void shouldPropagateExceptionThrownByMethod() {
+        // given
+        MethodCallInvocationFactory factory = new MethodCallInvocationFactory(method(new Calculator(), Calculator::fail));
+        Invocation<?, Object> invocation = factory.create(() -> resolver, Argument.invocationOf("fail", Void.class, "fail"));
+
+        // when / then
+        assertThatThrownBy(() -> invocation.proceed(null))
+                .isExactlyInstanceOf(UnsupportedOperationException.class)
+                .hasMessage("fail");
+    }
+
+    public static class Calculator {
+        private final List<Object> recorded = new ArrayList<>();
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public void record(Object value) {
+            recorded.add(value);
+        }
+
+        public void fail() {
+            throw new UnsupportedOperationException("fail");
+        }
+    }
+}
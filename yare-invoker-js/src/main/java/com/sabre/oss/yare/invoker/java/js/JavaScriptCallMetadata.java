@@ -32,6 +32,7 @@ import java.util.Objects;
 public final class JavaScriptCallMetadata implements CallMetadata {
     private final String functionName;
     private final String script;
+    private volatile JavaScriptFunction function;
 
     private JavaScriptCallMetadata(String functionName, String script) {
         this.functionName = Objects.requireNonNull(functionName);
@@ -62,6 +63,25 @@ public final class JavaScriptCallMetadata implements CallMetadata {
         return script;
     }
 
+    /**
+     * Returns function compiled on first use.
+     *
+     * @return compiled function
+     */
+    JavaScriptFunction getFunction() {
+        JavaScriptFunction compiled = function;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = function;
+                if (compiled == null) {
+                    compiled = new JavaScriptFunction(this);
+                    function = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.invoker.java.js;
+
+import jdk.nashorn.api.scripting.JSObject;
+import jdk.nashorn.api.scripting.NashornException;
+import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import static java.lang.String.format;
+
+/**
+ * JavaScript function described by {@link JavaScriptCallMetadata}.
+ * <p>
+ * Script is compiled once and evaluated in fresh bindings on each call, so no global state of the script
+ * is shared between calls nor retained after them.
+ */
+final class JavaScriptFunction {
+    private static final ScriptEngine scriptEngine = new NashornScriptEngineFactory().getScriptEngine();
+
+    private final JavaScriptCallMetadata callMetadata;
+    private final CompiledScript script;
+
+    JavaScriptFunction(JavaScriptCallMetadata callMetadata) {
+        this.callMetadata = callMetadata;
+        try {
+            this.script = ((Compilable) scriptEngine).compile(callMetadata.getScript());
+        } catch (ScriptException e) {
+            throw failedToExecute(e);
+        }
+    }
+
+    Object call(Object[] args) {
+        try {
+            Object result = evaluate().call(null, args);
+            return ScriptObjectMirror.isUndefined(result) ? null : result;
+        } catch (NashornException e) {
+            throw failedToExecute(e);
+        }
+    }
+
+    private JSObject evaluate() {
+        Bindings bindings = scriptEngine.createBindings();
+        try {
+            script.eval(bindings);
+        } catch (ScriptException e) {
+            throw failedToExecute(e);
+        }
+        Object function = bindings.get(callMetadata.getFunctionName());
+        if (!(function instanceof JSObject) || !((JSObject) function).isFunction()) {
+            throw new IllegalArgumentException(format("No function %s in script %s",
+                    callMetadata.getFunctionName(), callMetadata.getScript()));
+        }
+        return (JSObject) function;
+    }
+
+    private IllegalArgumentException failedToExecute(Exception e) {
+        return new IllegalArgumentException(format("Failed to execute script %s", callMetadata.getScript()), e);
+    }
+}
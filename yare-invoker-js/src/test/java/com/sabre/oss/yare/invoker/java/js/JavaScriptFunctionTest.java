@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.invoker.java.js;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.sabre.oss.yare.invoker.java.js.JavaScriptCallMetadata.js;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JavaScriptFunctionTest {
+    private static final String COUNTING_SCRIPT = "" +
+            "var counter = 0;" +
+            "function increment(value) {" +
+            "   counter += value;" +
+            "   return counter;" +
+            "}" +
+            "function nothing() {" +
+            "}";
+
+    @Test
+    void shouldCompileScriptOnce() {
+        // given
+        JavaScriptCallMetadata metadata = js("increment", COUNTING_SCRIPT);
+
+        // when
+        JavaScriptFunction function = metadata.getFunction();
+
+        // then
+        assertThat(metadata.getFunction()).isSameAs(function);
+    }
+
+    @Test
+    void shouldNotRetainScriptStateBetweenCalls() throws Exception {
+        // given
+        JavaScriptFunction function = js("increment", COUNTING_SCRIPT).getFunction();
+
+        // when
+        function.call(new Object[]{1});
+        Object result = function.call(new Object[]{2});
+        Object otherThreadResult = CompletableFuture.supplyAsync(() -> function.call(new Object[]{5})).get();
+
+        // then
+        assertThat(((Number) result).intValue()).isEqualTo(2);
+        assertThat(((Number) otherThreadResult).intValue()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReturnNullWhenFunctionReturnsUndefined() {
+        // given
+        JavaScriptFunction function = js("nothing", COUNTING_SCRIPT).getFunction();
+
+        // when
+        Object result = function.call(new Object[0]);
+
+        // then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void shouldFailWhenFunctionIsMissing() {
+        // given
+        JavaScriptFunction function = js("missing", COUNTING_SCRIPT).getFunction();
+
+        // when / then
+        assertThatThrownBy(() -> function.call(new Object[0]))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("No function missing in script");
+    }
+
+    @Test
+    void shouldFailToCompileInvalidScript() {
+        // given
+        JavaScriptCallMetadata metadata = js("invalid", "function invalid( {");
+
+        // when / then
+        assertThatThrownBy(metadata::getFunction)
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Failed to execute script");
+    }
+}
@@ -37,7 +37,7 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
@@ -72,7 +72,7 @@ public abstract class AbstractPerformanceTest {
 
     @Test
     public void runBenchmarks() throws RunnerException {
-        Options opt = new OptionsBuilder()
+        ChainedOptionsBuilder options = new OptionsBuilder()
                 .include(this.getClass().getSimpleName())
                 .mode(Mode.AverageTime)
                 .timeUnit(MILLISECONDS)
@@ -87,9 +87,18 @@ public abstract class AbstractPerformanceTest {
                 .shouldDoGC(true)
                 .result("benchmarks/performance-results.csv")
                 .resultFormat(ResultFormatType.CSV)
-                .jvmArgs("-server", "-Xms2048M", "-Xmx2048M", "-XX:+UseG1GC")
-                .build();
-        new Runner(opt).run();
+                .jvmArgs("-server", "-Xms2048M", "-Xmx2048M", "-XX:+UseG1GC");
+        new Runner(configure(options).build()).run();
+    }
+
+    /**
+     * Allows benchmark suites to adjust default options, e.g. to add profilers.
+     *
+     * @param options default options
+     * @return options to run benchmarks with
+     */
+    protected ChainedOptionsBuilder configure(ChainedOptionsBuilder options) {
+        return options;
     }
 
     void benchmarkTest(Context benchmarkContext) {
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.performance.suits;
+
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+
+/**
+ * Measures allocation of rules evaluation (see {@code gc.alloc.rate.norm}) for rules referring to
+ * facts' fields and rules' attributes, which are resolved via {@code PredicateContext} slots.
+ */
+public class PredicateContextAllocationTest extends AbstractPerformanceTest {
+
+    public PredicateContextAllocationTest() {
+        Context.setRulesEngineProvider(config -> new RulesEngineBuilder()
+                .withRulesRepository(i -> config.getRules())
+                .withActionMapping("collect", method(new ResultCollectingAction(), (action) -> action.collect(null, null, null)))
+                .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                        .withSequentialMode(false))
+                .build());
+    }
+
+    @Override
+    protected ChainedOptionsBuilder configure(ChainedOptionsBuilder options) {
+        return options
+                .addProfiler(GCProfiler.class)
+                .param("numberOfRules", "10", "250", "2500")
+                .param("numberOfFacts", "10", "250", "2500");
+    }
+
+    @Benchmark
+    public void benchmarkTest(Context benchmarkContext) {
+        super.benchmarkTest(benchmarkContext);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Context extends AbstractPerformanceTest.Context {
+
+        @Setup
+        public void setup() {
+            super.setup();
+        }
+
+        @Override
+        protected List<Rule> getRules() {
+            List<Rule> rules = new ArrayList<>(2);
+
+            rules.add(RuleDsl.ruleBuilder()
+                    .name("amountAboveAttribute")
+                    .attribute("minAmount", 0)
+                    .fact("payment", Payment.class)
+                    .predicate(
+                            and(
+                                    greater(value("${payment.amount}"), value("${minAmount}")),
+                                    not(isNull(value("${payment.currency}")))
+                            )
+                    )
+                    .action("collect",
+                            param("context", value("${ctx}")),
+                            param("ruleName", value("${ruleName}")),
+                            param("fact", value("${payment}")))
+                    .build()
+            );
+
+            rules.add(RuleDsl.ruleBuilder()
+                    .name("amountBelowAttribute")
+                    .attribute("maxAmount", 1000)
+                    .fact("payment", Payment.class)
+                    .predicate(
+                            or(
+                                    less(value("${payment.amount}"), value("${maxAmount}")),
+                                    isNull(value("${payment.currency}"))
+                            )
+                    )
+                    .action("collect",
+                            param("context", value("${ctx}")),
+                            param("ruleName", value("${ruleName}")),
+                            param("fact", value("${payment}")))
+                    .build()
+            );
+
+            return rules;
+        }
+
+        @Override
+        protected Object getFact() {
+            return new Payment(100, "EUR");
+        }
+    }
+
+    public static class Payment {
+        private final Integer amount;
+        private final String currency;
+
+        Payment(Integer amount, String currency) {
+            this.amount = amount;
+            this.currency = currency;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+    }
+}
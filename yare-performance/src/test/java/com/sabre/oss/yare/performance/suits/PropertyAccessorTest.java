@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright 2018 Sabre GLBL Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sabre.oss.yare.performance.suits;
+
+import com.sabre.oss.yare.core.RulesEngineBuilder;
+import com.sabre.oss.yare.core.model.Rule;
+import com.sabre.oss.yare.dsl.RuleDsl;
+import com.sabre.oss.yare.engine.executor.DefaultRulesExecutorBuilder;
+import com.sabre.oss.yare.engine.executor.runtime.value.PropertyAccessorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.sabre.oss.yare.dsl.RuleDsl.*;
+import static com.sabre.oss.yare.invoker.java.MethodCallMetadata.method;
+
+/**
+ * Compares evaluation of rules referring to chained properties of facts with accessors generated by
+ * {@link PropertyAccessorFactory#JAVASSIST} and composed of method handles by {@link PropertyAccessorFactory#METHOD_HANDLES}.
+ */
+public class PropertyAccessorTest extends AbstractPerformanceTest {
+
+    @Override
+    protected ChainedOptionsBuilder configure(ChainedOptionsBuilder options) {
+        return options
+                .param("numberOfRules", "10", "250", "2500")
+                .param("numberOfFacts", "10", "250", "2500");
+    }
+
+    @Benchmark
+    public void benchmarkTest(Context benchmarkContext) {
+        super.benchmarkTest(benchmarkContext);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Context extends AbstractPerformanceTest.Context {
+        @Param({"JAVASSIST", "METHOD_HANDLES"})
+        String propertyAccessorFactory;
+
+        @Setup
+        public void setup() {
+            PropertyAccessorFactory factory = "METHOD_HANDLES".equals(propertyAccessorFactory)
+                    ? PropertyAccessorFactory.METHOD_HANDLES
+                    : PropertyAccessorFactory.JAVASSIST;
+            setRulesEngineProvider(config -> new RulesEngineBuilder()
+                    .withRulesRepository(i -> config.getRules())
+                    .withActionMapping("collect", method(new ResultCollectingAction(), (action) -> action.collect(null, null, null)))
+                    .withRulesExecutorBuilder(new DefaultRulesExecutorBuilder()
+                            .withPropertyAccessorFactory(factory))
+                    .build());
+            super.setup();
+        }
+
+        @Override
+        protected List<Rule> getRules() {
+            List<Rule> rules = new ArrayList<>(2);
+
+            rules.add(RuleDsl.ruleBuilder()
+                    .name("customerWithAddress")
+                    .fact("order", Order.class)
+                    .predicate(
+                            and(
+                                    equal(value("${order.customer.name}"), value("Smith")),
+                                    equal(value("${order.address.country}"), value("PL"))
+                            )
+                    )
+                    .action("collect",
+                            param("context", value("${ctx}")),
+                            param("ruleName", value("${ruleName}")),
+                            param("fact", value("${order}")))
+                    .build()
+            );
+
+            rules.add(RuleDsl.ruleBuilder()
+                    .name("linesWithCode")
+                    .fact("order", Order.class)
+                    .predicate(
+                            contains(
+                                    castToCollection(value("${order.lines.code}"), String.class),
+                                    values(String.class, value("A"))
+                            )
+                    )
+                    .action("collect",
+                            param("context", value("${ctx}")),
+                            param("ruleName", value("${ruleName}")),
+                            param("fact", value("${order}")))
+                    .build()
+            );
+
+            return rules;
+        }
+
+        @Override
+        protected Object getFact() {
+            return new Order(new Customer("Smith"), Arrays.asList(new Line("A"), new Line("B")), new Address("PL"));
+        }
+    }
+
+    public static class Order {
+        private final Customer customer;
+        private final List<Line> lines;
+        public final Address address;
+
+        Order(Customer customer, List<Line> lines, Address address) {
+            this.customer = customer;
+            this.lines = lines;
+            this.address = address;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public List<Line> getLines() {
+            return lines;
+        }
+    }
+
+    public static class Customer {
+        private final String name;
+
+        Customer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class Address {
+        public final String country;
+
+        Address(String country) {
+            this.country = country;
+        }
+    }
+
+    public static class Line {
+        public final String code;
+
+        Line(String code) {
+            this.code = code;
+        }
+    }
+}